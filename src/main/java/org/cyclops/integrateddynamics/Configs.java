@@ -8,6 +8,7 @@ import org.cyclops.integrateddynamics.capability.dynamiclight.DynamicLightConfig
 import org.cyclops.integrateddynamics.capability.dynamicredstone.DynamicRedstoneConfig;
 import org.cyclops.integrateddynamics.capability.facadeable.FacadeableConfig;
 import org.cyclops.integrateddynamics.capability.ingredient.IngredientComponentValueHandlerConfig;
+import org.cyclops.integrateddynamics.capability.ingredientnotifier.IngredientComponentStorageNotifierConfig;
 import org.cyclops.integrateddynamics.capability.network.EnergyNetworkConfig;
 import org.cyclops.integrateddynamics.capability.network.NetworkCarrierConfig;
 import org.cyclops.integrateddynamics.capability.network.PartNetworkConfig;
@@ -59,6 +60,7 @@ public class Configs {
         configHandler.addConfigurable(new ValueInterfaceConfig());
         configHandler.addConfigurable(new PositionedAddonsNetworkIngredientsHandlerConfig());
         configHandler.addConfigurable(new IngredientComponentValueHandlerConfig());
+        configHandler.addConfigurable(new IngredientComponentStorageNotifierConfig());
 
         // Fluids
         configHandler.addConfigurable(new FluidMenrilResinConfig());
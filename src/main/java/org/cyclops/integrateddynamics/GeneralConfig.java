@@ -91,6 +91,9 @@ public class GeneralConfig extends DummyConfig {
     @ConfigurableProperty(category = "machine", comment = "The maximum offset in blocks a directional connector can look for its target.", minimalValue = 1, configLocation = ModConfig.Type.SERVER)
     public static int maxDirectionalConnectorOffset = 512;
 
+    @ConfigurableProperty(category = "machine", comment = "The number of path elements in a network after which a warning will be logged when the network is formed. 0 disables this warning.", minimalValue = 0, isCommandable = true, configLocation = ModConfig.Type.SERVER)
+    public static int pathFinderMaxClusterSize = 100000;
+
     @ConfigurableProperty(category = "machine", comment = "The NBT tags that are not allowed to be read by displaying NBT tags or performing operations on them.", configLocation = ModConfig.Type.SERVER)
     public static List<String> nbtTagBlacklist = Lists.newArrayList(); // Tag names that have to be ignored
 
@@ -103,11 +106,11 @@ public class GeneralConfig extends DummyConfig {
     @ConfigurableProperty(category = "core", comment = "The slowest possible frequency in ticks at which ingredient network should be observed.", minimalValue = 1, isCommandable = true, configLocation = ModConfig.Type.SERVER)
     public static int ingredientNetworkObserverFrequencyMax = 40;
 
-    @ConfigurableProperty(category = "core", comment = "The ingredient network observation frequency slowdown rate in ticks.", minimalValue = 1, isCommandable = true, configLocation = ModConfig.Type.SERVER)
-    public static int ingredientNetworkObserverFrequencyIncreaseFactor = 1;
+    @ConfigurableProperty(category = "core", comment = "The weight in percentages of the latest observation in the smoothed change rate of a storage, which determines its observation frequency between the fastest and slowest frequency.", minimalValue = 1, isCommandable = true, configLocation = ModConfig.Type.SERVER)
+    public static int ingredientNetworkObserverChangeRateSmoothing = 25;
 
-    @ConfigurableProperty(category = "core", comment = "The ingredient network observation frequency slowdown rate in ticks.", minimalValue = 1, isCommandable = true, configLocation = ModConfig.Type.SERVER)
-    public static int ingredientNetworkObserverFrequencyDecreaseFactor = 5;
+    @ConfigurableProperty(category = "core", comment = "The maximum number of scheduled ingredient network positions that can be observed per tick across all networks. Set to 0 for no limit.", minimalValue = 0, isCommandable = true, configLocation = ModConfig.Type.SERVER)
+    public static int ingredientNetworkObserverBudget = 1000;
 
     @ConfigurableProperty(category = "core", comment = "The frequency in ticks at which ingredient network should be observed after a position's contents are changed.", minimalValue = 0, isCommandable = true, configLocation = ModConfig.Type.SERVER)
     public static int ingredientNetworkObserverFrequencyForced = 0;
@@ -118,12 +121,33 @@ public class GeneralConfig extends DummyConfig {
     @ConfigurableProperty(category = "core", comment = "If the ingredient network observer can work on separate thread.", isCommandable = true, configLocation = ModConfig.Type.SERVER)
     public static boolean ingredientNetworkObserverEnableMultithreading = true;
 
+    @ConfigurableProperty(category = "core", comment = "The minimal number of positions that must be observed in a channel before their diffs are calculated in parallel.", minimalValue = 1, isCommandable = true, configLocation = ModConfig.Type.SERVER)
+    public static int ingredientNetworkObserverParallelThreshold = 8;
+
+    @ConfigurableProperty(category = "core", comment = "If storages that can notify their changes should be observed via these notifications instead of by polling their contents.", isCommandable = true, configLocation = ModConfig.Type.SERVER)
+    public static boolean ingredientNetworkObserverPush = true;
+
+    @ConfigurableProperty(category = "core", comment = "The minimal interval in ticks at which the observed contents of ingredient networks are snapshotted for persistence, so that their indexes are available immediately after a restart. Set to 0 to disable.", minimalValue = 0, isCommandable = true, configLocation = ModConfig.Type.SERVER)
+    public static int ingredientNetworkObserverSnapshotInterval = 1200;
+
+    @ConfigurableProperty(category = "core", comment = "The maximum time in microseconds all networks together may spend updating their elements in a single tick. Elements that could not be updated are deferred to the next tick. 0 disables this limit.", minimalValue = 0, isCommandable = true, configLocation = ModConfig.Type.SERVER)
+    public static int networkUpdateBudgetGlobal = 0;
+
+    @ConfigurableProperty(category = "core", comment = "The maximum time in microseconds a single network may spend updating its elements in a single tick. Elements that could not be updated are deferred to the next tick. 0 disables this limit.", minimalValue = 0, isCommandable = true, configLocation = ModConfig.Type.SERVER)
+    public static int networkUpdateBudgetPerNetwork = 0;
+
     @ConfigurableProperty(category = "core", comment = "If network change events should be logged. Only enable this when debugging.", isCommandable = true, configLocation = ModConfig.Type.SERVER)
     public static boolean logChangeEvents = false;
 
     @ConfigurableProperty(category = "core", comment = "How deep the recursion stack on an operator can become. This is to avoid game crashes when building things like the omega operator.", isCommandable = true, configLocation = ModConfig.Type.SERVER)
     public static int operatorRecursionLimit = 256;
 
+    @ConfigurableProperty(category = "core", comment = "The maximum number of compiled regular expressions that are cached for string operators.", minimalValue = 1, requiresMcRestart = true, configLocation = ModConfig.Type.SERVER)
+    public static int regexCacheSize = 256;
+
+    @ConfigurableProperty(category = "core", comment = "The maximum number of parsed NBT path expressions that are cached for NBT operators.", minimalValue = 1, requiresMcRestart = true, configLocation = ModConfig.Type.SERVER)
+    public static int nbtPathCacheSize = 256;
+
     @ConfigurableProperty(category = "machine", comment = "Priority list of mod id's when determining tag-based recipe outputs.", isCommandable = true, configLocation = ModConfig.Type.SERVER)
     public static List<String> recipeTagOutputModPriorities = Lists.newArrayList();
 
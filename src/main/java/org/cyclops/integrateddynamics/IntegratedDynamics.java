@@ -46,6 +46,8 @@ import org.cyclops.integrateddynamics.client.render.valuetype.ValueTypeWorldRend
 import org.cyclops.integrateddynamics.client.render.valuetype.ValueTypeWorldRenderers;
 import org.cyclops.integrateddynamics.command.CommandCrash;
 import org.cyclops.integrateddynamics.command.CommandNetworkDiagnostics;
+import org.cyclops.integrateddynamics.command.CommandNetworks;
+import org.cyclops.integrateddynamics.command.CommandOperatorCaches;
 import org.cyclops.integrateddynamics.command.CommandTest;
 import org.cyclops.integrateddynamics.core.NoteBlockEventReceiver;
 import org.cyclops.integrateddynamics.core.TickHandler;
@@ -54,7 +56,9 @@ import org.cyclops.integrateddynamics.core.client.model.VariableModelProviders;
 import org.cyclops.integrateddynamics.core.evaluate.DelayVariableFacadeHandler;
 import org.cyclops.integrateddynamics.core.evaluate.ProxyVariableFacadeHandler;
 import org.cyclops.integrateddynamics.core.evaluate.operator.OperatorRegistry;
+import org.cyclops.integrateddynamics.core.evaluate.operator.NbtPathExpressionCache;
 import org.cyclops.integrateddynamics.core.evaluate.operator.Operators;
+import org.cyclops.integrateddynamics.core.evaluate.operator.RegexPatternCache;
 import org.cyclops.integrateddynamics.core.evaluate.variable.ValueCastMappings;
 import org.cyclops.integrateddynamics.core.evaluate.variable.ValueCastRegistry;
 import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeLightLevelRegistry;
@@ -149,6 +153,8 @@ public class IntegratedDynamics extends ModBaseVersionable<IntegratedDynamics> {
 
         root.then(CommandCrash.make());
         root.then(CommandNetworkDiagnostics.make());
+        root.then(CommandNetworks.make());
+        root.then(CommandOperatorCaches.make());
         root.then(CommandTest.make());
 
         return root;
@@ -162,6 +168,8 @@ public class IntegratedDynamics extends ModBaseVersionable<IntegratedDynamics> {
         ValueTypeLightLevels.load();
         ValueTypeListProxyFactories.load();
         Operators.load();
+        RegexPatternCache.load();
+        NbtPathExpressionCache.load();
         Aspects.load();
         PartTypes.register();
         LogicProgrammerElementTypes.load();
@@ -6,6 +6,8 @@ import org.cyclops.cyclopscore.ingredient.collection.diff.IngredientCollectionDi
 import org.cyclops.integrateddynamics.api.part.PartPos;
 import org.cyclops.integrateddynamics.api.part.PrioritizedPartPos;
 
+import java.util.List;
+
 /**
  * An observable ingredient component storage.
  * @param <T> The instance type.
@@ -92,6 +94,17 @@ public interface IIngredientComponentStorageObservable<T, M> {
          * @param event A storage change event.
          */
         public void onChange(StorageChangeEvent<T, M> event);
+
+        /**
+         * Called when the change events of a single observation round are emitted.
+         * This is called at most once per observation round, with the events in emission order.
+         * @param events The storage change events, which must not be modified.
+         */
+        public default void onChangeBatch(List<StorageChangeEvent<T, M>> events) {
+            for (StorageChangeEvent<T, M> event : events) {
+                onChange(event);
+            }
+        }
     }
 
     /**
@@ -0,0 +1,65 @@
+package org.cyclops.integrateddynamics.api.ingredient.capability;
+
+import org.cyclops.commoncapabilities.api.ingredient.IngredientComponent;
+
+/**
+ * A capability for ingredient storages that can notify listeners of fine-grained changes in their contents.
+ *
+ * Ingredient networks will use this capability when it is available at a storage position,
+ * so that this position does not have to be polled and diffed in full anymore.
+ * Implementations must call the listeners on the server thread for all changes,
+ * or call {@link IListener#onInvalidated()} when changes can not be expressed in detail.
+ *
+ * @author rubensworks
+ */
+public interface IIngredientComponentStorageNotifier {
+
+    /**
+     * Add a listener for changes of the given ingredient component.
+     * @param component An ingredient component.
+     * @param listener A listener.
+     * @param <T> The instance type.
+     * @param <M> The matching condition parameter.
+     * @return If the given ingredient component is supported.
+     *         If false, the listener will never be called.
+     */
+    public <T, M> boolean addListener(IngredientComponent<T, M> component, IListener<T, M> listener);
+
+    /**
+     * Remove the given listener.
+     * This will silently fail if the given listener was not added.
+     * @param component An ingredient component.
+     * @param listener A listener.
+     * @param <T> The instance type.
+     * @param <M> The matching condition parameter.
+     */
+    public <T, M> void removeListener(IngredientComponent<T, M> component, IListener<T, M> listener);
+
+    /**
+     * A listener for storage changes.
+     * @param <T> The instance type.
+     * @param <M> The matching condition parameter.
+     */
+    public static interface IListener<T, M> {
+
+        /**
+         * Called when the given instance was added to the storage.
+         * @param instance An instance, with the added quantity.
+         */
+        public void onAdded(T instance);
+
+        /**
+         * Called when the given instance was removed from the storage.
+         * @param instance An instance, with the removed quantity.
+         */
+        public void onRemoved(T instance);
+
+        /**
+         * Called when the storage contents have changed in a way that can not be expressed by additions and removals.
+         * This will cause the full storage contents to be observed again.
+         */
+        public void onInvalidated();
+
+    }
+
+}
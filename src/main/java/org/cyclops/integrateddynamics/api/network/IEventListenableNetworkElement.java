@@ -11,9 +11,18 @@ import java.util.Optional;
 public interface IEventListenableNetworkElement<D extends INetworkEventListener<?>> extends INetworkElement {
 
     /**
-     * This listener will never be saved as an instance, this network element is always used as delegator to this listener.
+     * This listener will never be saved as an instance, this network element is always used as delegator to this listener,
+     * unless {@link #isNetworkEventListenerStatic()} returns true.
      * @return The optional event listener.
      */
     public Optional<D> getNetworkEventListener();
 
+    /**
+     * @return If {@link #getNetworkEventListener()} always returns the same listener instance for this element,
+     *         so that it can be resolved once when registering this element to an event bus.
+     */
+    public default boolean isNetworkEventListenerStatic() {
+        return false;
+    }
+
 }
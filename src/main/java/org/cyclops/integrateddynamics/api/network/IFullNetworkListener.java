@@ -1,8 +1,11 @@
 package org.cyclops.integrateddynamics.api.network;
 
+import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.util.Direction;
 import org.cyclops.integrateddynamics.api.path.IPathElement;
 
+import javax.annotation.Nullable;
+
 /**
  * This should be implemented on network capabilities that wish to listen to all network events.
  * @author rubensworks
@@ -88,6 +91,24 @@ public interface IFullNetworkListener {
      */
     public void onSkipUpdate(INetworkElement element);
 
+    /**
+     * Called after all network elements that were due in a network update have been updated.
+     */
+    public default void afterUpdate() {
+
+    }
+
+    /**
+     * If this listener can be updated outside of the main server thread.
+     * This should only return true if {@link #update()}, {@link #canUpdate(INetworkElement)},
+     * {@link #postUpdate(INetworkElement)}, {@link #onSkipUpdate(INetworkElement)} and {@link #afterUpdate()}
+     * do not touch the world or any other state that is shared with other networks.
+     * @return If this listener is thread-safe.
+     */
+    public default boolean isThreadSafe() {
+        return false;
+    }
+
     /**
      * Invalidate the given element.
      * Called when the element's chunk is being unloaded.
@@ -102,4 +123,32 @@ public interface IFullNetworkListener {
      */
     public void revalidateElement(INetworkElement element);
 
+    /**
+     * @return The key under which the persisted data of this listener is stored in the network,
+     *         or null if this listener has no persisted data.
+     */
+    @Nullable
+    public default String getPersistedDataKey() {
+        return null;
+    }
+
+    /**
+     * Write the data of this listener that must be persisted together with the network.
+     * This is called when the network is being saved, so this should not perform any expensive operations.
+     * @return The persisted data, or null if nothing must be persisted.
+     */
+    @Nullable
+    public default CompoundNBT writePersistedData() {
+        return null;
+    }
+
+    /**
+     * Read the persisted data of this listener.
+     * This is called after the network has been loaded and initialized.
+     * @param tag The persisted data.
+     */
+    public default void readPersistedData(CompoundNBT tag) {
+
+    }
+
 }
@@ -45,6 +45,18 @@ public interface INetwork extends IFullNetworkListener, INBTSerializable {
      */
     public void setPriorityAndChannel(INetworkElement element, int priority, int channel);
 
+    /**
+     * Networks are always updated on the main server thread by Integrated Dynamics itself,
+     * but other network tick schedulers may use this to update networks in parallel.
+     * @return If this network can be updated outside of the main server thread,
+     *         which is only the case if all its updateable and event-listening elements
+     *         and all its full network listeners are thread-safe.
+     */
+    @Override
+    public default boolean isThreadSafe() {
+        return false;
+    }
+
     /**
      * Kills the network is it had no more network elements.
      * @return If the network was killed.
@@ -83,6 +95,21 @@ public interface INetwork extends IFullNetworkListener, INBTSerializable {
      */
     public void resetLastSecondDurations();
 
+    /**
+     * @return The total number of element updates that were deferred to a later tick
+     *         because the network update budget was exhausted.
+     */
+    public default long getDeferredUpdates() {
+        return 0;
+    }
+
+    /**
+     * @return The total number of ticks by which deferred element updates were delayed.
+     */
+    public default long getDeferredUpdateDelay() {
+        return 0;
+    }
+
     /**
      * @return If this network has crashed.
      */
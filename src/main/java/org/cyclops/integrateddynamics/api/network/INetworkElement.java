@@ -36,6 +36,18 @@ public interface INetworkElement extends Comparable<INetworkElement> {
      */
     public void update(INetwork network);
 
+    /**
+     * If this element can be updated outside of the main server thread.
+     * This should only return true if {@link #update(INetwork)} and the handling of network events
+     * do not touch the world or any other state that is shared with other networks.
+     * Networks that contain at least one updateable or event-listening element that is not thread-safe
+     * will always be updated on the main server thread.
+     * @return If this element is thread-safe.
+     */
+    public default boolean isThreadSafe() {
+        return false;
+    }
+
     /**
      * Called right before the network is terminated or will be reset.
      * @param network The network to update in.
@@ -62,6 +62,23 @@ public interface IPositionedAddonsNetworkIngredients<T, M> extends IPositionedAd
     @Nullable
     public PositionedAddonsNetworkIngredientsFilter<T> getPositionedStorageFilter(PartPos pos);
 
+    /**
+     * Check if the given position may contain instances that match the given prototype,
+     * based on the last observed contents of the position.
+     * This may return true for positions that do not contain any matches,
+     * but positions for which this returns false can be skipped.
+     * Implementations must only return false if no instances can have been added to the position
+     * since its last observation, such as for storages that notify all their changes.
+     * @param channel The channel that is being looked at.
+     * @param pos A position.
+     * @param prototype An instance prototype.
+     * @param matchFlags Match flags.
+     * @return If the position may contain matching instances.
+     */
+    public default boolean mayContain(int channel, PartPos pos, T prototype, M matchFlags) {
+        return true;
+    }
+
     /**
      * Get all instances at the target position.
      * @param pos A part position.
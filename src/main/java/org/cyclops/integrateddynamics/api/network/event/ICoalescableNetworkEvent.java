@@ -0,0 +1,20 @@
+package org.cyclops.integrateddynamics.api.network.event;
+
+import org.cyclops.integrateddynamics.api.network.INetwork;
+
+/**
+ * An event posted in the {@link INetwork} event bus
+ * for which multiple occurrences within the same tick can be merged into a single event.
+ * @param <E> The type of event.
+ * @author rubensworks
+ */
+public interface ICoalescableNetworkEvent<E extends ICoalescableNetworkEvent<E>> extends INetworkEvent {
+
+    /**
+     * Merge this event with the given event of the same type.
+     * @param other An event that was posted after this event.
+     * @return An event that represents both events.
+     */
+    public E coalesce(E other);
+
+}
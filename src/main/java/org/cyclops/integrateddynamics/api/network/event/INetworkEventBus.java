@@ -44,4 +44,24 @@ public interface INetworkEventBus {
      */
     public boolean postCancelable(ICancelableNetworkEvent event);
 
+    /**
+     * Post the given event to the events bus once the network has finished its current tick.
+     * Multiple events of the same type that are posted within the same tick
+     * are merged into a single event that is dispatched once.
+     * By default, the event is posted immediately.
+     * @param event The event to post.
+     */
+    public default void postCoalesced(ICoalescableNetworkEvent<?> event) {
+        post(event);
+    }
+
+    /**
+     * Dispatch all events that were posted via {@link #postCoalesced(ICoalescableNetworkEvent)}.
+     * This is called by the network after each tick.
+     * Events that are posted during this dispatch will only be dispatched in the next flush.
+     */
+    public default void flushCoalesced() {
+
+    }
+
 }
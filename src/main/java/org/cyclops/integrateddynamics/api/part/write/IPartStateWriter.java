@@ -1,5 +1,6 @@
 package org.cyclops.integrateddynamics.api.part.write;
 
+import it.unimi.dsi.fastutil.ints.IntSet;
 import net.minecraft.util.text.IFormattableTextComponent;
 import org.cyclops.cyclopscore.inventory.SimpleInventory;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
@@ -41,6 +42,15 @@ public interface IPartStateWriter<P extends IPartTypeWriter> extends IPartState<
      */
     public <V extends IValue> IVariable<V> getVariable(INetwork network, IPartNetwork partNetwork);
 
+    /**
+     * @return The ids of all variables in the network the active variable depends on,
+     *         or null if they are not known yet.
+     */
+    @Nullable
+    public default IntSet getVariableDependencies() {
+        return null;
+    }
+
     /**
      * Indicate that this state should eventually recheck its aspect info because something might have changed what can
      * cause the active variable to be referring to something else.
@@ -0,0 +1,30 @@
+package org.cyclops.integrateddynamics.capability.ingredientnotifier;
+
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityInject;
+import org.cyclops.commoncapabilities.CommonCapabilities;
+import org.cyclops.cyclopscore.config.extendedconfig.CapabilityConfig;
+import org.cyclops.cyclopscore.modcompat.capabilities.DefaultCapabilityStorage;
+import org.cyclops.integrateddynamics.api.ingredient.capability.IIngredientComponentStorageNotifier;
+
+/**
+ * Config for the ingredient component storage notifier capability.
+ * @author rubensworks
+ *
+ */
+public class IngredientComponentStorageNotifierConfig extends CapabilityConfig<IIngredientComponentStorageNotifier> {
+
+    @CapabilityInject(IIngredientComponentStorageNotifier.class)
+    public static Capability<IIngredientComponentStorageNotifier> CAPABILITY = null;
+
+    public IngredientComponentStorageNotifierConfig() {
+        super(
+                CommonCapabilities._instance,
+                "ingredientComponentStorageNotifier",
+                IIngredientComponentStorageNotifier.class,
+                new DefaultCapabilityStorage<IIngredientComponentStorageNotifier>(),
+                IngredientComponentStorageNotifierDefault::new
+        );
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.cyclops.integrateddynamics.capability.ingredientnotifier;
+
+import org.cyclops.commoncapabilities.api.ingredient.IngredientComponent;
+import org.cyclops.integrateddynamics.api.ingredient.capability.IIngredientComponentStorageNotifier;
+
+/**
+ * Default implementation of {@link IIngredientComponentStorageNotifier} that does not support any component.
+ * @author rubensworks
+ */
+public class IngredientComponentStorageNotifierDefault implements IIngredientComponentStorageNotifier {
+
+    @Override
+    public <T, M> boolean addListener(IngredientComponent<T, M> component, IListener<T, M> listener) {
+        return false;
+    }
+
+    @Override
+    public <T, M> void removeListener(IngredientComponent<T, M> component, IListener<T, M> listener) {
+
+    }
+
+}
@@ -1,6 +1,8 @@
 package org.cyclops.integrateddynamics.capability.variablecontainer;
 
 import com.google.common.collect.Maps;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.item.ItemStack;
 import org.cyclops.integrateddynamics.RegistryEntries;
@@ -14,6 +16,7 @@ import org.cyclops.integrateddynamics.core.network.event.VariableContentsUpdated
 import org.cyclops.integrateddynamics.item.ItemVariable;
 
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Default implementation of {@link IVariableContainer}.
@@ -41,6 +44,8 @@ public class VariableContainerDefault implements IVariableContainer {
         });
 
         // Reset variable facades in inventory
+        Map<Integer, IVariableFacade> previousVariableCache = sendVariablesUpdateEvent && network != null
+                ? Maps.newHashMap(getVariableCache()) : null;
         getVariableCache().clear();
         IVariableFacade firstInvalidVariableFacade = null;
         for (int i = 0; i < inventory.getSizeInventory(); i++) {
@@ -63,10 +68,21 @@ public class VariableContainerDefault implements IVariableContainer {
             getVariableCache().put(firstInvalidVariableFacade.getId(), firstInvalidVariableFacade);
         }
 
-        // Trigger event in network
-        if (sendVariablesUpdateEvent) {
-            if (network != null) {
-                network.getEventBus().post(new VariableContentsUpdatedEvent(network));
+        // Trigger event in network for the variables that have changed
+        if (previousVariableCache != null) {
+            IntSet changedVariableIds = new IntOpenHashSet();
+            for (Map.Entry<Integer, IVariableFacade> entry : previousVariableCache.entrySet()) {
+                if (!Objects.equals(entry.getValue(), getVariableCache().get(entry.getKey()))) {
+                    changedVariableIds.add((int) entry.getKey());
+                }
+            }
+            for (Map.Entry<Integer, IVariableFacade> entry : getVariableCache().entrySet()) {
+                if (!Objects.equals(entry.getValue(), previousVariableCache.get(entry.getKey()))) {
+                    changedVariableIds.add((int) entry.getKey());
+                }
+            }
+            if (!changedVariableIds.isEmpty()) {
+                network.getEventBus().postCoalesced(new VariableContentsUpdatedEvent(network, changedVariableIds));
             }
         }
     }
@@ -0,0 +1,34 @@
+package org.cyclops.integrateddynamics.command;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.StringTextComponent;
+import org.cyclops.integrateddynamics.IntegratedDynamics;
+import org.cyclops.integrateddynamics.core.persist.world.NetworkWorldStorage;
+
+/**
+ * Command for showing the number of active and dormant networks.
+ * @author rubensworks
+ *
+ */
+public class CommandNetworks implements Command<CommandSource> {
+
+    @Override
+    public int run(CommandContext<CommandSource> context) throws CommandSyntaxException {
+        NetworkWorldStorage storage = NetworkWorldStorage.getInstance(IntegratedDynamics._instance);
+        int active = storage.getActiveNetworkCount();
+        int dormant = storage.getDormantNetworkCount();
+        context.getSource().sendFeedback(new StringTextComponent(String.format("Networks: %s active, %s dormant", active, dormant)), false);
+        return active + dormant;
+    }
+
+    public static LiteralArgumentBuilder<CommandSource> make() {
+        return Commands.literal("networks")
+                .requires((commandSource) -> commandSource.hasPermissionLevel(2))
+                .executes(new CommandNetworks());
+    }
+}
@@ -0,0 +1,35 @@
+package org.cyclops.integrateddynamics.command;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.TranslationTextComponent;
+import org.cyclops.integrateddynamics.core.evaluate.operator.BoundedCompileCache;
+
+/**
+ * Command for showing the usage of the caches of operators.
+ * @author rubensworks
+ *
+ */
+public class CommandOperatorCaches implements Command<CommandSource> {
+
+    @Override
+    public int run(CommandContext<CommandSource> context) throws CommandSyntaxException {
+        int size = 0;
+        for (BoundedCompileCache<?> cache : BoundedCompileCache.getCaches()) {
+            context.getSource().sendFeedback(new TranslationTextComponent("gui.integrateddynamics.diagnostics.cache",
+                    new TranslationTextComponent(cache.getTranslationKey()), cache.size(), cache.getHits(), cache.getMisses()), false);
+            size += cache.size();
+        }
+        return size;
+    }
+
+    public static LiteralArgumentBuilder<CommandSource> make() {
+        return Commands.literal("operatorcaches")
+                .requires((commandSource) -> commandSource.hasPermissionLevel(2))
+                .executes(new CommandOperatorCaches());
+    }
+}
@@ -2,12 +2,15 @@ package org.cyclops.integrateddynamics.core;
 
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
 import org.cyclops.cyclopscore.helper.MinecraftHelpers;
 import org.cyclops.integrateddynamics.IntegratedDynamics;
 import org.cyclops.integrateddynamics.api.network.IFullNetworkListener;
 import org.cyclops.integrateddynamics.api.network.INetwork;
 import org.cyclops.integrateddynamics.api.network.IPositionedAddonsNetworkIngredients;
 import org.cyclops.integrateddynamics.core.helper.NetworkHelpers;
+import org.cyclops.integrateddynamics.core.network.IngredientObserverScheduler;
+import org.cyclops.integrateddynamics.core.network.NetworkUpdateBudget;
 import org.cyclops.integrateddynamics.core.network.diagnostics.NetworkDiagnostics;
 import org.cyclops.integrateddynamics.core.persist.world.NetworkWorldStorage;
 
@@ -43,18 +46,22 @@ public final class TickHandler {
         }
         if(event.type == TickEvent.Type.SERVER && event.phase == TickEvent.Phase.END) {
             // Invoke update logic irrespective of safe-mode
-            for (INetwork network : NetworkWorldStorage.getInstance(IntegratedDynamics._instance).getNetworks()) {
+            for (INetwork network : NetworkWorldStorage.getInstance(IntegratedDynamics._instance).getNetworkArray()) {
                 network.updateGuaranteed();
             }
 
             // Do further network updates only when safe-mode is not enabled
             if (NetworkHelpers.shouldWork()) {
+                NetworkUpdateBudget.resetGlobal();
+                // Hand out the ingredient positions that are due for observation before networks are updated
+                IngredientObserverScheduler.getInstance().onTick(ServerLifecycleHooks.getCurrentServer().getTickCounter());
                 boolean isBeingDiagnozed = NetworkDiagnostics.getInstance().isBeingDiagnozed();
                 if (isBeingDiagnozed) {
                     tick = (tick + 1) % MinecraftHelpers.SECOND_IN_TICKS;
                 }
                 boolean shouldSendTickDurationInfo = isBeingDiagnozed && tick == 0;
-                for (INetwork network : NetworkWorldStorage.getInstance(IntegratedDynamics._instance).getNetworks()) {
+                // Dormant networks are skipped until they are woken up
+                for (INetwork network : NetworkWorldStorage.getInstance(IntegratedDynamics._instance).getActiveNetworkArray()) {
                     if (isBeingDiagnozed && (shouldSendTickDurationInfo || network.hasChanged())) {
                         NetworkDiagnostics.getInstance().sendNetworkUpdate(network);
                         network.resetLastSecondDurations();
@@ -1,6 +1,7 @@
 package org.cyclops.integrateddynamics.core.evaluate;
 
 import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.text.IFormattableTextComponent;
@@ -35,6 +36,7 @@ public class InventoryVariableEvaluator<V extends IValue> implements IVariableFa
     private final IValueType containingValueType;
 
     private IVariableFacade variableStored = null;
+    private IntSet variableDependencies = null;
     private List<IFormattableTextComponent> errors = Lists.newLinkedList();
 
     public InventoryVariableEvaluator(IInventory inventory, int slot, IValueType<V> containingValueType) {
@@ -74,9 +76,11 @@ public class InventoryVariableEvaluator<V extends IValue> implements IVariableFa
         }
 
         clearErrors();
+        this.variableDependencies = null;
         if (partNetwork == null) {
             addError(new TranslationTextComponent(L10NValues.GENERAL_ERROR_NONETWORK));
         } else if (this.variableStored != null) {
+            this.variableDependencies = NetworkHelpers.getVariableDependencies(partNetwork, this.variableStored);
             preValidate();
             try {
                 variableStored.validate(partNetwork, this, containingValueType);
@@ -85,7 +89,7 @@ public class InventoryVariableEvaluator<V extends IValue> implements IVariableFa
             }
         }
         if(sendVariablesUpdateEvent && partNetwork != null && lastVariabledId != variableId) {
-            network.getEventBus().post(new VariableContentsUpdatedEvent(network));
+            network.getEventBus().postCoalesced(new VariableContentsUpdatedEvent(network));
         }
     }
 
@@ -110,6 +114,15 @@ public class InventoryVariableEvaluator<V extends IValue> implements IVariableFa
         return variableStored;
     }
 
+    /**
+     * @return The ids of all variables in the network the stored variable depends on,
+     *         or null if they are not known.
+     */
+    @Nullable
+    public IntSet getVariableDependencies() {
+        return variableDependencies;
+    }
+
     protected void preValidate() {
 
     }
@@ -38,12 +38,14 @@ public class OperatorBuilder<O> {
     private final List<String> kinds;
     private final IConditionalOutputTypeDeriver conditionalOutputTypeDeriver;
     private final ITypeValidator typeValidator;
+    private final IAppliedVariablesPreparer appliedVariablesPreparer;
     private final List<IOperatorValuePropagator> valuePropagators;
 
     protected OperatorBuilder(String symbol, String operatorName, IValueType[] inputTypes, IValueType outputType,
                               OperatorBase.IFunction function, IConfigRenderPattern renderPattern, String modId,
                               List<String> kinds, IConditionalOutputTypeDeriver conditionalOutputTypeDeriver,
-                              ITypeValidator typeValidator, List<IOperatorValuePropagator> valuePropagators) {
+                              ITypeValidator typeValidator, IAppliedVariablesPreparer appliedVariablesPreparer,
+                              List<IOperatorValuePropagator> valuePropagators) {
         this.symbol = symbol;
         this.operatorName = operatorName;
         this.inputTypes = inputTypes;
@@ -54,6 +56,7 @@ public class OperatorBuilder<O> {
         this.kinds = kinds;
         this.conditionalOutputTypeDeriver = conditionalOutputTypeDeriver;
         this.typeValidator = typeValidator;
+        this.appliedVariablesPreparer = appliedVariablesPreparer;
         this.valuePropagators = valuePropagators;
     }
 
@@ -64,7 +67,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> output(IValueType outputType) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, valuePropagators);
     }
 
     /**
@@ -74,7 +77,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> symbol(String symbol) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, valuePropagators);
     }
 
     /**
@@ -84,7 +87,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> operatorName(String operatorName) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, valuePropagators);
     }
 
     /**
@@ -95,7 +98,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> symbolOperator(String symbolOperator) {
         return new OperatorBuilder<>(symbolOperator, symbolOperator, inputTypes, outputType, function, renderPattern,
-                modId, kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                modId, kinds, conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, valuePropagators);
     }
 
     /**
@@ -105,7 +108,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> inputTypes(IValueType... inputTypes) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, valuePropagators);
     }
 
     /**
@@ -116,7 +119,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> inputTypes(int length, IValueType defaultType) {
         return new OperatorBuilder<>(symbol, operatorName, OperatorBase.constructInputVariables(length, defaultType),
-                outputType, function, renderPattern, modId, kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                outputType, function, renderPattern, modId, kinds, conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, valuePropagators);
     }
 
     /**
@@ -138,7 +141,7 @@ public class OperatorBuilder<O> {
             throw new IllegalStateException("Can not add a function when value propagators are present.");
         }
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, valuePropagators);
     }
 
     /**
@@ -148,7 +151,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> renderPattern(IConfigRenderPattern renderPattern) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, valuePropagators);
     }
 
     /**
@@ -158,7 +161,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> modId(String modId) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, valuePropagators);
     }
 
     /**
@@ -168,7 +171,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> appendKind(String kind) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId,
-                Helpers.joinList(kinds, kind), conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                Helpers.joinList(kinds, kind), conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, valuePropagators);
     }
 
     /**
@@ -179,7 +182,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> conditionalOutputTypeDeriver(IConditionalOutputTypeDeriver conditionalOutputTypeDeriver) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId,
-                kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                kinds, conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, valuePropagators);
     }
 
     /**
@@ -189,7 +192,18 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> typeValidator(ITypeValidator typeValidator) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId,
-                kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                kinds, conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, valuePropagators);
+    }
+
+    /**
+     * Set the preparer of applied variables.
+     * @param appliedVariablesPreparer The preparer of variables that are applied by currying.
+     *                                 This will be used for {@link OperatorBase#prepareAppliedVariables(IVariable[])}.
+     * @return The builder instance.
+     */
+    public OperatorBuilder<O> appliedVariablesPreparer(IAppliedVariablesPreparer appliedVariablesPreparer) {
+        return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId,
+                kinds, conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, valuePropagators);
     }
 
     /**
@@ -203,7 +217,7 @@ public class OperatorBuilder<O> {
             throw new IllegalStateException("Can not add a function when value propagators are present.");
         }
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, Helpers.joinList(valuePropagators, valuePropagator));
+                conditionalOutputTypeDeriver, typeValidator, appliedVariablesPreparer, Helpers.joinList(valuePropagators, valuePropagator));
     }
 
     /**
@@ -221,7 +235,7 @@ public class OperatorBuilder<O> {
      */
     public static OperatorBuilder<OperatorBase.SafeVariablesGetter> forType(IValueType<?> outputType) {
         return new OperatorBuilder<>(null, null, null, outputType, null, null, Reference.MOD_ID,
-                Collections.<String>emptyList(), null, null, null);
+                Collections.<String>emptyList(), null, null, null, null);
     }
 
     private static class Built extends OperatorBase {
@@ -230,6 +244,7 @@ public class OperatorBuilder<O> {
         private final String unlocalizedType;
         private final IConditionalOutputTypeDeriver conditionalOutputTypeDeriver;
         private final ITypeValidator typeValidator;
+        private final IAppliedVariablesPreparer appliedVariablesPreparer;
 
         protected Built(OperatorBuilder operatorBuilder) {
             super(Objects.requireNonNull(operatorBuilder.symbol),
@@ -241,6 +256,7 @@ public class OperatorBuilder<O> {
             this.unlocalizedType = deriveUnlocalizedType(operatorBuilder);
             this.conditionalOutputTypeDeriver = operatorBuilder.conditionalOutputTypeDeriver;
             this.typeValidator = operatorBuilder.typeValidator;
+            this.appliedVariablesPreparer = operatorBuilder.appliedVariablesPreparer;
         }
 
         protected static IFunction deriveFunction(OperatorBuilder operatorBuilder) {
@@ -287,6 +303,18 @@ public class OperatorBuilder<O> {
                     ? typeValidator.validateTypes(this, input)
                     : super.validateTypes(input);
         }
+
+        @Override
+        protected boolean hasCustomTypeValidation() {
+            return typeValidator != null;
+        }
+
+        @Override
+        public IVariable[] prepareAppliedVariables(IVariable[] appliedVariables) {
+            return appliedVariablesPreparer != null
+                    ? appliedVariablesPreparer.prepareAppliedVariables(this, appliedVariables)
+                    : super.prepareAppliedVariables(appliedVariables);
+        }
     }
 
     public static interface IConditionalOutputTypeDeriver {
@@ -307,4 +335,16 @@ public class OperatorBuilder<O> {
 
     }
 
+    public static interface IAppliedVariablesPreparer {
+
+        /**
+         * Prepare the variables that are applied to the given operator by currying.
+         * @param operator The operator that is being curried.
+         * @param appliedVariables The applied variables, starting from the first input.
+         * @return The variables to apply, of the same types.
+         */
+        public IVariable[] prepareAppliedVariables(OperatorBase operator, IVariable[] appliedVariables);
+
+    }
+
 }
@@ -9,11 +9,17 @@ import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.core.evaluate.operator.OperatorBase;
 import org.cyclops.integrateddynamics.core.helper.L10NValues;
 
+import javax.annotation.Nullable;
+
 /**
  * A generic expression with arbitrarily nested binary operations.
  * This is evaluated in a lazy manner.
+ *
+ * Expressions are recreated when their variable graph changes,
+ * so their operator is compiled once against the input on first evaluation.
  * @author rubensworks
  */
 public class LazyExpression<V extends IValue> extends VariableAdapter<V> implements IExpression<V> {
@@ -23,6 +29,9 @@ public class LazyExpression<V extends IValue> extends VariableAdapter<V> impleme
     private final IVariable[] input;
     private final ILazyExpressionValueCache valueCache;
     private boolean errored = false;
+    @Nullable
+    private OperatorBase.Compiled compiled = null;
+    private boolean compileAttempted = false;
 
     public LazyExpression(int id, IOperator op, IVariable[] input, ILazyExpressionValueCache valueCache) {
         this.id = id;
@@ -40,7 +49,8 @@ public class LazyExpression<V extends IValue> extends VariableAdapter<V> impleme
         if(valueCache.hasValue(id)) {
             return valueCache.getValue(id);
         }
-        IValue value = op.evaluate(input);
+        OperatorBase.Compiled compiled = getCompiled();
+        IValue value = compiled != null ? compiled.evaluate() : op.evaluate(input);
         for (IVariable inputVariable : input) {
             inputVariable.addInvalidationListener(this);
         }
@@ -48,6 +58,21 @@ public class LazyExpression<V extends IValue> extends VariableAdapter<V> impleme
         return value;
     }
 
+    /**
+     * @return The compiled operator, or null if the operator can not be compiled for the input,
+     *         in which case it must be evaluated in full.
+     */
+    @Nullable
+    protected OperatorBase.Compiled getCompiled() {
+        if (!compileAttempted) {
+            compileAttempted = true;
+            if (op instanceof OperatorBase) {
+                compiled = ((OperatorBase) op).compile(input);
+            }
+        }
+        return compiled;
+    }
+
     @Override
     public boolean hasErrored() {
         return errored;
@@ -0,0 +1,171 @@
+package org.cyclops.integrateddynamics.core.evaluate.operator;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * A server-wide cache of values that are compiled from strings by operators, such as regular expressions.
+ *
+ * The cache is bounded in size, and also remembers strings that failed to compile,
+ * so that invalid strings are not compiled again on every evaluation.
+ * A new exception is created for each lookup of an invalid string.
+ *
+ * @param <V> The compiled value type.
+ * @author rubensworks
+ */
+public class BoundedCompileCache<V> {
+
+    private static final List<BoundedCompileCache<?>> CACHES = new CopyOnWriteArrayList<>();
+
+    private final String translationKey;
+    private final IntSupplier maximumSize;
+    private final ICompiler<V> compiler;
+    private final IErrorFactory errorFactory;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile Cache<String, Entry<V>> cache = null;
+
+    /**
+     * Create a new cache.
+     * @param translationKey The translation key of the name of this cache.
+     * @param maximumSize The maximum size of this cache, which is only requested on first use,
+     *                    so that the configured size is loaded.
+     * @param compiler The compiler of values.
+     * @param errorFactory The factory for exceptions when a string could not be compiled.
+     */
+    public BoundedCompileCache(String translationKey, IntSupplier maximumSize, ICompiler<V> compiler,
+                               IErrorFactory errorFactory) {
+        this.translationKey = translationKey;
+        this.maximumSize = maximumSize;
+        this.compiler = compiler;
+        this.errorFactory = errorFactory;
+        CACHES.add(this);
+    }
+
+    /**
+     * @return All created caches, in creation order.
+     */
+    public static List<BoundedCompileCache<?>> getCaches() {
+        return Collections.unmodifiableList(CACHES);
+    }
+
+    protected Cache<String, Entry<V>> getCache() {
+        Cache<String, Entry<V>> cache = this.cache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = this.cache;
+                if (cache == null) {
+                    cache = CacheBuilder.newBuilder()
+                            .maximumSize(maximumSize.getAsInt())
+                            .build();
+                    this.cache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Get the compiled value for the given string.
+     * @param key A string.
+     * @return The compiled value.
+     * @throws EvaluationException If the string could not be compiled.
+     */
+    public V get(String key) throws EvaluationException {
+        Cache<String, Entry<V>> cache = getCache();
+        Entry<V> entry = cache.getIfPresent(key);
+        if (entry != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            try {
+                entry = new Entry<>(compiler.compile(key), null);
+            } catch (CompileException e) {
+                entry = new Entry<>(null, String.valueOf(e.getMessage()));
+            }
+            cache.put(key, entry);
+        }
+        if (entry.error != null) {
+            throw errorFactory.create(key, entry.error);
+        }
+        return entry.value;
+    }
+
+    public String getTranslationKey() {
+        return translationKey;
+    }
+
+    /**
+     * @return The number of lookups that were served from the cache.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of lookups that required a compilation.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return The number of cached values, including invalid ones.
+     */
+    public long size() {
+        return getCache().size();
+    }
+
+    protected static class Entry<V> {
+
+        private final V value;
+        private final String error;
+
+        public Entry(V value, String error) {
+            this.value = value;
+            this.error = error;
+        }
+    }
+
+    public static interface ICompiler<V> {
+
+        /**
+         * Compile the given string.
+         * @param key A string.
+         * @return The compiled value.
+         * @throws CompileException If the string is invalid.
+         */
+        public V compile(String key) throws CompileException;
+
+    }
+
+    public static interface IErrorFactory {
+
+        /**
+         * Create an exception for a string that could not be compiled.
+         * @param key The string.
+         * @param error The error message of the compiler.
+         * @return A new exception.
+         */
+        public EvaluationException create(String key, String error);
+
+    }
+
+    /**
+     * An exception for strings that could not be compiled.
+     */
+    public static class CompileException extends Exception {
+
+        public CompileException(String message) {
+            super(message);
+        }
+    }
+
+}
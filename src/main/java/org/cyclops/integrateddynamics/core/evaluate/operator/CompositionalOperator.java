@@ -164,6 +164,11 @@ public class CompositionalOperator extends OperatorBase {
                 public IFormattableTextComponent validateTypes(IValueType[] input) {
                     return AppliedOperatorBuilder.this.validateTypes(getTranslationKey(), input);
                 }
+
+                @Override
+                protected boolean hasCustomTypeValidation() {
+                    return true;
+                }
             };
         }
 
@@ -36,7 +36,8 @@ public class CurriedOperator implements IOperator {
 
     public CurriedOperator(IOperator baseOperator, IVariable... appliedVariables) {
         this.baseOperator = baseOperator;
-        this.appliedVariables = appliedVariables;
+        this.appliedVariables = baseOperator instanceof OperatorBase
+                ? ((OperatorBase) baseOperator).prepareAppliedVariables(appliedVariables) : appliedVariables;
     }
 
     protected String getAppliedSymbol() {
@@ -120,7 +121,55 @@ public class CurriedOperator implements IOperator {
 
     @Override
     public IValue evaluate(IVariable[] input) throws EvaluationException {
-        return baseOperator.evaluate(deriveFullInputVariables(input));
+        OperatorArgumentBuffers.Buffer buffer = takeFullInputBuffer(input.length);
+        for (int i = appliedVariables.length; i < buffer.getVariables().length; i++) {
+            buffer.setVariable(i, input[i - appliedVariables.length]);
+        }
+        return evaluate(buffer);
+    }
+
+    /**
+     * Evaluate the given input values for this operator,
+     * without wrapping each value in a new variable.
+     * @param input The ordered input values.
+     * @return The output value.
+     * @throws EvaluationException If an exception occurs while evaluating
+     */
+    public IValue evaluate(IValue[] input) throws EvaluationException {
+        OperatorArgumentBuffers.Buffer buffer = takeFullInputBuffer(input.length);
+        for (int i = appliedVariables.length; i < buffer.getVariables().length; i++) {
+            buffer.setValue(i, input[i - appliedVariables.length]);
+        }
+        return evaluate(buffer);
+    }
+
+    /**
+     * Take an argument buffer for the full input of the base operator, in which the applied variables are set.
+     * This is the allocation-free variant of {@link #deriveFullInputVariables(IVariable[])}.
+     * @param partialInputLength The length of the partial input.
+     * @return An argument buffer.
+     */
+    protected OperatorArgumentBuffers.Buffer takeFullInputBuffer(int partialInputLength) {
+        OperatorArgumentBuffers.Buffer buffer = OperatorArgumentBuffers.take(
+                Math.min(baseOperator.getRequiredInputLength(), partialInputLength + appliedVariables.length));
+        for (int i = 0; i < appliedVariables.length; i++) {
+            buffer.setVariable(i, appliedVariables[i]);
+        }
+        return buffer;
+    }
+
+    protected IValue evaluate(OperatorArgumentBuffers.Buffer buffer) throws EvaluationException {
+        IValue result = null;
+        try {
+            if (baseOperator instanceof OperatorBase) {
+                result = ((OperatorBase) baseOperator).evaluate(buffer.getGetter(), true);
+            } else {
+                result = baseOperator.evaluate(buffer.getVariables());
+            }
+        } finally {
+            OperatorArgumentBuffers.release(buffer, result);
+        }
+        return result;
     }
 
     @Override
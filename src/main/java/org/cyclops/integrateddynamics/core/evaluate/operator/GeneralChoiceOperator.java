@@ -28,6 +28,11 @@ public class GeneralChoiceOperator extends GeneralOperator {
         }, new IConfigRenderPattern.Base(100, 22, new Pair[]{Pair.of(6, 2), Pair.of(60, 2) , Pair.of(80, 2)}, Pair.of(40, 2)));
     }
 
+    @Override
+    protected boolean hasCustomTypeValidation() {
+        return true;
+    }
+
     @Override
     public IFormattableTextComponent validateTypes(IValueType[] input) {
         // Input size checking
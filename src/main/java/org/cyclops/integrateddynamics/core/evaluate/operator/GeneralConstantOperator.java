@@ -19,6 +19,11 @@ public class GeneralConstantOperator extends GeneralOperator {
                 variables -> variables.getValue(0), IConfigRenderPattern.PREFIX_2);
     }
 
+    @Override
+    protected boolean hasCustomTypeValidation() {
+        return true;
+    }
+
     @Override
     public IFormattableTextComponent validateTypes(IValueType[] input) {
         // Input size checking
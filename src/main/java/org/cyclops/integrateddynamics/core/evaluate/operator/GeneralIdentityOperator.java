@@ -25,6 +25,11 @@ public class GeneralIdentityOperator extends GeneralOperator {
         }, IConfigRenderPattern.PREFIX_1);
     }
 
+    @Override
+    protected boolean hasCustomTypeValidation() {
+        return true;
+    }
+
     @Override
     public IFormattableTextComponent validateTypes(IValueType[] input) {
         // Input size checking
@@ -0,0 +1,152 @@
+package org.cyclops.integrateddynamics.core.evaluate.operator;
+
+import net.minecraft.util.text.TranslationTextComponent;
+import org.cyclops.cyclopscore.nbt.path.INbtPathExpression;
+import org.cyclops.cyclopscore.nbt.path.NbtParseException;
+import org.cyclops.cyclopscore.nbt.path.NbtPath;
+import org.cyclops.integrateddynamics.GeneralConfig;
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariableInvalidateListener;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeString;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypes;
+import org.cyclops.integrateddynamics.core.helper.L10NValues;
+
+/**
+ * A server-wide cache of parsed NBT path expressions for the NBT path operators.
+ *
+ * Operators that are curried with a path additionally hold on to its parsed expression,
+ * so that they don't require a cache lookup when they are applied.
+ *
+ * @author rubensworks
+ */
+public class NbtPathExpressionCache {
+
+    private static final BoundedCompileCache<INbtPathExpression> CACHE = new BoundedCompileCache<>(
+            "gui.integrateddynamics.diagnostics.cache.nbt_path",
+            () -> GeneralConfig.nbtPathCacheSize,
+            path -> {
+                try {
+                    return NbtPath.parse(path);
+                } catch (NbtParseException e) {
+                    throw new BoundedCompileCache.CompileException(e.getMessage());
+                }
+            },
+            (path, error) -> new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_NBT_PATH_EXPRESSION,
+                    path, error)));
+
+    public static void load() {}
+
+    public static BoundedCompileCache<INbtPathExpression> getCache() {
+        return CACHE;
+    }
+
+    /**
+     * Get the parsed expression for the given NBT path.
+     * @param path An NBT path.
+     * @return The parsed expression.
+     * @throws EvaluationException If the path is invalid.
+     */
+    public static INbtPathExpression parse(String path) throws EvaluationException {
+        return CACHE.get(path);
+    }
+
+    /**
+     * Get the parsed expression for the NBT path in the given variable.
+     * @param variable A string variable.
+     * @return The parsed expression.
+     * @throws EvaluationException If the path is invalid.
+     */
+    public static INbtPathExpression parse(IVariable variable) throws EvaluationException {
+        if (variable instanceof CompiledVariable) {
+            return ((CompiledVariable) variable).getExpression();
+        }
+        return parse(ValueTypes.STRING.cast(variable.getValue()).getRawValue());
+    }
+
+    /**
+     * Wrap the path variable that is applied to an NBT path operator, so that it holds its parsed expression.
+     * This is used as {@link OperatorBase#prepareAppliedVariables(IVariable[])} of the NBT path operators,
+     * which take the path as first input.
+     * @param operator The operator that is being curried.
+     * @param appliedVariables The variables that are applied to the operator.
+     * @return The variables to apply.
+     */
+    public static IVariable[] prepareAppliedVariables(OperatorBase operator, IVariable[] appliedVariables) {
+        if (appliedVariables.length > 0 && !(appliedVariables[0] instanceof CompiledVariable)) {
+            IVariable[] compiledVariables = appliedVariables.clone();
+            compiledVariables[0] = new CompiledVariable(appliedVariables[0]);
+            return compiledVariables;
+        }
+        return appliedVariables;
+    }
+
+    /**
+     * A string variable that holds the parsed expression of its last value.
+     */
+    public static class CompiledVariable implements IVariable<ValueTypeString.ValueString> {
+
+        private final IVariable<ValueTypeString.ValueString> variable;
+        private volatile Compiled compiled = null;
+
+        public CompiledVariable(IVariable<ValueTypeString.ValueString> variable) {
+            this.variable = variable;
+        }
+
+        public INbtPathExpression getExpression() throws EvaluationException {
+            ValueTypeString.ValueString value = ValueTypes.STRING.cast(variable.getValue());
+            Compiled compiled = this.compiled;
+            // The value of the variable may change, in which case it is parsed again
+            if (compiled == null || compiled.value != value) {
+                compiled = new Compiled(value, parse(value.getRawValue()));
+                this.compiled = compiled;
+            }
+            return compiled.expression;
+        }
+
+        @Override
+        public IValueType<ValueTypeString.ValueString> getType() {
+            return variable.getType();
+        }
+
+        @Override
+        public ValueTypeString.ValueString getValue() throws EvaluationException {
+            return variable.getValue();
+        }
+
+        @Override
+        public void addInvalidationListener(IVariableInvalidateListener invalidateListener) {
+            variable.addInvalidationListener(invalidateListener);
+        }
+
+        @Override
+        public void invalidate() {
+            variable.invalidate();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CompiledVariable)) return false;
+            return variable.equals(((CompiledVariable) o).variable);
+        }
+
+        @Override
+        public int hashCode() {
+            return variable.hashCode();
+        }
+
+        protected static class Compiled {
+
+            private final ValueTypeString.ValueString value;
+            private final INbtPathExpression expression;
+
+            public Compiled(ValueTypeString.ValueString value, INbtPathExpression expression) {
+                this.value = value;
+                this.expression = expression;
+            }
+        }
+    }
+
+}
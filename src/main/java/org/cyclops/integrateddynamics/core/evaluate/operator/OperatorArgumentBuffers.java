@@ -0,0 +1,160 @@
+package org.cyclops.integrateddynamics.core.evaluate.operator;
+
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariableInvalidateListener;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypes;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Per-thread reusable argument buffers for evaluating operators,
+ * so that applying operators to values does not require allocating variables and arrays.
+ *
+ * Buffers are taken and released in stack order, so that nested evaluations each get their own buffer.
+ * Operator and list values may hold on to the variables they were created from,
+ * so buffers that produced such a value are never reused.
+ *
+ * @author rubensworks
+ */
+public class OperatorArgumentBuffers {
+
+    private static final ThreadLocal<OperatorArgumentBuffers> INSTANCE = ThreadLocal.withInitial(OperatorArgumentBuffers::new);
+
+    private Buffer[] stack = new Buffer[8];
+    private int depth = 0;
+
+    /**
+     * Take a buffer for the given number of arguments.
+     * It must be released with {@link #release(Buffer, IValue)} after the evaluation.
+     * @param length The number of arguments.
+     * @return A buffer.
+     */
+    public static Buffer take(int length) {
+        return INSTANCE.get().takeBuffer(length);
+    }
+
+    /**
+     * Take a buffer that contains the given values.
+     * It must be released with {@link #release(Buffer, IValue)} after the evaluation.
+     * @param values The argument values.
+     * @return A buffer.
+     */
+    public static Buffer take(IValue[] values) {
+        Buffer buffer = take(values.length);
+        for (int i = 0; i < values.length; i++) {
+            buffer.setValue(i, values[i]);
+        }
+        return buffer;
+    }
+
+    /**
+     * Release the given buffer.
+     * @param buffer The last taken buffer.
+     * @param result The result of the evaluation, or null if the evaluation failed.
+     */
+    public static void release(Buffer buffer, @Nullable IValue result) {
+        buffer.owner.releaseBuffer(buffer, result);
+    }
+
+    protected Buffer takeBuffer(int length) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        Buffer buffer = stack[depth];
+        if (buffer == null || buffer.variables.length != length) {
+            buffer = new Buffer(this, length);
+            stack[depth] = buffer;
+        }
+        depth++;
+        return buffer;
+    }
+
+    protected void releaseBuffer(Buffer buffer, @Nullable IValue result) {
+        depth--;
+        if (result != null && (result.getType() == ValueTypes.OPERATOR || result.getType() == ValueTypes.LIST)) {
+            // The result may refer to the variables of this buffer, so they must not be modified anymore
+            stack[depth] = null;
+        } else {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * A fixed-length argument buffer.
+     */
+    public static class Buffer {
+
+        private final OperatorArgumentBuffers owner;
+        private final IVariable[] variables;
+        private final ValueVariable[] valueVariables;
+        private final OperatorBase.SafeVariablesGetter getter;
+
+        protected Buffer(OperatorArgumentBuffers owner, int length) {
+            this.owner = owner;
+            this.variables = new IVariable[length];
+            this.valueVariables = new ValueVariable[length];
+            for (int i = 0; i < length; i++) {
+                this.valueVariables[i] = new ValueVariable();
+            }
+            this.getter = new OperatorBase.SafeVariablesGetter(this.variables);
+        }
+
+        public void setValue(int i, IValue value) {
+            this.valueVariables[i].value = value;
+            this.variables[i] = this.valueVariables[i];
+        }
+
+        public void setVariable(int i, IVariable variable) {
+            this.variables[i] = variable;
+        }
+
+        public IVariable[] getVariables() {
+            return variables;
+        }
+
+        public OperatorBase.SafeVariablesGetter getGetter() {
+            return getter;
+        }
+
+        protected void clear() {
+            // Don't keep values alive longer than needed
+            for (int i = 0; i < variables.length; i++) {
+                variables[i] = null;
+                valueVariables[i].value = null;
+            }
+        }
+    }
+
+    /**
+     * A variable that holds a constant value during a single evaluation.
+     */
+    protected static class ValueVariable implements IVariable<IValue> {
+
+        private IValue value;
+
+        @Override
+        public IValueType<IValue> getType() {
+            return value.getType();
+        }
+
+        @Override
+        public IValue getValue() throws EvaluationException {
+            return value;
+        }
+
+        @Override
+        public void addInvalidationListener(IVariableInvalidateListener invalidateListener) {
+            // Values can not change during an evaluation, so they are never invalidated
+        }
+
+        @Override
+        public void invalidate() {
+
+        }
+    }
+
+}
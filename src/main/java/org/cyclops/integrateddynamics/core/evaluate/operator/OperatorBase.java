@@ -36,7 +36,7 @@ public abstract class OperatorBase implements IOperator {
 
     private String translationKey = null;
     private int recursiveInvocations;
-
+    // If input types can be validated without building a type array, which is not the case if validation is overridden
     protected OperatorBase(String symbol, String operatorName, IValueType[] inputTypes,
                            IValueType outputType, IFunction function, @Nullable IConfigRenderPattern renderPattern) {
         this.symbol = symbol;
@@ -138,6 +138,36 @@ public abstract class OperatorBase implements IOperator {
 
     @Override
     public IValue evaluate(IVariable... input) throws EvaluationException {
+        return evaluate(new SafeVariablesGetter(input), true);
+    }
+
+    /**
+     * Evaluate the given input values for this operator,
+     * without wrapping each value in a new variable.
+     * @param input The ordered input values.
+     * @return The output value.
+     * @throws EvaluationException If an exception occurs while evaluating
+     */
+    public IValue evaluate(IValue[] input) throws EvaluationException {
+        OperatorArgumentBuffers.Buffer buffer = OperatorArgumentBuffers.take(input);
+        IValue result = null;
+        try {
+            result = evaluate(buffer.getGetter(), true);
+        } finally {
+            OperatorArgumentBuffers.release(buffer, result);
+        }
+        return result;
+    }
+
+    /**
+     * Evaluate this operator for the given input variables.
+     * @param variables The input variables holder.
+     * @param validate If the input types must be validated,
+     *                 which may only be false if they were validated before for the same input variables.
+     * @return The output value.
+     * @throws EvaluationException If an exception occurs while evaluating
+     */
+    protected IValue evaluate(SafeVariablesGetter variables, boolean validate) throws EvaluationException {
         if (this.recursiveInvocations++ > GeneralConfig.operatorRecursionLimit) {
             this.recursiveInvocations = 0;
             throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_RECURSIONLIMIT,
@@ -145,16 +175,32 @@ public abstract class OperatorBase implements IOperator {
                     new TranslationTextComponent(this.getTranslationKey())
             ));
         }
-        IFormattableTextComponent error = validateTypes(ValueHelpers.from(input));
-        if(error != null) {
-            this.recursiveInvocations--;
-            throw new EvaluationException(error);
+        if (validate) {
+            IFormattableTextComponent error = validateInput(variables.getVariables());
+            if(error != null) {
+                this.recursiveInvocations--;
+                throw new EvaluationException(error);
+            }
         }
-        IValue res = function.evaluate(new SafeVariablesGetter(input));
+        IValue res = function.evaluate(variables);
         this.recursiveInvocations--;
         return res;
     }
 
+    /**
+     * Compile this operator for the given fixed input variables.
+     * The input types are validated only once, so that they don't have to be validated again in each evaluation.
+     * @param input The ordered input variables.
+     * @return The compiled operator, or null if the input types are invalid.
+     */
+    @Nullable
+    public Compiled compile(IVariable[] input) {
+        if (validateTypes(ValueHelpers.from(input)) != null) {
+            return null;
+        }
+        return new Compiled(this, input);
+    }
+
     @Override
     public int getRequiredInputLength() {
         return getInputTypes().length;
@@ -183,6 +229,37 @@ public abstract class OperatorBase implements IOperator {
         return null;
     }
 
+    /**
+     * Operators that override {@link #validateTypes(IValueType[])} with different rules must override this method
+     * to return true, so that input variables are not validated against the input types directly.
+     * @return If this operator validates input types differently from its default input type checks.
+     */
+    protected boolean hasCustomTypeValidation() {
+        return false;
+    }
+
+    /**
+     * Check the types of the given input variables for this operator.
+     * @param input The ordered input variables.
+     * @return An error or null if valid.
+     */
+    @Nullable
+    protected IFormattableTextComponent validateInput(IVariable[] input) {
+        if (!hasCustomTypeValidation() && input.length == getRequiredInputLength()) {
+            IValueType[] inputTypes = getInputTypes();
+            boolean valid = true;
+            for (int i = 0; i < input.length && valid; i++) {
+                IValueType inputType = input[i] == null ? null : input[i].getType();
+                valid = inputType != null && ValueHelpers.correspondsTo(inputTypes[i], inputType);
+            }
+            if (valid) {
+                return null;
+            }
+        }
+        // Build the full type array to determine the error
+        return validateTypes(ValueHelpers.from(input));
+    }
+
     @Override
     public String toString() {
         return "[Operator: " + getOperatorName() + "]";
@@ -203,34 +280,83 @@ public abstract class OperatorBase implements IOperator {
         return this;
     }
 
+    /**
+     * Called when variables are applied to this operator by currying,
+     * so that they can be prepared for the repeated evaluations of the curried operator.
+     * @param appliedVariables The applied variables, starting from the first input.
+     * @return The variables to apply, of the same types.
+     */
+    public IVariable[] prepareAppliedVariables(IVariable[] appliedVariables) {
+        return appliedVariables;
+    }
+
     public static class SafeVariablesGetter {
 
         private final IVariable[] variables;
+        private final int offset;
 
         public SafeVariablesGetter(IVariable... variables) {
+            this(variables, 0);
+        }
+
+        protected SafeVariablesGetter(IVariable[] variables, int offset) {
             this.variables = variables;
+            this.offset = offset;
         }
 
         public IValue getValue(int i) throws EvaluationException {
-            return variables[i].getValue();
+            return variables[offset + i].getValue();
         }
 
         public <V extends IValue> V getValue(int i, IValueType<V> valueType) throws EvaluationException {
             return valueType.cast(getValue(i));
         }
 
+        public IVariable getVariable(int i) {
+            return variables[offset + i];
+        }
+
         public IVariable[] getVariables() {
-            return this.variables;
+            return offset == 0 ? this.variables : Arrays.copyOfRange(this.variables, offset, this.variables.length);
         }
 
+        /**
+         * A view on the variables starting from a given index.
+         */
         public static class Shifted extends SafeVariablesGetter {
 
             public Shifted(int start, IVariable... variables) {
-                super(Arrays.copyOfRange(variables, start, variables.length));
+                super(variables, start);
             }
         }
     }
 
+    /**
+     * An operator that is bound to validated input variables.
+     */
+    public static class Compiled {
+
+        private final OperatorBase operator;
+        private final SafeVariablesGetter variables;
+
+        protected Compiled(OperatorBase operator, IVariable[] input) {
+            this.operator = operator;
+            this.variables = new SafeVariablesGetter(input);
+        }
+
+        public OperatorBase getOperator() {
+            return operator;
+        }
+
+        /**
+         * @return The output value of the operator for its bound input.
+         * @throws EvaluationException If an exception occurs while evaluating
+         */
+        public IValue evaluate() throws EvaluationException {
+            return operator.evaluate(variables, false);
+        }
+    }
+
     public static interface IFunction {
 
         /**
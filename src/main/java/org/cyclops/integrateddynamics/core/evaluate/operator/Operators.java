@@ -6,7 +6,6 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.re2j.Matcher;
 import com.google.re2j.Pattern;
-import com.google.re2j.PatternSyntaxException;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import lombok.Lombok;
 import net.minecraft.block.Block;
@@ -69,8 +68,6 @@ import org.cyclops.commoncapabilities.api.ingredient.PrototypedIngredient;
 import org.cyclops.cyclopscore.helper.BlockHelpers;
 import org.cyclops.cyclopscore.helper.MinecraftHelpers;
 import org.cyclops.cyclopscore.nbt.path.INbtPathExpression;
-import org.cyclops.cyclopscore.nbt.path.NbtParseException;
-import org.cyclops.cyclopscore.nbt.path.NbtPath;
 import org.cyclops.integrateddynamics.IntegratedDynamics;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
@@ -464,13 +461,8 @@ public final class Operators {
         .output(ValueTypes.BOOLEAN).function(variables -> {
                 ValueTypeString.ValueString pattern = variables.getValue(0, ValueTypes.STRING);
                 ValueTypeString.ValueString str = variables.getValue(1, ValueTypes.STRING);
-                try {
-                    Matcher m = Pattern.compile(pattern.getRawValue()).matcher(str.getRawValue());
-                    return ValueTypeBoolean.ValueBoolean.of(m.find());
-                } catch (PatternSyntaxException e) {
-                    throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_REGEX_INVALID,
-                            pattern.getRawValue()));
-                }
+                Matcher m = RegexPatternCache.compile(pattern.getRawValue()).matcher(str.getRawValue());
+                return ValueTypeBoolean.ValueBoolean.of(m.find());
             }).build());
 
     /**
@@ -480,13 +472,8 @@ public final class Operators {
             .output(ValueTypes.BOOLEAN).function(variables -> {
                 ValueTypeString.ValueString pattern = variables.getValue(0, ValueTypes.STRING);
                 ValueTypeString.ValueString str = variables.getValue(1, ValueTypes.STRING);
-                try {
-                    Matcher m = Pattern.compile(pattern.getRawValue()).matcher(str.getRawValue());
-                    return ValueTypeBoolean.ValueBoolean.of(m.matches());
-                } catch (PatternSyntaxException e) {
-                    throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_REGEX_INVALID,
-                            pattern.getRawValue()));
-                }
+                Matcher m = RegexPatternCache.compile(pattern.getRawValue()).matcher(str.getRawValue());
+                return ValueTypeBoolean.ValueBoolean.of(m.matches());
             }).build());
 
     /**
@@ -506,16 +493,11 @@ public final class Operators {
         .output(ValueTypes.INTEGER).function(variables -> {
                 ValueTypeString.ValueString pattern = variables.getValue(0, ValueTypes.STRING);
                 ValueTypeString.ValueString str = variables.getValue(1, ValueTypes.STRING);
-                try {
-                    Matcher m = Pattern.compile(pattern.getRawValue()).matcher(str.getRawValue());
-                    if (m.find()) {
-                        return ValueTypeInteger.ValueInteger.of(m.start());
-                    } else {
-                        return ValueTypeInteger.ValueInteger.of(-1);
-                    }
-                } catch (PatternSyntaxException e) {
-                    throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_REGEX_INVALID,
-                            pattern.getRawValue()));
+                Matcher m = RegexPatternCache.compile(pattern.getRawValue()).matcher(str.getRawValue());
+                if (m.find()) {
+                    return ValueTypeInteger.ValueInteger.of(m.start());
+                } else {
+                    return ValueTypeInteger.ValueInteger.of(-1);
                 }
             }).build());
 
@@ -561,17 +543,12 @@ public final class Operators {
         .output(ValueTypes.LIST).function(variables -> {
                 ValueTypeString.ValueString pattern = variables.getValue(0, ValueTypes.STRING);
                 ValueTypeString.ValueString str = variables.getValue(1, ValueTypes.STRING);
-                try {
-                    List<String> pieces = Arrays.asList(Pattern.compile(pattern.getRawValue()).split(str.getRawValue()));
-                    List<ValueTypeString.ValueString> values = Lists.newArrayList();
-                    for (String piece : pieces) {
-                        values.add(ValueTypeString.ValueString.of(piece));
-                    }
-                    return ValueTypeList.ValueList.ofList(ValueTypes.STRING, values);
-                } catch (PatternSyntaxException e) {
-                    throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_REGEX_INVALID,
-                            pattern.getRawValue()));
+                List<String> pieces = Arrays.asList(RegexPatternCache.compile(pattern.getRawValue()).split(str.getRawValue()));
+                List<ValueTypeString.ValueString> values = Lists.newArrayList();
+                for (String piece : pieces) {
+                    values.add(ValueTypeString.ValueString.of(piece));
                 }
+                return ValueTypeList.ValueList.ofList(ValueTypes.STRING, values);
             }).build());
 
     /**
@@ -614,7 +591,7 @@ public final class Operators {
                 throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_GROUP_INDEXNEGATIVE));
             }
             try {
-                Matcher m = Pattern.compile(pattern.getRawValue()).matcher(str.getRawValue());
+                Matcher m = RegexPatternCache.compile(pattern.getRawValue()).matcher(str.getRawValue());
                 if (m.find()) {
                     String result = m.group(group.getRawValue());
                     return ValueTypeString.ValueString.of(result);
@@ -622,9 +599,6 @@ public final class Operators {
                     throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_GROUP_NOMATCH,
                             str.getRawValue(), pattern.getRawValue()));
                 }
-            } catch (PatternSyntaxException e) {
-                throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_REGEX_INVALID,
-                        pattern.getRawValue()));
             } catch (IndexOutOfBoundsException e) {
                 throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_GROUP_NOMATCHGROUP,
                         str.getRawValue(), pattern.getRawValue(), group.getRawValue()));
@@ -640,20 +614,15 @@ public final class Operators {
         .function(variables -> {
             ValueTypeString.ValueString pattern = variables.getValue(0, ValueTypes.STRING);
             ValueTypeString.ValueString str = variables.getValue(1, ValueTypes.STRING);
-            try {
-                Matcher m = Pattern.compile(pattern.getRawValue()).matcher(str.getRawValue());
-                if (m.find()) {
-                    List<ValueTypeString.ValueString> values = Lists.newArrayList();
-                    for (int i = 0; i <= m.groupCount(); i++) {
-                        values.add(ValueTypeString.ValueString.of(m.group(i)));
-                    }
-                    return ValueTypeList.ValueList.ofList(ValueTypes.STRING, values);
-                } else {
-                    return ValueTypeList.ValueList.ofList(ValueTypes.STRING, Collections.<ValueTypeString.ValueString>emptyList());
+            Matcher m = RegexPatternCache.compile(pattern.getRawValue()).matcher(str.getRawValue());
+            if (m.find()) {
+                List<ValueTypeString.ValueString> values = Lists.newArrayList();
+                for (int i = 0; i <= m.groupCount(); i++) {
+                    values.add(ValueTypeString.ValueString.of(m.group(i)));
                 }
-            } catch (PatternSyntaxException e) {
-                throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_REGEX_INVALID,
-                        pattern.getRawValue()));
+                return ValueTypeList.ValueList.ofList(ValueTypes.STRING, values);
+            } else {
+                return ValueTypeList.ValueList.ofList(ValueTypes.STRING, Collections.<ValueTypeString.ValueString>emptyList());
             }
         }).build()
     );
@@ -673,15 +642,12 @@ public final class Operators {
                 throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_REGEXSCAN_INDEXNEGATIVE));
             }
             try {
-                Matcher m = Pattern.compile(pattern.getRawValue()).matcher(str.getRawValue());
+                Matcher m = RegexPatternCache.compile(pattern.getRawValue()).matcher(str.getRawValue());
                 List<ValueTypeString.ValueString> values = Lists.newArrayList();
                 while (m.find()) {
                     values.add(ValueTypeString.ValueString.of(m.group(group.getRawValue())));
                 }
                 return ValueTypeList.ValueList.ofList(ValueTypes.STRING, values);
-            } catch (PatternSyntaxException e) {
-                throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_REGEX_INVALID,
-                        pattern.getRawValue()));
             } catch (IndexOutOfBoundsException e) {
                 throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_REGEXSCAN_NOMATCHGROUP,
                         str.getRawValue(), pattern.getRawValue(), group.getRawValue()));
@@ -715,12 +681,7 @@ public final class Operators {
             ValueTypeString.ValueString pattern = variables.getValue(0, ValueTypes.STRING);
             ValueTypeString.ValueString replacement = variables.getValue(1, ValueTypes.STRING);
             ValueTypeString.ValueString str = variables.getValue(2, ValueTypes.STRING);
-            try {
-                return ValueTypeString.ValueString.of(Pattern.compile(pattern.getRawValue()).matcher(str.getRawValue()).replaceAll(replacement.getRawValue()));
-            } catch (PatternSyntaxException e) {
-                throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_REGEX_INVALID,
-                        pattern.getRawValue()));
-            }
+            return ValueTypeString.ValueString.of(RegexPatternCache.compile(pattern.getRawValue()).matcher(str.getRawValue()).replaceAll(replacement.getRawValue()));
         }).build()
     );
 
@@ -2490,7 +2451,7 @@ public final class Operators {
                     input -> {
                         IOperator innerOperator = input.getLeft();
                         OperatorBase.SafeVariablesGetter variables = input.getRight();
-                        IVariable variable = variables.getVariables()[0];
+                        IVariable variable = variables.getVariable(0);
                         return ValueHelpers.evaluateOperator(innerOperator, variable);
                     })).build());
     static {
@@ -2510,8 +2471,8 @@ public final class Operators {
                     input -> {
                         IOperator innerOperator = input.getLeft();
                         OperatorBase.SafeVariablesGetter variables = input.getRight();
-                        IVariable variable0 = variables.getVariables()[0];
-                        IVariable variable1 = variables.getVariables()[1];
+                        IVariable variable0 = variables.getVariable(0);
+                        IVariable variable1 = variables.getVariable(1);
                         return ValueHelpers.evaluateOperator(innerOperator, variable0, variable1);
                     })).build());
 
@@ -2528,9 +2489,9 @@ public final class Operators {
                     input -> {
                         IOperator innerOperator = input.getLeft();
                         OperatorBase.SafeVariablesGetter variables = input.getRight();
-                        IVariable variable0 = variables.getVariables()[0];
-                        IVariable variable1 = variables.getVariables()[1];
-                        IVariable variable2 = variables.getVariables()[2];
+                        IVariable variable0 = variables.getVariable(0);
+                        IVariable variable1 = variables.getVariable(1);
+                        IVariable variable2 = variables.getVariable(2);
                         return ValueHelpers.evaluateOperator(innerOperator, variable0, variable1, variable2);
                     })).build());
 
@@ -3401,17 +3362,10 @@ public final class Operators {
     public static final IOperator NBT_PATH_MATCH_FIRST = REGISTRY.register(OperatorBuilders.NBT_2
             .inputTypes(ValueTypes.STRING, ValueTypes.NBT).output(ValueTypes.NBT)
             .operatorName("path_match_first").symbol("NBT.path_match_first")
+            .appliedVariablesPreparer(NbtPathExpressionCache::prepareAppliedVariables)
             .function(variables -> {
-                ValueTypeString.ValueString string = variables.getValue(0, ValueTypes.STRING);
+                INbtPathExpression expression = NbtPathExpressionCache.parse(variables.getVariable(0));
                 ValueTypeNbt.ValueNbt nbt = variables.getValue(1, ValueTypes.NBT);
-                INbtPathExpression expression = null;
-                try {
-                    expression = NbtPath.parse(string.getRawValue());
-                } catch (NbtParseException e) {
-                    throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_NBT_PATH_EXPRESSION,
-                            string.getRawValue(),
-                            e.getMessage()));
-                }
                 if (!nbt.getRawValue().isPresent()) {
                     return ValueTypeNbt.ValueNbt.of();
                 }
@@ -3424,17 +3378,10 @@ public final class Operators {
     public static final IOperator NBT_PATH_MATCH_ALL = REGISTRY.register(OperatorBuilders.NBT_2
             .inputTypes(ValueTypes.STRING, ValueTypes.NBT).output(ValueTypes.LIST)
             .operatorName("path_match_all").symbol("NBT.path_match_all")
+            .appliedVariablesPreparer(NbtPathExpressionCache::prepareAppliedVariables)
             .function(variables -> {
-                ValueTypeString.ValueString string = variables.getValue(0, ValueTypes.STRING);
+                INbtPathExpression expression = NbtPathExpressionCache.parse(variables.getVariable(0));
                 ValueTypeNbt.ValueNbt nbt = variables.getValue(1, ValueTypes.NBT);
-                INbtPathExpression expression = null;
-                try {
-                    expression = NbtPath.parse(string.getRawValue());
-                } catch (NbtParseException e) {
-                    throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_NBT_PATH_EXPRESSION,
-                            string.getRawValue(),
-                            e.getMessage()));
-                }
                 if (!nbt.getRawValue().isPresent()) {
                     return ValueTypeList.ValueList.ofAll(ValueTypes.NBT);
                 }
@@ -3450,17 +3397,10 @@ public final class Operators {
     public static final IOperator NBT_PATH_TEST = REGISTRY.register(OperatorBuilders.NBT_2
             .inputTypes(ValueTypes.STRING, ValueTypes.NBT).output(ValueTypes.BOOLEAN)
             .operatorName("path_test").symbol("NBT.path_test")
+            .appliedVariablesPreparer(NbtPathExpressionCache::prepareAppliedVariables)
             .function(variables -> {
-                ValueTypeString.ValueString string = variables.getValue(0, ValueTypes.STRING);
+                INbtPathExpression expression = NbtPathExpressionCache.parse(variables.getVariable(0));
                 ValueTypeNbt.ValueNbt nbt = variables.getValue(1, ValueTypes.NBT);
-                INbtPathExpression expression = null;
-                try {
-                    expression = NbtPath.parse(string.getRawValue());
-                } catch (NbtParseException e) {
-                    throw new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_NBT_PATH_EXPRESSION,
-                            string.getRawValue(),
-                            e.getMessage()));
-                }
                 if (!nbt.getRawValue().isPresent()) {
                     return ValueTypeBoolean.ValueBoolean.of(false);
                 }
@@ -0,0 +1,45 @@
+package org.cyclops.integrateddynamics.core.evaluate.operator;
+
+import com.google.re2j.Pattern;
+import com.google.re2j.PatternSyntaxException;
+import net.minecraft.util.text.TranslationTextComponent;
+import org.cyclops.integrateddynamics.GeneralConfig;
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.core.helper.L10NValues;
+
+/**
+ * A server-wide cache of compiled regular expressions for string operators.
+ *
+ * @author rubensworks
+ */
+public class RegexPatternCache {
+
+    private static final BoundedCompileCache<Pattern> CACHE = new BoundedCompileCache<>(
+            "gui.integrateddynamics.diagnostics.cache.regex",
+            () -> GeneralConfig.regexCacheSize,
+            regex -> {
+                try {
+                    return Pattern.compile(regex);
+                } catch (PatternSyntaxException e) {
+                    throw new BoundedCompileCache.CompileException(e.getMessage());
+                }
+            },
+            (regex, error) -> new EvaluationException(new TranslationTextComponent(L10NValues.OPERATOR_ERROR_REGEX_INVALID, regex)));
+
+    public static void load() {}
+
+    public static BoundedCompileCache<Pattern> getCache() {
+        return CACHE;
+    }
+
+    /**
+     * Get the compiled pattern for the given regular expression.
+     * @param regex A regular expression.
+     * @return The compiled pattern.
+     * @throws EvaluationException If the regular expression is invalid.
+     */
+    public static Pattern compile(String regex) throws EvaluationException {
+        return CACHE.get(regex);
+    }
+
+}
@@ -19,6 +19,7 @@ import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
 import org.cyclops.integrateddynamics.api.item.IVariableFacade;
 import org.cyclops.integrateddynamics.core.evaluate.operator.CurriedOperator;
+import org.cyclops.integrateddynamics.core.evaluate.operator.OperatorBase;
 import org.cyclops.integrateddynamics.core.helper.L10NValues;
 import org.cyclops.integrateddynamics.core.helper.NetworkHelpers;
 
@@ -103,6 +104,15 @@ public class ValueHelpers {
      * @throws EvaluationException If something went wrong during operator evaluation.
      */
     public static IValue evaluateOperator(IOperator operator, IValue... values) throws EvaluationException {
+        if (operator.getRequiredInputLength() == values.length) {
+            // Evaluate without wrapping the values in variables
+            if (operator instanceof OperatorBase) {
+                return ((OperatorBase) operator).evaluate(values);
+            }
+            if (operator instanceof CurriedOperator) {
+                return ((CurriedOperator) operator).evaluate(values);
+            }
+        }
         IVariable[] variables = new IVariable[values.length];
         for (int i = 0; i < variables.length; i++) {
             IValue value = values[i];
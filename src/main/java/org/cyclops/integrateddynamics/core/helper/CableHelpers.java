@@ -233,7 +233,7 @@ public class CableHelpers {
     public static void onCableAdded(World world, BlockPos pos) {
         CableHelpers.updateConnectionsNeighbours(world, pos, CableHelpers.ALL_SIDES);
         if(!world.isRemote()) {
-            NetworkHelpers.initNetwork(world, pos, null)
+            NetworkHelpers.joinNetwork(world, pos, null)
                     .ifPresent(network -> MinecraftForge.EVENT_BUS.post(new NetworkInitializedEvent(network, world, pos, null)));
         }
     }
@@ -249,7 +249,7 @@ public class CableHelpers {
     public static void onCableAddedByPlayer(World world, BlockPos pos, @Nullable LivingEntity placer) {
         CableHelpers.updateConnectionsNeighbours(world, pos, CableHelpers.ALL_SIDES);
         if(!world.isRemote()) {
-            NetworkHelpers.initNetwork(world, pos, null)
+            NetworkHelpers.joinNetwork(world, pos, null)
                     .ifPresent(network -> MinecraftForge.EVENT_BUS.post(new NetworkInitializedEvent(network, world, pos, placer)));
         }
     }
@@ -302,11 +302,8 @@ public class CableHelpers {
     public static boolean onCableRemoved(World world, BlockPos pos, Collection<Direction> sides) {
         updateConnectionsNeighbours(world, pos, sides);
         if (!world.isRemote()) {
-            // Reinit neighbouring networks.
-            for(Direction side : sides) {
-                BlockPos sidePos = pos.offset(side);
-                NetworkHelpers.initNetwork(world, sidePos, side.getOpposite());
-            }
+            // Split neighbouring networks if they have become disconnected.
+            NetworkHelpers.splitNetworks(world, pos, sides);
         }
         return true;
     }
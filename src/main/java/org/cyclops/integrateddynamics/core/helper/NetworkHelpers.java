@@ -1,5 +1,9 @@
 package org.cyclops.integrateddynamics.core.helper;
 
+import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.tileentity.TileEntity;
@@ -14,6 +18,8 @@ import org.cyclops.commoncapabilities.api.ingredient.IngredientComponent;
 import org.cyclops.cyclopscore.helper.TileHelpers;
 import org.cyclops.integrateddynamics.GeneralConfig;
 import org.cyclops.integrateddynamics.IntegratedDynamics;
+import org.cyclops.integrateddynamics.api.item.IOperatorVariableFacade;
+import org.cyclops.integrateddynamics.api.item.IVariableFacade;
 import org.cyclops.integrateddynamics.api.network.IEnergyNetwork;
 import org.cyclops.integrateddynamics.api.network.INetwork;
 import org.cyclops.integrateddynamics.api.network.INetworkCarrier;
@@ -23,6 +29,7 @@ import org.cyclops.integrateddynamics.api.network.IPartNetwork;
 import org.cyclops.integrateddynamics.api.network.IPositionedAddonsNetworkIngredients;
 import org.cyclops.integrateddynamics.api.part.PartPos;
 import org.cyclops.integrateddynamics.api.path.IPathElement;
+import org.cyclops.integrateddynamics.api.path.ISidedPathElement;
 import org.cyclops.integrateddynamics.capability.network.EnergyNetworkConfig;
 import org.cyclops.integrateddynamics.capability.network.NetworkCarrierConfig;
 import org.cyclops.integrateddynamics.capability.network.PartNetworkConfig;
@@ -34,6 +41,8 @@ import org.cyclops.integrateddynamics.core.network.Network;
 import org.cyclops.integrateddynamics.core.persist.world.NetworkWorldStorage;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -227,6 +236,39 @@ public class NetworkHelpers {
                 .orElse(Optional.empty());
     }
 
+    /**
+     * Let a newly added path element at the given position join its neighbouring networks.
+     * If it connects multiple networks, the largest one will absorb the others.
+     * This position should have a {@link IPathElement} capability,
+     * otherwise this method will fail silently.
+     * @param world The world.
+     * @param pos The position of the added path element.
+     * @param side The side.
+     * @return The optional network the path element is now part of.
+     * Can be absent if the position did not have a {@link IPathElement} capability.
+     */
+    public static Optional<INetwork> joinNetwork(World world, BlockPos pos, @Nullable Direction side) {
+        return TileHelpers.getCapability(world, pos, side, PathElementConfig.CAPABILITY)
+                .map(pathElement -> Optional.<INetwork>of(Network.joinNetworkSetup(SidedPathElement.of(pathElement, side))))
+                .orElse(Optional.empty());
+    }
+
+    /**
+     * Split the networks around a removed path element at the given position where needed.
+     * Only the parts of the networks that have become disconnected will be moved into new networks.
+     * @param world The world.
+     * @param pos The position of the removed path element.
+     * @param sides The sides the removed path element was connected to.
+     */
+    public static void splitNetworks(World world, BlockPos pos, Collection<Direction> sides) {
+        List<ISidedPathElement> neighbours = Lists.newArrayList();
+        for (Direction side : sides) {
+            TileHelpers.getCapability(world, pos.offset(side), side.getOpposite(), PathElementConfig.CAPABILITY)
+                    .ifPresent(pathElement -> neighbours.add(SidedPathElement.of(pathElement, side.getOpposite())));
+        }
+        Network.splitNetworkSetup(neighbours);
+    }
+
     /**
      * This MUST be called by blocks having the {@link INetworkElementProvider} capability in
      * when a neighbouring block is updated, more specifically when
@@ -292,7 +334,8 @@ public class NetworkHelpers {
         if (networkCarrier != null && pathElement != null && networkCarrier.getNetwork() == null) {
             TileHelpers.getCapability(world, pos, NetworkElementProviderConfig.CAPABILITY).ifPresent(networkElementProvider -> {
                 // Attempt to revalidate the network elements in this provider
-                for (INetwork network : NetworkWorldStorage.getInstance(IntegratedDynamics._instance).getNetworks()) {
+                for (INetwork network : NetworkWorldStorage.getInstance(IntegratedDynamics._instance)
+                        .getNetworks(pathElement.getPosition().getWorld())) {
                     if (network.containsSidedPathElement(SidedPathElement.of(pathElement, null))) {
                         // Revalidate all network elements
                         for (INetworkElement networkElement : networkElementProvider.createNetworkElements(world, pos)) {
@@ -305,4 +348,33 @@ public class NetworkHelpers {
         }
     }
 
+    /**
+     * Determine the ids of all variables in the network that the given variable facade depends on,
+     * including the id of the variable facade itself.
+     * Dependencies are resolved transitively via the variable facades that are present in the network.
+     * @param network The part network.
+     * @param variableFacade A variable facade.
+     * @return The variable ids the given facade depends on.
+     */
+    public static IntSet getVariableDependencies(IPartNetwork network, IVariableFacade variableFacade) {
+        IntSet dependencies = new IntOpenHashSet();
+        IntArrayList pending = new IntArrayList();
+        dependencies.add(variableFacade.getId());
+        IVariableFacade currentFacade = variableFacade;
+        while (true) {
+            if (currentFacade instanceof IOperatorVariableFacade) {
+                for (int variableId : ((IOperatorVariableFacade) currentFacade).getVariableIds()) {
+                    if (dependencies.add(variableId)) {
+                        pending.add(variableId);
+                    }
+                }
+            }
+            if (pending.isEmpty()) {
+                break;
+            }
+            currentFacade = network.getVariableFacade(pending.popInt());
+        }
+        return dependencies;
+    }
+
 }
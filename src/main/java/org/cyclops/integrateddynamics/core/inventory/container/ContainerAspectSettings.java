@@ -156,7 +156,7 @@ public class ContainerAspectSettings extends InventoryContainer {
 
                 // Changing the properties might cause some erroring variables to become valid again, so trigger an update.
                 NetworkHelpers.getNetwork(target.getCenter())
-                        .ifPresent(network -> network.getEventBus().post(new VariableContentsUpdatedEvent(network)));
+                        .ifPresent(network -> network.getEventBus().postCoalesced(new VariableContentsUpdatedEvent(network)));
             }
         }
     }
@@ -1,7 +1,12 @@
 package org.cyclops.integrateddynamics.core.network;
 
+import com.google.common.collect.Maps;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import lombok.Getter;
 import lombok.Setter;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
 import org.cyclops.commoncapabilities.api.ingredient.IngredientComponent;
 import org.cyclops.integrateddynamics.GeneralConfig;
 import org.cyclops.integrateddynamics.api.network.IEnergyConsumingNetworkElement;
@@ -9,8 +14,19 @@ import org.cyclops.integrateddynamics.api.network.IEnergyNetwork;
 import org.cyclops.integrateddynamics.api.network.INetwork;
 import org.cyclops.integrateddynamics.api.network.INetworkElement;
 
+import java.util.Map;
+
 /**
  * A network that can hold energy.
+ *
+ * The consumption rates of all consuming elements are totalled per channel as elements are added and removed.
+ * In each tick, the energy that is available for these totals is determined once per channel,
+ * from which the due elements are granted their consumption.
+ * The consumption of all updated elements is extracted in a single operation per channel
+ * at the end of the network update.
+ * If less energy could be extracted than was granted, for example because storages were drained in the meantime,
+ * the remainder is carried over, and is deducted from the energy that can be granted in the next ticks.
+ *
  * @author rubensworks
  */
 public class EnergyNetwork extends PositionedAddonsNetworkIngredients<Long, Boolean>
@@ -20,17 +36,171 @@ public class EnergyNetwork extends PositionedAddonsNetworkIngredients<Long, Bool
     @Setter
     private INetwork network;
 
+    // The last known consumption rate and channel of each consuming element, without multiplier.
+    // Elements are removed through newly created instances, so these are matched by equality.
+    private final Map<IEnergyConsumingNetworkElement, Consumption> consumptions = Maps.newHashMap();
+    private final Int2LongMap channelConsumptionRates = new Int2LongOpenHashMap();
+    private long consumptionRate = 0;
+
+    private int lastTick = -1;
+    // The energy per channel that can still be granted to elements in this tick
+    private final Int2LongMap channelBudgets = new Int2LongOpenHashMap();
+    // The energy per channel that was consumed by updated elements, which still has to be extracted
+    private final Int2LongMap channelPendingConsumptions = new Int2LongOpenHashMap();
+
     public EnergyNetwork(IngredientComponent<Long, Boolean> component) {
         super(component);
     }
 
+    protected int getCurrentTick() {
+        return ServerLifecycleHooks.getCurrentServer().getTickCounter();
+    }
+
+    @Override
+    public boolean addNetworkElement(INetworkElement element, boolean networkPreinit) {
+        if (element instanceof IEnergyConsumingNetworkElement) {
+            updateConsumption((IEnergyConsumingNetworkElement) element);
+        }
+        return super.addNetworkElement(element, networkPreinit);
+    }
+
+    @Override
+    public void removeNetworkElementPost(INetworkElement element) {
+        // The removed element may be the storage the pending consumption must be extracted from
+        flushPendingConsumptions();
+        super.removeNetworkElementPost(element);
+        if (element instanceof IEnergyConsumingNetworkElement) {
+            Consumption consumption = consumptions.remove(element);
+            if (consumption != null) {
+                addConsumptionRate(consumption.channel, -consumption.rate);
+            }
+        }
+    }
+
+    /**
+     * Update the consumption totals if the consumption rate or channel of the given element have changed.
+     * @param element A consuming element.
+     * @return The current consumption rate of the element, without multiplier.
+     */
+    protected int updateConsumption(IEnergyConsumingNetworkElement element) {
+        int rate = element.getConsumptionRate();
+        int channel = element.getChannel();
+        Consumption consumption = consumptions.get(element);
+        if (consumption == null) {
+            consumptions.put(element, new Consumption(rate, channel));
+            addConsumptionRate(channel, rate);
+        } else if (consumption.rate != rate || consumption.channel != channel) {
+            addConsumptionRate(consumption.channel, -consumption.rate);
+            addConsumptionRate(channel, rate);
+            consumption.rate = rate;
+            consumption.channel = channel;
+        }
+        return rate;
+    }
+
+    protected void addConsumptionRate(int channel, long rate) {
+        long channelRate = channelConsumptionRates.get(channel) + rate;
+        if (channelRate == 0) {
+            channelConsumptionRates.remove(channel);
+        } else {
+            channelConsumptionRates.put(channel, channelRate);
+        }
+        consumptionRate += rate;
+    }
+
+    /**
+     * Reset the budgets if a new tick has started,
+     * and retry the extraction of consumption that could not be extracted before.
+     */
+    protected void onTick() {
+        int tick = getCurrentTick();
+        if (tick != lastTick) {
+            lastTick = tick;
+            flushPendingConsumptions();
+            channelBudgets.clear();
+        }
+    }
+
+    /**
+     * Extract the pending consumption of all channels.
+     * The consumption that could not be extracted remains pending.
+     */
+    protected void flushPendingConsumptions() {
+        if (!channelPendingConsumptions.isEmpty()) {
+            ObjectIterator<Int2LongMap.Entry> it = channelPendingConsumptions.int2LongEntrySet().iterator();
+            while (it.hasNext()) {
+                Int2LongMap.Entry entry = it.next();
+                long remaining = entry.getLongValue() - getConsumptionChannel(entry.getIntKey()).extract(entry.getLongValue(), false);
+                if (remaining > 0) {
+                    entry.setValue(remaining);
+                } else {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param channel A channel.
+     * @return A channel for internal consumption, which is not bound to the transfer rate limit,
+     *         as it handles the consumption of multiple elements at once.
+     */
+    protected IngredientChannelAdapter<Long, Boolean> getConsumptionChannel(int channel) {
+        IngredientChannelAdapter<Long, Boolean> channelAdapter = (IngredientChannelAdapter<Long, Boolean>) getChannel(channel);
+        channelAdapter.disableLimits();
+        return channelAdapter;
+    }
+
+    /**
+     * @param channel A channel.
+     * @param multiplier The consumption multiplier.
+     * @return The energy that can still be granted to elements in the given channel in this tick.
+     */
+    protected long getBudget(int channel, int multiplier) {
+        if (channelBudgets.containsKey(channel)) {
+            return channelBudgets.get(channel);
+        }
+        // The consumption of all consumers in the channel is an upper bound for the consumption of its due elements,
+        // next to the consumption that still has to be extracted.
+        long pending = channelPendingConsumptions.get(channel);
+        long available = getConsumptionChannel(channel).extract(channelConsumptionRates.get(channel) * multiplier + pending, true);
+        long budget = Math.max(0, available - pending);
+        channelBudgets.put(channel, budget);
+        return budget;
+    }
+
+    @Override
+    public void update() {
+        onTick();
+        super.update();
+    }
+
+    @Override
+    public void afterUpdate() {
+        flushPendingConsumptions();
+    }
+
+    @Override
+    public void kill() {
+        flushPendingConsumptions();
+        channelPendingConsumptions.clear();
+        super.kill();
+    }
+
     @Override
     public boolean canUpdate(INetworkElement element) {
         if(!(element instanceof IEnergyConsumingNetworkElement)) return true;
         int multiplier = GeneralConfig.energyConsumptionMultiplier;
         if(multiplier == 0) return true;
-        int consumptionRate = ((IEnergyConsumingNetworkElement) element).getConsumptionRate() * multiplier;
-        return getChannel(element.getChannel()).extract(consumptionRate, true) == consumptionRate;
+        onTick();
+        long consumptionRate = (long) updateConsumption((IEnergyConsumingNetworkElement) element) * multiplier;
+        int channel = element.getChannel();
+        long budget = getBudget(channel, multiplier);
+        if (budget < consumptionRate) {
+            return false;
+        }
+        channelBudgets.put(channel, budget - consumptionRate);
+        return true;
     }
 
     @Override
@@ -45,8 +215,10 @@ public class EnergyNetwork extends PositionedAddonsNetworkIngredients<Long, Bool
         if(element instanceof IEnergyConsumingNetworkElement) {
             int multiplier = GeneralConfig.energyConsumptionMultiplier;
             if (multiplier > 0) {
-                int consumptionRate = ((IEnergyConsumingNetworkElement) element).getConsumptionRate() * multiplier;
-                getChannel(element.getChannel()).extract(consumptionRate, false);
+                // The consumption that was granted in canUpdate is extracted in bulk after all elements were updated
+                long consumptionRate = (long) updateConsumption((IEnergyConsumingNetworkElement) element) * multiplier;
+                int channel = element.getChannel();
+                channelPendingConsumptions.put(channel, channelPendingConsumptions.get(channel) + consumptionRate);
             }
             ((IEnergyConsumingNetworkElement) element).postUpdate(getNetwork(), true);
         }
@@ -56,15 +228,25 @@ public class EnergyNetwork extends PositionedAddonsNetworkIngredients<Long, Bool
     public int getConsumptionRate() {
         int multiplier = GeneralConfig.energyConsumptionMultiplier;
         if(multiplier == 0) return 0;
-        int consumption = 0;
-        for(INetworkElement element : getNetwork().getElements()) {
-            consumption += ((IEnergyConsumingNetworkElement) element).getConsumptionRate() * multiplier;
-        }
-        return consumption;
+        return (int) Math.min(Integer.MAX_VALUE, consumptionRate * multiplier);
     }
 
     @Override
     public long getRateLimit() {
         return GeneralConfig.energyRateLimit;
     }
+
+    /**
+     * The consumption of a single element.
+     */
+    protected static class Consumption {
+
+        private int rate;
+        private int channel;
+
+        public Consumption(int rate, int channel) {
+            this.rate = rate;
+            this.channel = channel;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package org.cyclops.integrateddynamics.core.network;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.apache.commons.lang3.tuple.Pair;
 import org.cyclops.commoncapabilities.api.ingredient.IIngredientMatcher;
 import org.cyclops.commoncapabilities.api.ingredient.IngredientComponent;
@@ -14,9 +15,11 @@ import org.cyclops.integrateddynamics.api.network.PositionedAddonsNetworkIngredi
 import org.cyclops.integrateddynamics.api.part.PartPos;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
 
 /**
@@ -365,6 +368,273 @@ public abstract class IngredientChannelAdapter<T, M> implements IIngredientCompo
         return getComponent().getMatcher().withQuantity(instancePrototype, extractedCount);
     }
 
+    /**
+     * @return A new transaction for inserting and extracting multiple ingredients at once.
+     */
+    public IngredientChannelTransaction<T, M> beginTransaction() {
+        return new IngredientChannelTransaction<>(this);
+    }
+
+    /**
+     * Insert the given ingredients in a single pass over all non-full positions.
+     * @param ingredients The ingredients to insert.
+     * @param simulate If insertion should be simulated.
+     * @return The remaining ingredients that could not be inserted, in the same order as the given ingredients.
+     */
+    public List<T> insertAll(List<T> ingredients, boolean simulate) {
+        return insertAll(ingredients, simulate ? new IngredientChannelSimulation<>(getComponent()) : null);
+    }
+
+    /**
+     * Insert the given ingredients in a single pass over all non-full positions.
+     * @param ingredients The ingredients to insert.
+     * @param simulation The simulation to record the insertions in, or null if insertion should be effective.
+     * @return The remaining ingredients that could not be inserted, in the same order as the given ingredients.
+     */
+    public List<T> insertAll(List<T> ingredients, @Nullable IngredientChannelSimulation<T, M> simulation) {
+        boolean simulate = simulation != null;
+        IIngredientMatcher<T, M> matcher = getComponent().getMatcher();
+        int count = ingredients.size();
+        List<T> remaining = Lists.newArrayList(ingredients);
+
+        // Limit rate per ingredient, just like single insertions
+        long[] skippedQuantities = new long[count];
+        int pending = 0;
+        for (int i = 0; i < count; i++) {
+            T ingredient = remaining.get(i);
+            if (!matcher.isEmpty(ingredient)) {
+                pending++;
+                if (this.limitsEnabled) {
+                    long limit = network.getRateLimit();
+                    long currentQuantity = matcher.getQuantity(ingredient);
+                    if (currentQuantity > limit) {
+                        remaining.set(i, matcher.withQuantity(ingredient, limit));
+                        skippedQuantities[i] = currentQuantity - limit;
+                    }
+                }
+            }
+        }
+
+        Set<PartPos> changedPositions = Sets.newLinkedHashSet();
+        Pair<IPartPosIteratorHandler, Iterator<PartPos>> partPosIteratorData = null;
+        if (pending > 0) {
+            partPosIteratorData = getPartPosIteratorData(this::getNonFullPositions, channel);
+            Iterator<PartPos> it = partPosIteratorData.getRight();
+            while (pending > 0 && it.hasNext()) {
+                PartPos pos = it.next();
+
+                // Skip if the position is not loaded or disabled
+                if (!pos.getPos().isLoaded() || network.isPositionDisabled(pos)) {
+                    continue;
+                }
+
+                PositionedAddonsNetworkIngredientsFilter<T> filter = this.network.getPositionedStorageFilter(pos);
+                IIngredientComponentStorage<T, M> storage = this.network.getPositionedStorage(pos);
+                this.network.disablePosition(pos);
+                for (int i = 0; i < count; i++) {
+                    T ingredient = remaining.get(i);
+                    if (matcher.isEmpty(ingredient) || (filter != null && !filter.testInsertion(ingredient))) {
+                        continue;
+                    }
+                    long quantityBefore = matcher.getQuantity(ingredient);
+                    ingredient = simulate ? simulation.simulateInsert(storage, pos, ingredient) : storage.insert(ingredient, false);
+                    long quantityAfter = matcher.getQuantity(ingredient);
+                    if (quantityBefore != quantityAfter) {
+                        if (simulate) {
+                            simulation.addInsertion(pos, i, matcher.withQuantity(remaining.get(i), quantityBefore - quantityAfter));
+                        }
+                        changedPositions.add(pos);
+                        remaining.set(i, ingredient);
+                        if (matcher.isEmpty(ingredient)) {
+                            pending--;
+                        }
+                    }
+                }
+                this.network.enablePosition(pos);
+            }
+        }
+
+        // Re-add skipped quantities to the response if applicable
+        for (int i = 0; i < count; i++) {
+            if (skippedQuantities[i] > 0) {
+                // Modify the original ingredient, because the remaining ingredient may be EMPTY.
+                remaining.set(i, matcher.withQuantity(ingredients.get(i), skippedQuantities[i] + matcher.getQuantity(remaining.get(i))));
+            }
+        }
+
+        finalizeBatch(partPosIteratorData, changedPositions, simulation);
+        return remaining;
+    }
+
+    /**
+     * Extract the given prototypes in a single pass over all non-empty positions.
+     * The quantity of each prototype determines the quantity that must be extracted.
+     * Once an instance was extracted for a prototype, only instances that are equal to it will be extracted
+     * for that prototype, so that each extraction result is a single instance.
+     * @param prototypes The prototypes to extract.
+     * @param matchFlags The match flags for each prototype, which are not used for matching quantities.
+     * @param simulate If extraction should be simulated.
+     * @return The extracted instances, in the same order as the given prototypes.
+     */
+    public List<T> extractAll(List<T> prototypes, List<M> matchFlags, boolean simulate) {
+        return extractAll(prototypes, matchFlags, simulate ? new IngredientChannelSimulation<>(getComponent()) : null);
+    }
+
+    /**
+     * Extract the given prototypes in a single pass over all non-empty positions.
+     * @param prototypes The prototypes to extract.
+     * @param matchFlags The match flags for each prototype, which are not used for matching quantities.
+     * @param simulation The simulation to record the extractions in, or null if extraction should be effective.
+     * @return The extracted instances, in the same order as the given prototypes.
+     * @see #extractAll(List, List, boolean)
+     */
+    public List<T> extractAll(List<T> prototypes, List<M> matchFlags, @Nullable IngredientChannelSimulation<T, M> simulation) {
+        boolean simulate = simulation != null;
+        IIngredientMatcher<T, M> matcher = getComponent().getMatcher();
+        M quantityCondition = getComponent().getPrimaryQuantifier().getMatchCondition();
+        int count = prototypes.size();
+        List<T> extracted = Lists.newArrayListWithExpectedSize(count);
+        List<T> currentPrototypes = Lists.newArrayListWithExpectedSize(count);
+        List<M> currentMatchFlags = Lists.newArrayListWithExpectedSize(count);
+        long[] remainingQuantities = new long[count];
+        int pending = 0;
+        for (int i = 0; i < count; i++) {
+            T prototype = prototypes.get(i);
+            long quantity = matcher.getQuantity(prototype);
+            // Limit rate per prototype, just like single extractions
+            if (this.limitsEnabled) {
+                quantity = Math.min(quantity, network.getRateLimit());
+            }
+            remainingQuantities[i] = quantity;
+            if (quantity > 0) {
+                pending++;
+            }
+            extracted.add(matcher.getEmptyInstance());
+            currentPrototypes.add(prototype);
+            currentMatchFlags.add(matcher.withoutCondition(matchFlags.get(i), quantityCondition));
+        }
+
+        Set<PartPos> changedPositions = Sets.newLinkedHashSet();
+        Pair<IPartPosIteratorHandler, Iterator<PartPos>> partPosIteratorData = null;
+        if (pending > 0) {
+            partPosIteratorData = getPartPosIteratorData(this::getNonEmptyPositions, channel);
+            Iterator<PartPos> it = partPosIteratorData.getRight();
+            while (pending > 0 && it.hasNext()) {
+                PartPos pos = it.next();
+
+                // Skip if the position is not loaded or disabled
+                if (!pos.getPos().isLoaded() || network.isPositionDisabled(pos)) {
+                    continue;
+                }
+
+                PositionedAddonsNetworkIngredientsFilter<T> filter = this.network.getPositionedStorageFilter(pos);
+                IIngredientComponentStorage<T, M> storage = this.network.getPositionedStorage(pos);
+                this.network.disablePosition(pos);
+                for (int i = 0; i < count; i++) {
+                    if (remainingQuantities[i] <= 0) {
+                        continue;
+                    }
+                    T prototype = matcher.withQuantity(currentPrototypes.get(i), remainingQuantities[i]);
+                    M flags = currentMatchFlags.get(i);
+                    if (!network.mayContain(channel, pos, prototype, flags)) {
+                        continue;
+                    }
+
+                    // Simulate first, to check if it matches the filter
+                    T extractedSimulated = simulate ? simulation.simulateExtract(storage, pos, prototype, flags)
+                            : storage.extract(prototype, flags, true);
+                    if (matcher.isEmpty(extractedSimulated) || (filter != null && !filter.testExtraction(extractedSimulated))) {
+                        continue;
+                    }
+                    T extractedInstance = simulate ? extractedSimulated : storage.extract(extractedSimulated, flags, false);
+                    long extractedQuantity = matcher.getQuantity(extractedInstance);
+                    if (extractedQuantity <= 0) {
+                        continue;
+                    }
+                    if (simulate) {
+                        simulation.addExtraction(pos, i, extractedInstance);
+                    }
+
+                    // Only allow equal instances for this prototype from now on
+                    if (matcher.isEmpty(extracted.get(i))) {
+                        currentPrototypes.set(i, matcher.withQuantity(extractedInstance, 1));
+                        currentMatchFlags.set(i, matcher.getExactMatchNoQuantityCondition());
+                        extracted.set(i, extractedInstance);
+                    } else {
+                        extracted.set(i, matcher.withQuantity(extracted.get(i), matcher.getQuantity(extracted.get(i)) + extractedQuantity));
+                    }
+                    changedPositions.add(pos);
+                    remainingQuantities[i] -= extractedQuantity;
+                    if (remainingQuantities[i] <= 0) {
+                        pending--;
+                    }
+                }
+                this.network.enablePosition(pos);
+            }
+        }
+
+        finalizeBatch(partPosIteratorData, changedPositions, simulation);
+        return extracted;
+    }
+
+    /**
+     * Effectively apply all steps that were recorded in the given simulation,
+     * first all extractions, and then all insertions.
+     * The quantity that was effectively applied is stored in each step,
+     * as storages may not behave exactly as they simulated.
+     * @param simulation A simulation of extractions and insertions on this channel.
+     */
+    public void applySimulation(IngredientChannelSimulation<T, M> simulation) {
+        IIngredientMatcher<T, M> matcher = getComponent().getMatcher();
+        M exactFlags = matcher.getExactMatchNoQuantityCondition();
+        Set<PartPos> changedPositions = Sets.newLinkedHashSet();
+        for (IngredientChannelSimulation.Step<T> step : simulation.getExtractionSteps()) {
+            PartPos pos = step.getPos();
+            this.network.disablePosition(pos);
+            T extracted = this.network.getPositionedStorage(pos).extract(step.getInstance(), exactFlags, false);
+            this.network.enablePosition(pos);
+            step.setAppliedQuantity(matcher.getQuantity(extracted));
+            changedPositions.add(pos);
+        }
+        for (IngredientChannelSimulation.Step<T> step : simulation.getInsertionSteps()) {
+            PartPos pos = step.getPos();
+            this.network.disablePosition(pos);
+            T remaining = this.network.getPositionedStorage(pos).insert(step.getInstance(), false);
+            this.network.enablePosition(pos);
+            step.setAppliedQuantity(matcher.getQuantity(step.getInstance()) - matcher.getQuantity(remaining));
+            changedPositions.add(pos);
+        }
+
+        if (simulation.getPartPosIteratorHandler() != null) {
+            savePartPosIteratorHandler(simulation.getPartPosIteratorHandler());
+        }
+        // Mark each changed position only once for the whole batch
+        for (PartPos pos : changedPositions) {
+            markStoragePositionChanged(channel, pos);
+        }
+    }
+
+    protected void finalizeBatch(@Nullable Pair<IPartPosIteratorHandler, Iterator<PartPos>> partPosIteratorData,
+                                 Set<PartPos> changedPositions, @Nullable IngredientChannelSimulation<T, M> simulation) {
+        if (simulation != null) {
+            // Only save the iterator state once the simulation is applied
+            if (partPosIteratorData != null) {
+                simulation.setPartPosIteratorHandler(partPosIteratorData.getLeft());
+            }
+        } else {
+            if (partPosIteratorData != null) {
+                savePartPosIteratorHandler(partPosIteratorData.getLeft());
+            }
+            // Mark each changed position only once for the whole batch
+            for (PartPos pos : changedPositions) {
+                markStoragePositionChanged(channel, pos);
+            }
+        }
+
+        // Schedule an observation, as since this method is called, there may be a need for changes later on.
+        scheduleObservation();
+    }
+
     protected void scheduleObservation() {
         this.network.scheduleObservation();
     }
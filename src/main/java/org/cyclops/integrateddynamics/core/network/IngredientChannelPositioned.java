@@ -38,7 +38,17 @@ public class IngredientChannelPositioned<T, M> extends IngredientChannelAdapter<
 
     @Override
     protected Iterator<PartPos> getMatchingPositions(@Nonnull T prototype, M matchFlags) {
-        return getAllPositions();
+        return getPotentiallyMatchingPositions(prototype, matchFlags);
+    }
+
+    /**
+     * @param prototype An instance prototype.
+     * @param matchFlags Match flags.
+     * @return All positions, except for the ones that can definitely not contain a match based on their last observed contents.
+     *         Positions that may have received instances since their last observation are never skipped.
+     */
+    protected Iterator<PartPos> getPotentiallyMatchingPositions(@Nonnull T prototype, M matchFlags) {
+        return Iterators.filter(getAllPositions(), pos -> getNetwork().mayContain(getChannel(), pos, prototype, matchFlags));
     }
 
     @Override
@@ -50,8 +60,7 @@ public class IngredientChannelPositioned<T, M> extends IngredientChannelAdapter<
 
     @Override
     public Iterator<T> iterator(@Nonnull T prototype, M matchFlags) {
-        this.scheduleObservation();
-        return new PositionedIngredientIterator<>(getNetwork(), getNetwork().getPositions(getChannel()).iterator(),
+        return new PositionedIngredientIterator<>(getNetwork(), getPotentiallyMatchingPositions(prototype, matchFlags),
                 prototype, matchFlags);
     }
 
@@ -0,0 +1,349 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.cyclops.commoncapabilities.api.ingredient.IIngredientMatcher;
+import org.cyclops.commoncapabilities.api.ingredient.IngredientComponent;
+import org.cyclops.commoncapabilities.api.ingredient.storage.IIngredientComponentStorage;
+import org.cyclops.commoncapabilities.api.ingredient.storage.IIngredientComponentStorageSlotted;
+import org.cyclops.cyclopscore.ingredient.collection.IngredientCollectionPrototypeMap;
+import org.cyclops.integrateddynamics.api.network.IPartPosIteratorHandler;
+import org.cyclops.integrateddynamics.api.part.PartPos;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The simulated changes of a batch of operations on an ingredient channel.
+ *
+ * Storages are not modified during a simulation, so each simulated operation takes into account
+ * what earlier operations of the same batch already extracted from or inserted into the same position.
+ * An instance can only be extracted again from a position if the storage still contains more of it.
+ *
+ * For slotted storages, the simulated contents of each slot are tracked,
+ * so that insertions of different instances only compete for the same slots,
+ * and slots that were emptied by extractions can be reused by any instance.
+ * For other storages, insertions are handled conservatively,
+ * so that a simulated insertion never exceeds what can effectively be done:
+ * <ul>
+ *     <li>An instance can only be inserted into a position if no different instance was inserted into it before,
+ *     as both might require the same free space.</li>
+ *     <li>Only the space that was freed by extracting an instance can be reused by inserting that same instance.</li>
+ * </ul>
+ *
+ * Each simulated operation is recorded as a step, so that exactly those steps can be applied afterwards.
+ *
+ * @param <T> The instance type.
+ * @param <M> The matching condition parameter.
+ * @author rubensworks
+ */
+public class IngredientChannelSimulation<T, M> {
+
+    private final IngredientComponent<T, M> component;
+    private final Map<PartPos, IngredientCollectionPrototypeMap<T, M>> extracted = Maps.newHashMap();
+    private final Map<PartPos, IngredientCollectionPrototypeMap<T, M>> inserted = Maps.newHashMap();
+    private final Map<PartPos, SlottedChanges<T, M>> slotted = Maps.newHashMap();
+    private final List<Step<T>> extractionSteps = Lists.newArrayList();
+    private final List<Step<T>> insertionSteps = Lists.newArrayList();
+    @Nullable
+    private IPartPosIteratorHandler partPosIteratorHandler = null;
+
+    public IngredientChannelSimulation(IngredientComponent<T, M> component) {
+        this.component = component;
+    }
+
+    protected IngredientCollectionPrototypeMap<T, M> getChanges(Map<PartPos, IngredientCollectionPrototypeMap<T, M>> changes,
+                                                             PartPos pos) {
+        return changes.computeIfAbsent(pos, p -> new IngredientCollectionPrototypeMap<>(component, false));
+    }
+
+    protected long getQuantity(Map<PartPos, IngredientCollectionPrototypeMap<T, M>> changes, PartPos pos, T instance) {
+        IngredientCollectionPrototypeMap<T, M> positionChanges = changes.get(pos);
+        return positionChanges == null ? 0 : positionChanges.getQuantity(instance);
+    }
+
+    @Nullable
+    protected SlottedChanges<T, M> getSlottedChanges(IIngredientComponentStorage<T, M> storage, PartPos pos) {
+        if (!(storage instanceof IIngredientComponentStorageSlotted)) {
+            return null;
+        }
+        return slotted.computeIfAbsent(pos, p -> new SlottedChanges<>(component, (IIngredientComponentStorageSlotted<T, M>) storage));
+    }
+
+    protected boolean hasInsertedOther(PartPos pos, T instance) {
+        IngredientCollectionPrototypeMap<T, M> positionChanges = inserted.get(pos);
+        if (positionChanges != null) {
+            IIngredientMatcher<T, M> matcher = component.getMatcher();
+            for (T other : positionChanges) {
+                if (!matcher.matches(other, instance, matcher.getExactMatchNoQuantityCondition())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Simulate an extraction from the given position.
+     * @param storage The storage of the position.
+     * @param pos The position.
+     * @param prototype The prototype to extract, with the quantity to extract.
+     * @param matchFlags The match flags, which must not include the quantity.
+     * @return The instance that would be extracted, taking into account earlier simulated extractions.
+     */
+    public T simulateExtract(IIngredientComponentStorage<T, M> storage, PartPos pos, T prototype, M matchFlags) {
+        IIngredientMatcher<T, M> matcher = component.getMatcher();
+        // Track the slots from now on, so that extractions free space for later insertions
+        getSlottedChanges(storage, pos);
+        T extractedSimulated = storage.extract(prototype, matchFlags, true);
+        if (matcher.isEmpty(extractedSimulated)) {
+            return extractedSimulated;
+        }
+        long alreadyExtracted = getQuantity(extracted, pos, extractedSimulated);
+        if (alreadyExtracted > 0) {
+            // Check how much of this exact instance remains after the earlier extractions
+            long wanted = matcher.getQuantity(prototype);
+            T totalSimulated = storage.extract(matcher.withQuantity(extractedSimulated, alreadyExtracted + wanted),
+                    matcher.getExactMatchNoQuantityCondition(), true);
+            long available = Math.min(wanted, matcher.getQuantity(totalSimulated) - alreadyExtracted);
+            return available > 0 ? matcher.withQuantity(extractedSimulated, available) : matcher.getEmptyInstance();
+        }
+        return extractedSimulated;
+    }
+
+    /**
+     * Simulate an insertion into the given position.
+     * @param storage The storage of the position.
+     * @param pos The position.
+     * @param ingredient The ingredient to insert.
+     * @return The remaining ingredient that would not be inserted, taking into account earlier simulated operations.
+     */
+    public T simulateInsert(IIngredientComponentStorage<T, M> storage, PartPos pos, T ingredient) {
+        IIngredientMatcher<T, M> matcher = component.getMatcher();
+        long quantity = matcher.getQuantity(ingredient);
+        SlottedChanges<T, M> slottedChanges = getSlottedChanges(storage, pos);
+        if (slottedChanges != null) {
+            long available = slottedChanges.insert(ingredient, true);
+            if (available <= 0) {
+                return ingredient;
+            }
+            return available == quantity ? matcher.getEmptyInstance() : matcher.withQuantity(ingredient, quantity - available);
+        }
+        if (hasInsertedOther(pos, ingredient)) {
+            return ingredient;
+        }
+        long alreadyInserted = getQuantity(inserted, pos, ingredient);
+        long freed = getQuantity(extracted, pos, ingredient);
+        T remainingSimulated = storage.insert(matcher.withQuantity(ingredient, alreadyInserted + quantity), true);
+        long accepted = alreadyInserted + quantity - matcher.getQuantity(remainingSimulated);
+        long available = Math.min(quantity, accepted + freed - alreadyInserted);
+        if (available <= 0) {
+            return ingredient;
+        }
+        return available == quantity ? matcher.getEmptyInstance() : matcher.withQuantity(ingredient, quantity - available);
+    }
+
+    /**
+     * Record a simulated extraction.
+     * @param pos The position.
+     * @param index The index of the extraction within its batch.
+     * @param instance The extracted instance.
+     */
+    public void addExtraction(PartPos pos, int index, T instance) {
+        getChanges(extracted, pos).add(instance);
+        SlottedChanges<T, M> slottedChanges = slotted.get(pos);
+        if (slottedChanges != null) {
+            slottedChanges.extract(instance);
+        }
+        extractionSteps.add(new Step<>(pos, index, instance));
+    }
+
+    /**
+     * Record a simulated insertion.
+     * @param pos The position.
+     * @param index The index of the insertion within its batch.
+     * @param instance The inserted instance.
+     */
+    public void addInsertion(PartPos pos, int index, T instance) {
+        getChanges(inserted, pos).add(instance);
+        SlottedChanges<T, M> slottedChanges = slotted.get(pos);
+        if (slottedChanges != null) {
+            slottedChanges.insert(instance, false);
+        }
+        insertionSteps.add(new Step<>(pos, index, instance));
+    }
+
+    public List<Step<T>> getExtractionSteps() {
+        return extractionSteps;
+    }
+
+    public List<Step<T>> getInsertionSteps() {
+        return insertionSteps;
+    }
+
+    /**
+     * @param steps Extraction or insertion steps.
+     * @param index The index of an operation within its batch.
+     * @return The quantity of the given operation that was simulated, but could not be applied.
+     */
+    public long getShortfall(List<Step<T>> steps, int index) {
+        IIngredientMatcher<T, M> matcher = component.getMatcher();
+        long shortfall = 0;
+        for (Step<T> step : steps) {
+            if (step.getIndex() == index) {
+                shortfall += matcher.getQuantity(step.getInstance()) - step.getAppliedQuantity();
+            }
+        }
+        return shortfall;
+    }
+
+    @Nullable
+    public IPartPosIteratorHandler getPartPosIteratorHandler() {
+        return partPosIteratorHandler;
+    }
+
+    public void setPartPosIteratorHandler(@Nullable IPartPosIteratorHandler partPosIteratorHandler) {
+        this.partPosIteratorHandler = partPosIteratorHandler;
+    }
+
+    /**
+     * The simulated contents of the slots of a slotted storage.
+     * Only the slots that were changed by the simulation are stored,
+     * other slots are read from the storage itself.
+     * @param <T> The instance type.
+     * @param <M> The matching condition parameter.
+     */
+    protected static class SlottedChanges<T, M> {
+
+        private final IIngredientMatcher<T, M> matcher;
+        private final IIngredientComponentStorageSlotted<T, M> storage;
+        private final Int2ObjectMap<T> contents = new Int2ObjectOpenHashMap<>();
+
+        public SlottedChanges(IngredientComponent<T, M> component, IIngredientComponentStorageSlotted<T, M> storage) {
+            this.matcher = component.getMatcher();
+            this.storage = storage;
+        }
+
+        protected long getQuantity(T instance) {
+            return matcher.isEmpty(instance) ? 0 : matcher.getQuantity(instance);
+        }
+
+        protected T getContents(int slot) {
+            T instance = contents.get(slot);
+            return instance != null ? instance : storage.getSlotContents(slot);
+        }
+
+        /**
+         * @param slot A slot.
+         * @param instance An instance to insert.
+         * @param quantity The quantity to insert.
+         * @return The quantity of the instance that can be inserted into the simulated slot.
+         */
+        protected long getInsertable(int slot, T instance, long quantity) {
+            M exactFlags = matcher.getExactMatchNoQuantityCondition();
+            T current = getContents(slot);
+            if (!matcher.isEmpty(current) && !matcher.matches(current, instance, exactFlags)) {
+                return 0;
+            }
+            long currentQuantity = getQuantity(current);
+            T original = storage.getSlotContents(slot);
+            if (matcher.isEmpty(original) || matcher.matches(original, instance, exactFlags)) {
+                // Let the storage determine how much the original contents of the slot can grow
+                long originalQuantity = getQuantity(original);
+                long surplus = Math.max(0, currentQuantity - originalQuantity);
+                T remaining = storage.insert(slot, matcher.withQuantity(instance, surplus + quantity), true);
+                long accepted = surplus + quantity - getQuantity(remaining);
+                return Math.max(0, Math.min(quantity, accepted - (currentQuantity - originalQuantity)));
+            }
+            // The storage can not be asked for slots of which the original contents were extracted
+            return Math.max(0, Math.min(quantity, storage.getMaxQuantity(slot) - currentQuantity));
+        }
+
+        /**
+         * Insert the given instance into the simulated slots, in slot order.
+         * @param instance An instance.
+         * @param simulate If the simulated slots should not be changed.
+         * @return The quantity that was inserted.
+         */
+        public long insert(T instance, boolean simulate) {
+            long quantity = matcher.getQuantity(instance);
+            long remaining = quantity;
+            int slots = storage.getSlots();
+            for (int slot = 0; slot < slots && remaining > 0; slot++) {
+                long inserted = getInsertable(slot, instance, remaining);
+                if (inserted > 0) {
+                    if (!simulate) {
+                        contents.put(slot, matcher.withQuantity(instance, getQuantity(getContents(slot)) + inserted));
+                    }
+                    remaining -= inserted;
+                }
+            }
+            return quantity - remaining;
+        }
+
+        /**
+         * Extract the given instance from the simulated slots, in slot order.
+         * @param instance An instance.
+         */
+        public void extract(T instance) {
+            M exactFlags = matcher.getExactMatchNoQuantityCondition();
+            long remaining = matcher.getQuantity(instance);
+            int slots = storage.getSlots();
+            for (int slot = 0; slot < slots && remaining > 0; slot++) {
+                T current = getContents(slot);
+                if (!matcher.isEmpty(current) && matcher.matches(current, instance, exactFlags)) {
+                    long currentQuantity = matcher.getQuantity(current);
+                    long extracted = Math.min(remaining, currentQuantity);
+                    contents.put(slot, extracted == currentQuantity ? matcher.getEmptyInstance()
+                            : matcher.withQuantity(current, currentQuantity - extracted));
+                    remaining -= extracted;
+                }
+            }
+        }
+    }
+
+    /**
+     * A simulated extraction or insertion of an instance at a position.
+     * @param <T> The instance type.
+     */
+    public static class Step<T> {
+
+        private final PartPos pos;
+        private final int index;
+        private final T instance;
+        private long appliedQuantity = 0;
+
+        public Step(PartPos pos, int index, T instance) {
+            this.pos = pos;
+            this.index = index;
+            this.instance = instance;
+        }
+
+        public PartPos getPos() {
+            return pos;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public T getInstance() {
+            return instance;
+        }
+
+        /**
+         * @return The quantity that was effectively extracted or inserted when applying this step.
+         */
+        public long getAppliedQuantity() {
+            return appliedQuantity;
+        }
+
+        public void setAppliedQuantity(long appliedQuantity) {
+            this.appliedQuantity = appliedQuantity;
+        }
+    }
+
+}
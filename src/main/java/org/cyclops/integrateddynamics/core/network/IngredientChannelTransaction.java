@@ -0,0 +1,173 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import com.google.common.collect.Lists;
+import org.cyclops.commoncapabilities.api.ingredient.IIngredientMatcher;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A batch of insertions and extractions for an ingredient channel,
+ * which can be simulated and committed as a whole.
+ *
+ * Extractions are always handled before insertions,
+ * and each of them is handled in a single pass over the positions of the channel.
+ * The simulation keeps track of the changes to each position within the batch (see {@link IngredientChannelSimulation}),
+ * and committing applies exactly the simulated changes.
+ * Storages that do not behave as they simulated may still cause an incomplete commit,
+ * which is not rolled back, but is reflected in the result of the commit.
+ *
+ * @param <T> The instance type.
+ * @param <M> The matching condition parameter.
+ * @author rubensworks
+ */
+public class IngredientChannelTransaction<T, M> {
+
+    private final IngredientChannelAdapter<T, M> channel;
+    private final List<T> insertions = Lists.newArrayList();
+    private final List<T> extractionPrototypes = Lists.newArrayList();
+    private final List<M> extractionMatchFlags = Lists.newArrayList();
+
+    public IngredientChannelTransaction(IngredientChannelAdapter<T, M> channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Add an insertion to this transaction.
+     * @param ingredient The ingredient to insert.
+     * @return This transaction.
+     */
+    public IngredientChannelTransaction<T, M> insert(T ingredient) {
+        this.insertions.add(ingredient);
+        return this;
+    }
+
+    /**
+     * Add an extraction to this transaction.
+     * @param prototype The prototype to extract, with the quantity that must be extracted.
+     * @param matchFlags The match flags, which are not used for matching quantities.
+     * @return This transaction.
+     */
+    public IngredientChannelTransaction<T, M> extract(T prototype, M matchFlags) {
+        this.extractionPrototypes.add(prototype);
+        this.extractionMatchFlags.add(matchFlags);
+        return this;
+    }
+
+    protected Result<T> run(IngredientChannelSimulation<T, M> simulation) {
+        List<T> extracted = this.extractionPrototypes.isEmpty() ? Collections.emptyList()
+                : this.channel.extractAll(this.extractionPrototypes, this.extractionMatchFlags, simulation);
+        List<T> remaining = this.insertions.isEmpty() ? Collections.emptyList()
+                : this.channel.insertAll(this.insertions, simulation);
+        return new Result<>(extracted, remaining, isComplete(extracted, remaining), false);
+    }
+
+    protected Result<T> apply(IngredientChannelSimulation<T, M> simulation, Result<T> simulated) {
+        IIngredientMatcher<T, M> matcher = this.channel.getComponent().getMatcher();
+        this.channel.applySimulation(simulation);
+
+        // Correct the simulated result for the quantities that could not be applied
+        List<T> extracted = Lists.newArrayList(simulated.getExtracted());
+        for (int i = 0; i < extracted.size(); i++) {
+            long shortfall = simulation.getShortfall(simulation.getExtractionSteps(), i);
+            if (shortfall > 0) {
+                extracted.set(i, matcher.withQuantity(extracted.get(i), matcher.getQuantity(extracted.get(i)) - shortfall));
+            }
+        }
+        List<T> remaining = Lists.newArrayList(simulated.getRemaining());
+        for (int i = 0; i < remaining.size(); i++) {
+            long shortfall = simulation.getShortfall(simulation.getInsertionSteps(), i);
+            if (shortfall > 0) {
+                // Modify the original ingredient, because the remaining ingredient may be EMPTY.
+                remaining.set(i, matcher.withQuantity(this.insertions.get(i), matcher.getQuantity(remaining.get(i)) + shortfall));
+            }
+        }
+        return new Result<>(extracted, remaining, isComplete(extracted, remaining), true);
+    }
+
+    protected boolean isComplete(List<T> extracted, List<T> remaining) {
+        IIngredientMatcher<T, M> matcher = this.channel.getComponent().getMatcher();
+        for (int i = 0; i < extracted.size(); i++) {
+            if (matcher.getQuantity(extracted.get(i)) < matcher.getQuantity(this.extractionPrototypes.get(i))) {
+                return false;
+            }
+        }
+        for (T ingredient : remaining) {
+            if (!matcher.isEmpty(ingredient)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Simulate all operations of this transaction.
+     * @return The simulated result.
+     */
+    public Result<T> simulate() {
+        return run(new IngredientChannelSimulation<>(this.channel.getComponent()));
+    }
+
+    /**
+     * Simulate all operations of this transaction, and apply the simulated changes effectively
+     * if the simulation allows it.
+     * @param requireComplete If the transaction should only be applied if all operations can be handled completely.
+     * @return The effective result, or the simulated result if the transaction was not applied.
+     */
+    public Result<T> commit(boolean requireComplete) {
+        IngredientChannelSimulation<T, M> simulation = new IngredientChannelSimulation<>(this.channel.getComponent());
+        Result<T> simulated = run(simulation);
+        if (requireComplete && !simulated.isComplete()) {
+            return simulated;
+        }
+        return apply(simulation, simulated);
+    }
+
+    /**
+     * The result of a transaction.
+     * @param <T> The instance type.
+     */
+    public static class Result<T> {
+
+        private final List<T> extracted;
+        private final List<T> remaining;
+        private final boolean complete;
+        private final boolean committed;
+
+        public Result(List<T> extracted, List<T> remaining, boolean complete, boolean committed) {
+            this.extracted = extracted;
+            this.remaining = remaining;
+            this.complete = complete;
+            this.committed = committed;
+        }
+
+        /**
+         * @return The extracted instances, in the order in which the extractions were added.
+         */
+        public List<T> getExtracted() {
+            return extracted;
+        }
+
+        /**
+         * @return The instances that could not be inserted, in the order in which the insertions were added.
+         */
+        public List<T> getRemaining() {
+            return remaining;
+        }
+
+        /**
+         * @return If all operations were handled completely.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        /**
+         * @return If the operations were applied effectively.
+         */
+        public boolean isCommitted() {
+            return committed;
+        }
+    }
+
+}
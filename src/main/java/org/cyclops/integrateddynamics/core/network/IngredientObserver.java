@@ -7,73 +7,114 @@ import com.google.common.collect.Sets;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.INBT;
+import net.minecraft.nbt.ListNBT;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.eventbus.api.Event;
 import net.minecraftforge.fml.event.server.FMLServerStoppingEvent;
 import net.minecraftforge.fml.server.ServerLifecycleHooks;
+import org.apache.commons.lang3.tuple.Pair;
 import org.cyclops.commoncapabilities.api.capability.inventorystate.IInventoryState;
+import org.cyclops.commoncapabilities.api.ingredient.IIngredientSerializer;
 import org.cyclops.cyclopscore.helper.TileHelpers;
+import org.cyclops.cyclopscore.ingredient.collection.IngredientCollectionPrototypeMap;
 import org.cyclops.cyclopscore.ingredient.collection.diff.IngredientCollectionDiff;
 import org.cyclops.cyclopscore.ingredient.collection.diff.IngredientCollectionDiffManager;
 import org.cyclops.integrateddynamics.Capabilities;
 import org.cyclops.integrateddynamics.GeneralConfig;
 import org.cyclops.integrateddynamics.api.ingredient.IIngredientComponentStorageObservable;
+import org.cyclops.integrateddynamics.api.ingredient.capability.IIngredientComponentStorageNotifier;
 import org.cyclops.integrateddynamics.api.network.IPositionedAddonsNetworkIngredients;
 import org.cyclops.integrateddynamics.api.part.PartPos;
 import org.cyclops.integrateddynamics.api.part.PartTarget;
 import org.cyclops.integrateddynamics.api.part.PrioritizedPartPos;
+import org.cyclops.integrateddynamics.capability.ingredientnotifier.IngredientComponentStorageNotifierConfig;
 import org.cyclops.integrateddynamics.core.network.diagnostics.NetworkDiagnostics;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Consumer;
 
 /**
  * Instances of this class are able to watch ingredient positions and emit diffs.
  *
+ * Positions that expose a {@link IIngredientComponentStorageNotifier} push their changes to this observer,
+ * all other positions are polled periodically, and diffed against their last contents.
+ *
+ * Polled positions are scheduled in the global {@link IngredientObserverScheduler},
+ * at an interval that is derived from a smoothed estimate of the rate at which their contents change.
+ * Only positions that are due, pushed, new or forcefully reset are visited in an observation job.
+ *
+ * Observation jobs run in a fork-join pool, in which the diffs of the due positions of a network
+ * are calculated in parallel, after which they are emitted sequentially in priority order.
+ *
  * @author rubensworks
  */
 public class IngredientObserver<T, M> {
 
-    private static final ExecutorService WORKER_POOL = Executors.newFixedThreadPool(GeneralConfig.ingredientNetworkObserverThreads);
+    private static final ForkJoinPool WORKER_POOL = new ForkJoinPool(GeneralConfig.ingredientNetworkObserverThreads);
     static {
         MinecraftForge.EVENT_BUS.addListener((Consumer<FMLServerStoppingEvent>) event -> {
             if (event.getServer().isDedicatedServer()) {
                 WORKER_POOL.shutdown();
             }
+            IngredientObserverScheduler.getInstance().clear();
         });
     }
 
     private final IPositionedAddonsNetworkIngredients<T, M> network;
 
     private final Set<IIngredientComponentStorageObservable.IIndexChangeObserver<T, M>> changeObservers;
-    private final Int2ObjectMap<Map<PartPos, Integer>> observeTargetTickIntervals;
-    private final Int2ObjectMap<Map<PartPos, Integer>> observeTargetTicks;
+    private final Int2ObjectMap<ChannelState> channelStates;
+    // Positions that were handed out by the scheduler, and must be observed in the next observation job
+    private final Int2ObjectMap<Set<PrioritizedPartPos>> duePositions;
     private final Int2ObjectMap<Map<PrioritizedPartPos, IngredientCollectionDiffManager<T, M>>> channeledDiffManagers;
-    private final Int2ObjectMap<Set<PartPos>> pendingTickResets;
+    // The ticks at which forcefully reset positions must be observed, irrespective of the observation budget
+    private final Int2ObjectMap<Map<PartPos, Integer>> pendingTickResets;
 
     private final Int2ObjectMap<List<PrioritizedPartPos>> lastRemoved;
     private final Map<PartPos, Integer> lastInventoryStates;
+    // Positions in the wildcard channel are observed in all channels, so subscriptions are kept per channel
+    private final Map<Pair<Integer, PartPos>, IngredientStorageSubscription<T, M>> subscriptions;
     private Future<?> lastObserverBarrier;
 
+    // The serialized last observed contents of each position, which are reused across snapshots until they change
+    private final Int2ObjectMap<Map<PrioritizedPartPos, ListNBT>> serializedBaselines;
+    private volatile CompoundNBT snapshot;
+    private boolean snapshotDirty;
+    private int lastSnapshotTick;
+
     public IngredientObserver(IPositionedAddonsNetworkIngredients<T, M> network) {
         this.network = network;
         this.changeObservers = Sets.newIdentityHashSet();
-        this.observeTargetTickIntervals = new Int2ObjectOpenHashMap<>();
-        this.observeTargetTicks = new Int2ObjectOpenHashMap<>();
+        this.channelStates = new Int2ObjectOpenHashMap<>();
+        this.duePositions = new Int2ObjectOpenHashMap<>();
         this.channeledDiffManagers = new Int2ObjectOpenHashMap<>();
         this.pendingTickResets = new Int2ObjectOpenHashMap<>();
         this.lastRemoved = new Int2ObjectOpenHashMap<>();
         this.lastInventoryStates = Maps.newHashMap();
+        this.subscriptions = Maps.newConcurrentMap();
 
         this.lastObserverBarrier = null;
+
+        this.serializedBaselines = new Int2ObjectOpenHashMap<>();
+        this.snapshot = null;
+        this.snapshotDirty = false;
+        this.lastSnapshotTick = 0;
     }
 
     public IPositionedAddonsNetworkIngredients<T, M> getNetwork() {
@@ -93,6 +134,75 @@ public class IngredientObserver<T, M> {
         }
         positions.add(pos);
         this.lastInventoryStates.remove(pos.getPartPos());
+        IngredientStorageSubscription<T, M> subscription = this.subscriptions.remove(Pair.of(channel, pos.getPartPos()));
+        if (subscription != null) {
+            subscription.unsubscribe();
+            // Make sure that the removal of this position can still be diffed
+            Map<PrioritizedPartPos, IngredientCollectionDiffManager<T, M>> diffManagers = this.channeledDiffManagers.get(channel);
+            if (diffManagers != null) {
+                diffManagers.put(pos, subscription.toDiffManager());
+            }
+        }
+        // Subscriptions of this position in other channels can not be observed anymore
+        this.subscriptions.entrySet().removeIf(entry -> {
+            if (entry.getKey().getRight().equals(pos.getPartPos())) {
+                entry.getValue().unsubscribe();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Called when the filter of the given position has changed.
+     * @param pos A position.
+     */
+    public void onPositionFilterChanged(PartPos pos) {
+        for (Map.Entry<Pair<Integer, PartPos>, IngredientStorageSubscription<T, M>> entry : this.subscriptions.entrySet()) {
+            if (entry.getKey().getRight().equals(pos)) {
+                entry.getValue().invalidate();
+            }
+        }
+    }
+
+    /**
+     * Get the push subscription for the given position,
+     * which is created, replaced or removed depending on the notifier capability that is present at the position.
+     * @param channel The channel in which the position is observed.
+     * @param pos A position.
+     * @param diffManagers The diff managers of the channel.
+     * @return The subscription, or null if the position must be polled.
+     */
+    @Nullable
+    protected IngredientStorageSubscription<T, M> getSubscription(int channel, PrioritizedPartPos pos,
+                                                                  Map<PrioritizedPartPos, IngredientCollectionDiffManager<T, M>> diffManagers) {
+        Pair<Integer, PartPos> key = Pair.of(channel, pos.getPartPos());
+        if (!GeneralConfig.ingredientNetworkObserverPush) {
+            IngredientStorageSubscription<T, M> subscription = this.subscriptions.remove(key);
+            if (subscription != null) {
+                subscription.unsubscribe();
+                diffManagers.put(pos, subscription.toDiffManager());
+            }
+            return null;
+        }
+        IIngredientComponentStorageNotifier notifier = TileHelpers.getCapability(pos.getPartPos().getPos(),
+                pos.getPartPos().getSide(), IngredientComponentStorageNotifierConfig.CAPABILITY).orElse(null);
+        IngredientStorageSubscription<T, M> subscription = this.subscriptions.get(key);
+        if (subscription != null && subscription.getNotifier() != notifier) {
+            // The storage was replaced or does not notify anymore, so we continue from its last contents
+            this.subscriptions.remove(key);
+            subscription.unsubscribe();
+            diffManagers.put(pos, subscription.toDiffManager());
+            subscription = null;
+        }
+        if (subscription == null && notifier != null) {
+            subscription = IngredientStorageSubscription.subscribe(getNetwork().getComponent(), notifier, diffManagers.get(pos));
+            if (subscription != null) {
+                diffManagers.remove(pos);
+                this.subscriptions.put(key, subscription);
+            }
+        }
+        return subscription;
     }
 
     /**
@@ -116,18 +226,27 @@ public class IngredientObserver<T, M> {
         return ServerLifecycleHooks.getCurrentServer().getTickCounter();
     }
 
-    protected void emitEvent(IIngredientComponentStorageObservable.StorageChangeEvent<T, M> event) {
+    /**
+     * Emit all change events of an observation round as a single batch.
+     * If multithreading is enabled, the batch is applied in a single task on the main server thread.
+     * @param events The change events of the round, in emission order.
+     */
+    protected void emitEvents(List<IIngredientComponentStorageObservable.StorageChangeEvent<T, M>> events) {
+        if (events.isEmpty()) {
+            return;
+        }
         if (GeneralConfig.ingredientNetworkObserverEnableMultithreading) {
             // Make sure we are running on the main server thread to avoid concurrency exceptions
-            ServerLifecycleHooks.getCurrentServer().deferTask(() -> {
-                for (IIngredientComponentStorageObservable.IIndexChangeObserver<T, M> observer : getObserversCopy()) {
-                    observer.onChange(event);
-                }
-            });
+            ServerLifecycleHooks.getCurrentServer().deferTask(() -> notifyObservers(events));
         } else {
-            for (IIngredientComponentStorageObservable.IIndexChangeObserver<T, M> observer : getObserversCopy()) {
-                observer.onChange(event);
-            }
+            notifyObservers(events);
+        }
+    }
+
+    protected void notifyObservers(List<IIngredientComponentStorageObservable.StorageChangeEvent<T, M>> events) {
+        List<IIngredientComponentStorageObservable.StorageChangeEvent<T, M>> batch = Collections.unmodifiableList(events);
+        for (IIngredientComponentStorageObservable.IIndexChangeObserver<T, M> observer : getObserversCopy()) {
+            observer.onChangeBatch(batch);
         }
     }
 
@@ -176,37 +295,133 @@ public class IngredientObserver<T, M> {
                 }
 
                 // Schedule the observation job
-                this.lastObserverBarrier = WORKER_POOL.submit(() -> {
-                    for (int channel : getChannels()) {
-                        observe(channel);
-                    }
-                });
+                this.lastObserverBarrier = WORKER_POOL.submit(this::observeChannels);
             } else {
-                for (int channel : getChannels()) {
-                    observe(channel);
-                }
+                observeChannels();
             }
         }
         return true;
     }
 
-    protected synchronized Set<PrioritizedPartPos> getPositionsCopy(int channel) {
-        return Sets.newHashSet(getNetwork().getPrioritizedPositions(channel));
+    protected synchronized List<PrioritizedPartPos> getPositionsCopy(int channel) {
+        // Positions are sorted by priority, so that diffs are always emitted in a deterministic order
+        return Lists.newArrayList(getNetwork().getPrioritizedPositions(channel));
     }
 
-    protected void observe(int channel) {
-        int currentTick = getCurrentTick();
+    /**
+     * Observe all channels, and emit their changes as a single batch.
+     */
+    protected void observeChannels() {
+        List<IIngredientComponentStorageObservable.StorageChangeEvent<T, M>> events = Lists.newArrayList();
+        int[] channels = getChannels();
+        for (int channel : channels) {
+            observe(channel, events);
+        }
+        removeUnobservedChannelStates(channels);
+        emitEvents(events);
+        updateSnapshot();
+    }
 
-        // Prepare ticking collections
-        Map<PartPos, Integer> channelTargetTicks = observeTargetTicks.get(channel);
-        if (channelTargetTicks == null) {
-            channelTargetTicks = Maps.newHashMap();
+    protected void removeUnobservedChannelStates(int[] channels) {
+        if (this.channelStates.size() > channels.length) {
+            IntSet observedChannels = new IntOpenHashSet(channels);
+            Iterator<Int2ObjectMap.Entry<ChannelState>> it = this.channelStates.int2ObjectEntrySet().iterator();
+            while (it.hasNext()) {
+                Int2ObjectMap.Entry<ChannelState> entry = it.next();
+                if (!observedChannels.contains(entry.getIntKey())) {
+                    entry.getValue().invalidate();
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    protected ChannelState getChannelState(int channel) {
+        ChannelState state = this.channelStates.get(channel);
+        if (state == null) {
+            state = new ChannelState();
+            this.channelStates.put(channel, state);
         }
-        Map<PartPos, Integer> channelIntervals = this.observeTargetTickIntervals.get(channel);
-        if (channelIntervals == null) {
-            channelIntervals = Maps.newHashMap();
+        return state;
+    }
+
+    /**
+     * Called by the {@link IngredientObserverScheduler} when the given position is due for observation.
+     * @param channel The channel in which the position is observed.
+     * @param pos The position.
+     */
+    protected void markDue(int channel, PrioritizedPartPos pos) {
+        synchronized (this.duePositions) {
+            Set<PrioritizedPartPos> positions = this.duePositions.get(channel);
+            if (positions == null) {
+                positions = Sets.newHashSet();
+                this.duePositions.put(channel, positions);
+            }
+            positions.add(pos);
+        }
+    }
+
+    @Nullable
+    protected Set<PrioritizedPartPos> takeDuePositions(int channel) {
+        synchronized (this.duePositions) {
+            return this.duePositions.remove(channel);
+        }
+    }
+
+    /**
+     * Determine the positions that must be observed in this tick.
+     * @param channel The channel.
+     * @param state The state of the channel.
+     * @param currentTick The current tick.
+     * @return The positions to observe, sorted by priority.
+     */
+    protected Set<PrioritizedPartPos> selectPositions(int channel, ChannelState state, int currentTick) {
+        Set<PrioritizedPartPos> selected = Sets.newTreeSet();
+
+        // Positions that were added to the network, which are observed immediately
+        selected.addAll(state.update(getNetwork().getPrioritizedPositions(channel)));
+
+        // Positions that were handed out by the scheduler
+        Set<PrioritizedPartPos> due = takeDuePositions(channel);
+        if (due != null) {
+            for (PrioritizedPartPos pos : due) {
+                if (state.isMember(pos)) {
+                    selected.add(pos);
+                }
+            }
+        }
+
+        // Positions that were forcefully reset
+        synchronized (this.pendingTickResets) {
+            Map<PartPos, Integer> pendingTickResetsChannel = this.pendingTickResets.get(channel);
+            if (pendingTickResetsChannel != null) {
+                Iterator<Map.Entry<PartPos, Integer>> it = pendingTickResetsChannel.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<PartPos, Integer> entry = it.next();
+                    if (entry.getValue() <= currentTick) {
+                        PrioritizedPartPos pos = state.getMember(entry.getKey());
+                        if (pos != null) {
+                            selected.add(pos);
+                        }
+                        it.remove();
+                    }
+                }
+                if (pendingTickResetsChannel.isEmpty()) {
+                    this.pendingTickResets.remove(channel);
+                }
+            }
         }
 
+        // Pushed positions are observed every tick, as they only emit their notified changes
+        selected.addAll(state.pushed);
+
+        return selected;
+    }
+
+    protected void observe(int channel, List<IIngredientComponentStorageObservable.StorageChangeEvent<T, M>> events) {
+        int currentTick = getCurrentTick();
+        ChannelState state = getChannelState(channel);
+
         // Calculate diff of all positions
         Map<PrioritizedPartPos, IngredientCollectionDiffManager<T, M>> diffManagers = this.channeledDiffManagers.get(channel);
         if (diffManagers == null) {
@@ -222,8 +437,9 @@ public class IngredientObserver<T, M> {
             lastSecondDurations.clear();
         }
 
-        // Emit diffs for all current positions
-        Set<PrioritizedPartPos> positions = getPositionsCopy(channel);
+        // Determine which positions must be diffed in this tick
+        Set<PrioritizedPartPos> positions = selectPositions(channel, state, currentTick);
+        List<PositionObservation<T, M>> observations = Lists.newArrayListWithExpectedSize(positions.size());
         for (PrioritizedPartPos partPos : positions) {
             // Get current time if diagnostics are enabled
             long startTime = 0;
@@ -231,29 +447,20 @@ public class IngredientObserver<T, M> {
                 startTime = System.nanoTime();
             }
 
-            // Check if we should observe this position in this tick
-            int lastTick = channelTargetTicks.getOrDefault(partPos.getPartPos(), currentTick);
-            if (lastTick <= currentTick) {
-                // Remove this position from the pending tick reset set
-                synchronized (this.pendingTickResets) {
-                    Set<PartPos> pendingTickResetsChannel = this.pendingTickResets.get(channel);
-                    if (pendingTickResetsChannel != null) {
-                        pendingTickResetsChannel.remove(partPos.getPartPos());
-                        if (pendingTickResetsChannel.isEmpty()) {
-                            this.pendingTickResets.remove(channel);
-                        }
-                    }
-                }
-
-                // If an inventory state is exposed, check if it has changed since the last observation call.
-                boolean skipPosition = false;
-
-                // Skip position forcefully if it is not loaded
-                if (!partPos.getPartPos().getPos().isLoaded()) {
-                    skipPosition = true;
-                }
+            PositionSchedule schedule = state.getSchedule(partPos);
 
-                if (!skipPosition) {
+            // Skip position forcefully if it is not loaded, and check it again later
+            if (!partPos.getPartPos().getPos().isLoaded()) {
+                state.pushed.remove(partPos);
+                reschedule(channel, partPos, schedule, currentTick + schedule.getInterval());
+            } else {
+                // Storages that notify us of their changes don't have to be diffed in full
+                IngredientStorageSubscription<T, M> subscription = getSubscription(channel, partPos, diffManagers);
+                if (subscription != null) {
+                    observations.add(new PositionObservation<>(this, partPos, subscription, null));
+                } else {
+                    // If an inventory state is exposed, check if it has changed since the last observation call.
+                    boolean skipPosition = false;
                     IInventoryState inventoryState = TileHelpers.getCapability(partPos.getPartPos().getPos(),
                             partPos.getPartPos().getSide(), Capabilities.INVENTORY_STATE).orElse(null);
                     if (inventoryState != null) {
@@ -266,75 +473,61 @@ public class IngredientObserver<T, M> {
                             this.lastInventoryStates.put(partPos.getPartPos(), newState);
                         }
                     }
-                }
-
-                if (!skipPosition) {
-                    IngredientCollectionDiffManager<T, M> diffManager = diffManagers.get(partPos);
-                    if (diffManager == null) {
-                        diffManager = new IngredientCollectionDiffManager<>(network.getComponent());
-                        diffManagers.put(partPos, diffManager);
-                    }
-
-                    // Emit event of diff
-                    IngredientCollectionDiff<T, M> diff = diffManager.onChange(getNetwork().getRawInstances(partPos.getPartPos()));
-                    boolean hasChanges = false;
-                    if (diff.hasAdditions()) {
-                        hasChanges = true;
-                        this.emitEvent(new IIngredientComponentStorageObservable.StorageChangeEvent<>(channel, partPos,
-                                IIngredientComponentStorageObservable.Change.ADDITION, false, diff.getAdditions()));
-                    }
-                    if (diff.hasDeletions()) {
-                        hasChanges = true;
-                        this.emitEvent(new IIngredientComponentStorageObservable.StorageChangeEvent<>(channel, partPos,
-                                IIngredientComponentStorageObservable.Change.DELETION, diff.isCompletelyEmpty(), diff.getDeletions()));
-                    }
 
-                    // Update the next tick value
-                    int tickInterval = channelIntervals.getOrDefault(partPos.getPartPos(), GeneralConfig.ingredientNetworkObserverFrequencyMax);
-                    // Decrease the frequency when changes were detected
-                    // Increase the frequency when no changes were detected
-                    // This will make it so that quickly changing storages will be observed
-                    // more frequently than slowly changing storages
-                    boolean tickIntervalChanged = false;
-                    if (hasChanges) {
-                        if (tickInterval > GeneralConfig.ingredientNetworkObserverFrequencyMin) {
-                            tickIntervalChanged = true;
-                            tickInterval = Math.max(GeneralConfig.ingredientNetworkObserverFrequencyMin, tickInterval - GeneralConfig.ingredientNetworkObserverFrequencyDecreaseFactor);
-                        }
+                    if (skipPosition) {
+                        state.pushed.remove(partPos);
+                        updateSchedule(channel, partPos, schedule, false, currentTick);
                     } else {
-                        if (tickInterval < GeneralConfig.ingredientNetworkObserverFrequencyMax) {
-                            tickIntervalChanged = true;
-                            tickInterval = Math.min(GeneralConfig.ingredientNetworkObserverFrequencyMax, tickInterval + GeneralConfig.ingredientNetworkObserverFrequencyIncreaseFactor);
-                        }
-                    }
-                    // No need to store the interval if it == 1, as the previous or default value will
-                    // definitely also cause this part to tick in next tick.
-                    // This makes these cases slightly faster, as no map updates are needed.
-                    if (tickInterval != 1) {
-                        channelTargetTicks.put(partPos.getPartPos(), currentTick + tickInterval);
-
-                    }
-                    // Only update when the interval has changed.
-                    // In most cases, this will remain the same.
-                    if (tickIntervalChanged) {
-                        if (tickInterval != GeneralConfig.ingredientNetworkObserverFrequencyMax) {
-                            channelIntervals.put(partPos.getPartPos(), tickInterval);
-                        } else {
-                            channelIntervals.remove(partPos.getPartPos());
+                        IngredientCollectionDiffManager<T, M> diffManager = diffManagers.get(partPos);
+                        if (diffManager == null) {
+                            diffManager = new IngredientCollectionDiffManager<>(network.getComponent());
+                            diffManagers.put(partPos, diffManager);
                         }
+                        observations.add(new PositionObservation<>(this, partPos, null, diffManager));
                     }
                 }
             }
 
             // Calculate duration if diagnostics are enabled
             if (isBeingDiagnozed) {
-                long duration = System.nanoTime() - startTime;
-                PartPos interfacePos = PartTarget.fromCenter(partPos.getPartPos()).getTarget();
-                Long lastDuration = lastSecondDurations.get(interfacePos);
-                if (lastDuration != null) {
-                    duration = duration + lastDuration;
-                }
-                lastSecondDurations.put(interfacePos, duration);
+                addDuration(lastSecondDurations, partPos, System.nanoTime() - startTime);
+            }
+        }
+
+        // Calculate the diffs, which only depend on the state of their own position
+        calculateDiffs(observations);
+
+        // Emit diffs in priority order
+        for (PositionObservation<T, M> observation : observations) {
+            PrioritizedPartPos partPos = observation.getPos();
+            IngredientCollectionDiff<T, M> diff = observation.getDiff();
+            boolean hasChanges = false;
+            if (diff.hasAdditions()) {
+                hasChanges = true;
+                events.add(new IIngredientComponentStorageObservable.StorageChangeEvent<>(channel, partPos,
+                        IIngredientComponentStorageObservable.Change.ADDITION, false, diff.getAdditions()));
+            }
+            if (diff.hasDeletions()) {
+                hasChanges = true;
+                events.add(new IIngredientComponentStorageObservable.StorageChangeEvent<>(channel, partPos,
+                        IIngredientComponentStorageObservable.Change.DELETION, diff.isCompletelyEmpty(), diff.getDeletions()));
+            }
+            if (hasChanges) {
+                markBaselineChanged(channel, partPos);
+            }
+
+            PositionSchedule schedule = state.getSchedule(partPos);
+            if (observation.isPushed()) {
+                // Pushed positions are not scheduled, as they are observed every tick
+                state.pushed.add(partPos);
+                schedule.unschedule();
+            } else {
+                state.pushed.remove(partPos);
+                updateSchedule(channel, partPos, schedule, hasChanges, currentTick);
+            }
+
+            if (isBeingDiagnozed) {
+                addDuration(lastSecondDurations, partPos, observation.getDuration());
             }
         }
 
@@ -342,53 +535,511 @@ public class IngredientObserver<T, M> {
         List<PrioritizedPartPos> lastRemovedPositions = this.lastRemoved.get(channel);
         if (lastRemovedPositions != null) {
             for (PrioritizedPartPos partPos : lastRemovedPositions) {
+                markBaselineChanged(channel, partPos);
                 IngredientCollectionDiffManager<T, M> diffManager = diffManagers.get(partPos);
                 if (diffManager != null) {
                     // Emit event of diff with *empty* iterator
                     IngredientCollectionDiff<T, M> diff = diffManager.onChange(Iterators.forArray());
                     // No additions are possible
                     if (diff.hasDeletions()) {
-                        this.emitEvent(new IIngredientComponentStorageObservable.StorageChangeEvent<>(channel, partPos,
+                        events.add(new IIngredientComponentStorageObservable.StorageChangeEvent<>(channel, partPos,
                                 IIngredientComponentStorageObservable.Change.DELETION, diff.isCompletelyEmpty(), diff.getDeletions()));
                     }
                 }
             }
             this.lastRemoved.remove(channel);
         }
+    }
+
+    /**
+     * Update the change rate of the given polled position, and schedule its next observation accordingly.
+     * The change rate is an exponentially weighted moving average of whether or not observations detected changes,
+     * so that quickly changing storages will be observed more frequently than slowly changing storages.
+     * @param channel The channel.
+     * @param pos The position.
+     * @param schedule The schedule of the position.
+     * @param hasChanges If changes were detected in the last observation.
+     * @param currentTick The current tick.
+     */
+    protected void updateSchedule(int channel, PrioritizedPartPos pos, PositionSchedule schedule,
+                                  boolean hasChanges, int currentTick) {
+        double smoothing = Math.min(100, GeneralConfig.ingredientNetworkObserverChangeRateSmoothing) / 100D;
+        schedule.updateChangeRate(hasChanges, smoothing);
+        reschedule(channel, pos, schedule, currentTick + schedule.getInterval());
+    }
 
-        // Store our new ticking collections
-        if (!channelTargetTicks.isEmpty()) {
-            observeTargetTicks.put(channel, channelTargetTicks);
+    protected void reschedule(int channel, PrioritizedPartPos pos, PositionSchedule schedule, int dueTick) {
+        schedule.setDueTick(dueTick);
+        IngredientObserverScheduler.getInstance().schedule(this, channel, pos, schedule);
+    }
+
+    protected void addDuration(Map<PartPos, Long> lastSecondDurations, PrioritizedPartPos partPos, long duration) {
+        PartPos interfacePos = PartTarget.fromCenter(partPos.getPartPos()).getTarget();
+        Long lastDuration = lastSecondDurations.get(interfacePos);
+        if (lastDuration != null) {
+            duration = duration + lastDuration;
+        }
+        lastSecondDurations.put(interfacePos, duration);
+    }
+
+    /**
+     * Calculate the diffs of the given observations.
+     * If multithreading is enabled, and there are sufficient observations,
+     * these will be calculated in parallel in the worker pool.
+     * @param observations The observations to calculate.
+     */
+    protected void calculateDiffs(List<PositionObservation<T, M>> observations) {
+        if (GeneralConfig.ingredientNetworkObserverEnableMultithreading
+                && observations.size() >= GeneralConfig.ingredientNetworkObserverParallelThreshold) {
+            if (ForkJoinTask.getPool() == WORKER_POOL) {
+                // We are already running within an observation job, so we fork from there
+                ForkJoinTask.invokeAll(observations);
+            } else {
+                // The forced-sync path, which blocks until all diffs are calculated
+                WORKER_POOL.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        ForkJoinTask.invokeAll(observations);
+                    }
+                });
+            }
+        } else {
+            for (PositionObservation<T, M> observation : observations) {
+                observation.calculate();
+            }
         }
-        if (!channelIntervals.isEmpty()) {
-            observeTargetTickIntervals.put(channel, channelIntervals);
+    }
+
+    protected void markBaselineChanged(int channel, PrioritizedPartPos pos) {
+        Map<PrioritizedPartPos, ListNBT> channelBaselines = this.serializedBaselines.get(channel);
+        if (channelBaselines != null) {
+            channelBaselines.remove(pos);
         }
+        this.snapshotDirty = true;
     }
 
-    public void resetTickInterval(int channel, PartPos targetPos) {
-        // Reset the channel ticks
-        Map<PartPos, Integer> channelTicks = this.observeTargetTicks.get(channel);
-        if (channelTicks == null) {
-            channelTicks = Maps.newHashMap();
-            this.observeTargetTicks.put(channel, channelTicks);
+    /**
+     * @return The last snapshot of the observed contents of all positions, or null if no snapshot was made yet.
+     */
+    @Nullable
+    public CompoundNBT getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Create a new snapshot of the observed contents of all positions if needed.
+     * This is called at the end of each observation job, so that it runs off-thread if multithreading is enabled.
+     * Only positions of which the contents have changed since the last snapshot are serialized again.
+     */
+    protected void updateSnapshot() {
+        int interval = GeneralConfig.ingredientNetworkObserverSnapshotInterval;
+        if (interval <= 0 || !this.snapshotDirty) {
+            return;
+        }
+        int currentTick = getCurrentTick();
+        if (this.snapshot != null && currentTick - this.lastSnapshotTick < interval) {
+            return;
+        }
+        this.lastSnapshotTick = currentTick;
+        this.snapshotDirty = false;
+
+        ListNBT channelsTag = new ListNBT();
+        for (int channel : getNetwork().getChannels()) {
+            Map<PrioritizedPartPos, ListNBT> previousBaselines = this.serializedBaselines.get(channel);
+            Map<PrioritizedPartPos, ListNBT> channelBaselines = Maps.newHashMap();
+            Map<PrioritizedPartPos, IngredientCollectionDiffManager<T, M>> diffManagers = this.channeledDiffManagers.get(channel);
+            ListNBT positionsTag = new ListNBT();
+            for (PrioritizedPartPos pos : getPositionsCopy(channel)) {
+                ListNBT instancesTag = previousBaselines == null ? null : previousBaselines.get(pos);
+                if (instancesTag == null) {
+                    instancesTag = serializeBaseline(channel, pos, diffManagers);
+                }
+                if (instancesTag != null) {
+                    channelBaselines.put(pos, instancesTag);
+                    CompoundNBT positionTag = new CompoundNBT();
+                    positionTag.putString("dimension", pos.getPartPos().getPos().getWorld());
+                    positionTag.putLong("pos", pos.getPartPos().getPos().getBlockPos().toLong());
+                    positionTag.putInt("side", pos.getPartPos().getSide() == null ? -1 : pos.getPartPos().getSide().ordinal());
+                    positionTag.put("instances", instancesTag);
+                    positionsTag.add(positionTag);
+                }
+            }
+            this.serializedBaselines.put(channel, channelBaselines);
+            if (!positionsTag.isEmpty()) {
+                CompoundNBT channelTag = new CompoundNBT();
+                channelTag.putInt("channel", channel);
+                channelTag.put("positions", positionsTag);
+                channelsTag.add(channelTag);
+            }
+        }
+
+        CompoundNBT snapshot = new CompoundNBT();
+        snapshot.put("channels", channelsTag);
+        this.snapshot = snapshot;
+    }
+
+    @Nullable
+    protected ListNBT serializeBaseline(int channel, PrioritizedPartPos pos,
+                                        @Nullable Map<PrioritizedPartPos, IngredientCollectionDiffManager<T, M>> diffManagers) {
+        Iterator<T> contents;
+        IngredientStorageSubscription<T, M> subscription = this.subscriptions.get(Pair.of(channel, pos.getPartPos()));
+        if (subscription != null) {
+            contents = subscription.getBaseline().iterator();
+        } else {
+            IngredientCollectionDiffManager<T, M> diffManager = diffManagers == null ? null : diffManagers.get(pos);
+            if (diffManager == null) {
+                return null;
+            }
+            // Diff managers do not expose their state, so we take it out, and put it back afterwards.
+            IngredientCollectionDiff<T, M> diff = diffManager.onChange(Iterators.forArray());
+            if (!diff.hasDeletions()) {
+                return new ListNBT();
+            }
+            diffManager.onChange(diff.getDeletions().iterator());
+            contents = diff.getDeletions().iterator();
+        }
+
+        IIngredientSerializer<T, M> serializer = getNetwork().getComponent().getSerializer();
+        ListNBT instancesTag = new ListNBT();
+        while (contents.hasNext()) {
+            instancesTag.add(serializer.serializeInstance(contents.next()));
+        }
+        return instancesTag;
+    }
+
+    /**
+     * Restore the observed contents of all positions from the given snapshot.
+     * The restored contents are immediately emitted as additions,
+     * so that the index is available before all positions have been observed.
+     * The first observation of each restored position is spread out over the maximum observation interval,
+     * after which the position is diffed against its restored contents.
+     * Positions that are not present in the network anymore are ignored.
+     *
+     * This must be called on the main thread, before the first observation.
+     * @param tag A snapshot, as created by {@link #getSnapshot()}.
+     */
+    public void restoreSnapshot(CompoundNBT tag) {
+        IIngredientSerializer<T, M> serializer = getNetwork().getComponent().getSerializer();
+        int currentTick = getCurrentTick();
+        int delay = 0;
+        List<IIngredientComponentStorageObservable.StorageChangeEvent<T, M>> events = Lists.newArrayList();
+        ListNBT channelsTag = tag.getList("channels", Constants.NBT.TAG_COMPOUND);
+        for (int i = 0; i < channelsTag.size(); i++) {
+            CompoundNBT channelTag = channelsTag.getCompound(i);
+            int channel = channelTag.getInt("channel");
+
+            // Determine the positions that are still present
+            Map<String, PrioritizedPartPos> presentPositions = Maps.newHashMap();
+            for (PrioritizedPartPos pos : getNetwork().getPrioritizedPositions(channel)) {
+                presentPositions.put(getPositionKey(pos.getPartPos().getPos().getWorld(),
+                        pos.getPartPos().getPos().getBlockPos().toLong(),
+                        pos.getPartPos().getSide() == null ? -1 : pos.getPartPos().getSide().ordinal()), pos);
+            }
+
+            Map<PrioritizedPartPos, IngredientCollectionDiffManager<T, M>> diffManagers = this.channeledDiffManagers.get(channel);
+            if (diffManagers == null) {
+                diffManagers = Maps.newHashMap();
+                this.channeledDiffManagers.put(channel, diffManagers);
+            }
+            ChannelState state = getChannelState(channel);
+            Map<PrioritizedPartPos, ListNBT> channelBaselines = this.serializedBaselines.get(channel);
+            if (channelBaselines == null) {
+                channelBaselines = Maps.newHashMap();
+                this.serializedBaselines.put(channel, channelBaselines);
+            }
+
+            ListNBT positionsTag = channelTag.getList("positions", Constants.NBT.TAG_COMPOUND);
+            for (int j = 0; j < positionsTag.size(); j++) {
+                CompoundNBT positionTag = positionsTag.getCompound(j);
+                PrioritizedPartPos pos = presentPositions.get(getPositionKey(positionTag.getString("dimension"),
+                        positionTag.getLong("pos"), positionTag.getInt("side")));
+                if (pos == null || diffManagers.containsKey(pos)) {
+                    continue;
+                }
+
+                if (!(positionTag.get("instances") instanceof ListNBT)) {
+                    continue;
+                }
+                ListNBT instancesTag = (ListNBT) positionTag.get("instances");
+                IngredientCollectionPrototypeMap<T, M> contents = new IngredientCollectionPrototypeMap<>(getNetwork().getComponent(), false);
+                try {
+                    for (INBT instanceTag : instancesTag) {
+                        contents.add(serializer.deserializeInstance(instanceTag));
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Instances that can not be deserialized anymore will be observed again
+                    continue;
+                }
+
+                IngredientCollectionDiffManager<T, M> diffManager = new IngredientCollectionDiffManager<>(getNetwork().getComponent());
+                diffManager.onChange(contents.iterator());
+                diffManagers.put(pos, diffManager);
+                channelBaselines.put(pos, instancesTag);
+                reschedule(channel, pos, state.getSchedule(pos),
+                        currentTick + 1 + (delay++ % GeneralConfig.ingredientNetworkObserverFrequencyMax));
+                if (!contents.isEmpty()) {
+                    events.add(new IIngredientComponentStorageObservable.StorageChangeEvent<>(channel, pos,
+                            IIngredientComponentStorageObservable.Change.ADDITION, false, contents));
+                }
+            }
         }
-        channelTicks.put(targetPos, getCurrentTick() + GeneralConfig.ingredientNetworkObserverFrequencyForced);
 
+        if (!events.isEmpty()) {
+            notifyObservers(events);
+        }
+        this.snapshot = tag;
+    }
+
+    protected static String getPositionKey(String dimension, long pos, int side) {
+        return dimension + ":" + pos + ":" + side;
+    }
+
+    public void resetTickInterval(int channel, PartPos targetPos) {
         // Keep an overview of the pending positions per channel that require tick resets
         synchronized (this.pendingTickResets) {
-            Set<PartPos> pendingTickResetsChannel = this.pendingTickResets.get(channel);
+            Map<PartPos, Integer> pendingTickResetsChannel = this.pendingTickResets.get(channel);
             if (pendingTickResetsChannel == null) {
-                pendingTickResetsChannel = Sets.newHashSet();
+                pendingTickResetsChannel = Maps.newHashMap();
                 this.pendingTickResets.put(channel, pendingTickResetsChannel);
             }
-            pendingTickResetsChannel.add(targetPos);
+            pendingTickResetsChannel.put(targetPos, getCurrentTick() + GeneralConfig.ingredientNetworkObserverFrequencyForced);
+        }
+    }
+
+    /**
+     * Check if the last observed contents of the given position include all instances it currently contains.
+     * This is only the case for positions that notify all their changes, and that have no pending forced observation.
+     * All other positions may have received instances from outside the network since their last observation.
+     * @param channel The channel in which the position is observed.
+     * @param pos A position.
+     * @return If no instances are missing from the last observed contents.
+     */
+    public boolean hasObservedAllAdditions(int channel, PartPos pos) {
+        IngredientStorageSubscription<T, M> subscription = this.subscriptions.get(Pair.of(channel, pos));
+        if (subscription == null || !subscription.hasObservedAllAdditions()) {
+            return false;
+        }
+        synchronized (this.pendingTickResets) {
+            Map<PartPos, Integer> pendingTickResetsChannel = this.pendingTickResets.get(channel);
+            return pendingTickResetsChannel == null || !pendingTickResetsChannel.containsKey(pos);
         }
     }
 
+    /**
+     * @param channel The channel in which the position is observed.
+     * @param pos A position.
+     * @return If the storage at the given position notifies the given channel of its changes.
+     */
+    public boolean isSubscribed(int channel, PartPos pos) {
+        return this.subscriptions.containsKey(Pair.of(channel, pos));
+    }
+
+    /**
+     * Check if the given position may contain instances that match the given prototype.
+     * Only positions of which the storage notifies us of its changes are summarized,
+     * as all other positions may have received instances from outside the network since their last observation.
+     * @param channel The channel in which the position is observed.
+     * @param pos A position.
+     * @param prototype An instance prototype.
+     * @param matchFlags Match flags.
+     * @return If the position may contain matching instances.
+     */
+    public boolean mayContain(int channel, PartPos pos, T prototype, M matchFlags) {
+        IngredientStorageSubscription<T, M> subscription = this.subscriptions.get(Pair.of(channel, pos));
+        return subscription == null || !hasObservedAllAdditions(channel, pos) || subscription.mayContain(prototype, matchFlags);
+    }
+
     public boolean isTickResetPending(int channel) {
         synchronized (this.pendingTickResets) {
             return this.pendingTickResets.containsKey(channel);
         }
     }
 
+    /**
+     * The observation state of all positions in a channel.
+     * This is only accessed from within observation jobs, or before the first observation job.
+     */
+    protected static class ChannelState {
+
+        @Nullable
+        private Collection<PrioritizedPartPos> view = null;
+        private final Map<PartPos, PrioritizedPartPos> members = Maps.newHashMap();
+        private final Map<PrioritizedPartPos, PositionSchedule> schedules = Maps.newHashMap();
+        private final Set<PrioritizedPartPos> pushed = Sets.newHashSet();
+
+        /**
+         * Update the members of this channel if the positions view of the network has changed.
+         * Schedules of positions that are not present anymore are invalidated.
+         * @param view The current positions of the channel.
+         * @return The positions that have not been scheduled yet.
+         */
+        public Collection<PrioritizedPartPos> update(Collection<PrioritizedPartPos> view) {
+            // Network position views are replaced when positions change, so an identity check suffices
+            if (this.view == view) {
+                return Collections.emptyList();
+            }
+            this.view = view;
+            this.members.clear();
+            List<PrioritizedPartPos> newPositions = Lists.newArrayList();
+            for (PrioritizedPartPos pos : view) {
+                this.members.put(pos.getPartPos(), pos);
+                if (!this.schedules.containsKey(pos)) {
+                    newPositions.add(pos);
+                }
+            }
+            Iterator<Map.Entry<PrioritizedPartPos, PositionSchedule>> it = this.schedules.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<PrioritizedPartPos, PositionSchedule> entry = it.next();
+                if (!isMember(entry.getKey())) {
+                    entry.getValue().invalidate();
+                    this.pushed.remove(entry.getKey());
+                    it.remove();
+                }
+            }
+            return newPositions;
+        }
+
+        public boolean isMember(PrioritizedPartPos pos) {
+            return pos.equals(this.members.get(pos.getPartPos()));
+        }
+
+        @Nullable
+        public PrioritizedPartPos getMember(PartPos pos) {
+            return this.members.get(pos);
+        }
+
+        public PositionSchedule getSchedule(PrioritizedPartPos pos) {
+            PositionSchedule schedule = this.schedules.get(pos);
+            if (schedule == null) {
+                schedule = new PositionSchedule();
+                this.schedules.put(pos, schedule);
+            }
+            return schedule;
+        }
+
+        public void invalidate() {
+            for (PositionSchedule schedule : this.schedules.values()) {
+                schedule.invalidate();
+            }
+        }
+    }
+
+    /**
+     * The observation schedule of a single polled position.
+     */
+    public static class PositionSchedule {
+
+        private static final int UNSCHEDULED = -1;
+
+        private volatile int dueTick = UNSCHEDULED;
+        private volatile boolean valid = true;
+        private double changeRate = 0;
+
+        public int getDueTick() {
+            return dueTick;
+        }
+
+        public void setDueTick(int dueTick) {
+            this.dueTick = dueTick;
+        }
+
+        /**
+         * Make sure that pending scheduler entries of this position are ignored.
+         */
+        public void unschedule() {
+            this.dueTick = UNSCHEDULED;
+        }
+
+        public boolean isValid() {
+            return valid;
+        }
+
+        /**
+         * Permanently invalidate this schedule, for when its position is not observed anymore.
+         */
+        public void invalidate() {
+            this.valid = false;
+        }
+
+        /**
+         * @return The smoothed fraction of observations that detected changes, between 0 and 1.
+         */
+        public double getChangeRate() {
+            return changeRate;
+        }
+
+        public void updateChangeRate(boolean hasChanges, double smoothing) {
+            this.changeRate += smoothing * ((hasChanges ? 1 : 0) - this.changeRate);
+        }
+
+        /**
+         * @return The observation interval in ticks, which is interpolated between the minimal and maximal frequency.
+         */
+        public int getInterval() {
+            int min = GeneralConfig.ingredientNetworkObserverFrequencyMin;
+            int max = Math.max(min, GeneralConfig.ingredientNetworkObserverFrequencyMax);
+            return max - (int) Math.round((max - min) * this.changeRate);
+        }
+    }
+
+    /**
+     * The observation of a single position, of which the diff can be calculated independently of other positions.
+     * @param <T> The instance type.
+     * @param <M> The matching condition parameter.
+     */
+    protected static class PositionObservation<T, M> extends RecursiveAction {
+
+        private final IngredientObserver<T, M> observer;
+        private final PrioritizedPartPos pos;
+        @Nullable
+        private final IngredientStorageSubscription<T, M> subscription;
+        @Nullable
+        private final IngredientCollectionDiffManager<T, M> diffManager;
+        private IngredientCollectionDiff<T, M> diff;
+        private long duration;
+
+        public PositionObservation(IngredientObserver<T, M> observer, PrioritizedPartPos pos,
+                                   @Nullable IngredientStorageSubscription<T, M> subscription,
+                                   @Nullable IngredientCollectionDiffManager<T, M> diffManager) {
+            this.observer = observer;
+            this.pos = pos;
+            this.subscription = subscription;
+            this.diffManager = diffManager;
+        }
+
+        public PrioritizedPartPos getPos() {
+            return pos;
+        }
+
+        public boolean isPushed() {
+            return subscription != null;
+        }
+
+        public IngredientCollectionDiff<T, M> getDiff() {
+            return diff;
+        }
+
+        /**
+         * @return The duration of the diff calculation in nanoseconds.
+         */
+        public long getDuration() {
+            return duration;
+        }
+
+        @Override
+        protected void compute() {
+            calculate();
+        }
+
+        public void calculate() {
+            long startTime = System.nanoTime();
+            if (subscription != null) {
+                diff = subscription.observe(observer.getNetwork(), pos.getPartPos());
+            } else {
+                diff = diffManager.onChange(observer.getNetwork().getRawInstances(pos.getPartPos()));
+            }
+            duration = System.nanoTime() - startTime;
+        }
+    }
+
 }
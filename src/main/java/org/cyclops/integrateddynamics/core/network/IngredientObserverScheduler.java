@@ -0,0 +1,106 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import org.cyclops.integrateddynamics.GeneralConfig;
+import org.cyclops.integrateddynamics.api.part.PrioritizedPartPos;
+
+import java.util.PriorityQueue;
+
+/**
+ * A server-wide scheduler that determines when the positions of all ingredient observers must be observed.
+ *
+ * Scheduled positions are kept in a single min-heap by their due tick.
+ * Each server tick, due positions are handed to their observer, limited by a global observation budget.
+ * Positions that do not fit in the budget of a tick remain in the heap,
+ * and will be handed out first in the next tick, as they have the earliest due ticks.
+ *
+ * @author rubensworks
+ */
+public class IngredientObserverScheduler {
+
+    private static final IngredientObserverScheduler INSTANCE = new IngredientObserverScheduler();
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+
+    private IngredientObserverScheduler() {
+
+    }
+
+    public static IngredientObserverScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Schedule the given position for observation at the due tick of its schedule.
+     * @param observer The observer of the position.
+     * @param channel The channel in which the position is observed.
+     * @param pos The position.
+     * @param schedule The schedule of the position.
+     */
+    public synchronized void schedule(IngredientObserver<?, ?> observer, int channel, PrioritizedPartPos pos,
+                                      IngredientObserver.PositionSchedule schedule) {
+        queue.add(new Entry(schedule.getDueTick(), observer, channel, pos, schedule));
+    }
+
+    /**
+     * Hand out all positions that are due in the given tick to their observers, within the observation budget.
+     * This should be called once per server tick, before networks are updated.
+     * @param currentTick The current tick.
+     */
+    public synchronized void onTick(int currentTick) {
+        int budget = GeneralConfig.ingredientNetworkObserverBudget;
+        int handed = 0;
+        while (!queue.isEmpty() && queue.peek().dueTick <= currentTick) {
+            if (budget > 0 && handed >= budget) {
+                break;
+            }
+            Entry entry = queue.poll();
+            // Entries become stale when their position was rescheduled or removed
+            if (entry.isValid()) {
+                entry.observer.markDue(entry.channel, entry.pos);
+                handed++;
+            }
+        }
+    }
+
+    /**
+     * @return The number of scheduled entries, including stale ones.
+     */
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    /**
+     * Remove all scheduled entries.
+     */
+    public synchronized void clear() {
+        queue.clear();
+    }
+
+    protected static class Entry implements Comparable<Entry> {
+
+        private final int dueTick;
+        private final IngredientObserver<?, ?> observer;
+        private final int channel;
+        private final PrioritizedPartPos pos;
+        private final IngredientObserver.PositionSchedule schedule;
+
+        public Entry(int dueTick, IngredientObserver<?, ?> observer, int channel, PrioritizedPartPos pos,
+                     IngredientObserver.PositionSchedule schedule) {
+            this.dueTick = dueTick;
+            this.observer = observer;
+            this.channel = channel;
+            this.pos = pos;
+            this.schedule = schedule;
+        }
+
+        public boolean isValid() {
+            return schedule.isValid() && schedule.getDueTick() == dueTick;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            return Integer.compare(this.dueTick, o.dueTick);
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import org.cyclops.commoncapabilities.api.ingredient.IIngredientMatcher;
+import org.cyclops.commoncapabilities.api.ingredient.IngredientComponent;
+import org.cyclops.commoncapabilities.api.ingredient.IngredientComponentCategoryType;
+import org.cyclops.cyclopscore.ingredient.collection.IIngredientCollection;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A compact summary of the contents of a single position,
+ * which can tell if a position can definitely not contain instances that match a given prototype.
+ *
+ * For each category type of the ingredient component (except for its primary quantifier),
+ * the quantities of all contained instances are counted in buckets by the hash of their category value.
+ * As such, a prototype can only match if all buckets of the categories that are included in its match flags are non-zero.
+ * Different category values may end up in the same bucket, so this may produce false positives, but never false negatives.
+ *
+ * @param <T> The instance type.
+ * @param <M> The matching condition parameter.
+ * @author rubensworks
+ */
+public class IngredientPositionSummary<T, M> {
+
+    private static final int BUCKETS = 256;
+
+    private final IngredientComponent<T, M> component;
+    private final IngredientComponentCategoryType<T, M, ?>[] categoryTypes;
+    private final long[][] counts;
+
+    public IngredientPositionSummary(IngredientComponent<T, M> component) {
+        this.component = component;
+        this.categoryTypes = getSummarizableCategoryTypes(component);
+        this.counts = new long[this.categoryTypes.length][BUCKETS];
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static <T, M> IngredientComponentCategoryType<T, M, ?>[] getSummarizableCategoryTypes(IngredientComponent<T, M> component) {
+        // The quantities in diffs are relative, so the primary quantifier can not be summarized.
+        IngredientComponentCategoryType<T, M, ?> primaryQuantifier = component.getPrimaryQuantifier();
+        List<IngredientComponentCategoryType<T, M, ?>> categoryTypes = component.getCategoryTypes();
+        return categoryTypes.stream()
+                .filter(categoryType -> primaryQuantifier == null
+                        || !Objects.equals(categoryType.getMatchCondition(), primaryQuantifier.getMatchCondition()))
+                .toArray(IngredientComponentCategoryType[]::new);
+    }
+
+    protected int getBucket(IngredientComponentCategoryType<T, M, ?> categoryType, T instance) {
+        return HashCommon.mix(Objects.hashCode(categoryType.getClassifier().apply(instance))) & (BUCKETS - 1);
+    }
+
+    protected void apply(IIngredientCollection<T, M> instances, boolean addition) {
+        if (categoryTypes.length == 0) {
+            return;
+        }
+        IIngredientMatcher<T, M> matcher = component.getMatcher();
+        Iterator<T> it = instances.iterator();
+        while (it.hasNext()) {
+            T instance = it.next();
+            long quantity = matcher.getQuantity(instance);
+            for (int i = 0; i < categoryTypes.length; i++) {
+                int bucket = getBucket(categoryTypes[i], instance);
+                counts[i][bucket] = Math.max(0, counts[i][bucket] + (addition ? quantity : -quantity));
+            }
+        }
+    }
+
+    /**
+     * Register the given instances as added.
+     * @param instances Added instances.
+     */
+    public void add(IIngredientCollection<T, M> instances) {
+        apply(instances, true);
+    }
+
+    /**
+     * Register the given instances as removed.
+     * @param instances Removed instances.
+     */
+    public void remove(IIngredientCollection<T, M> instances) {
+        apply(instances, false);
+    }
+
+    /**
+     * Check if this position may contain instances that match the given prototype.
+     * @param prototype An instance prototype.
+     * @param matchFlags Match flags.
+     * @return If the position may contain a match, false if it definitely does not contain a match.
+     */
+    public boolean mayContain(T prototype, M matchFlags) {
+        IIngredientMatcher<T, M> matcher = component.getMatcher();
+        for (int i = 0; i < categoryTypes.length; i++) {
+            if (matcher.hasCondition(matchFlags, categoryTypes[i].getMatchCondition())
+                    && counts[i][getBucket(categoryTypes[i], prototype)] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
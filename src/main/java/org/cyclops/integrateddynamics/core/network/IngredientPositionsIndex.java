@@ -1,8 +1,11 @@
 package org.cyclops.integrateddynamics.core.network;
 
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import org.cyclops.commoncapabilities.api.ingredient.IngredientComponent;
-import org.cyclops.cyclopscore.datastructure.DistinctIterator;
 import org.cyclops.cyclopscore.ingredient.collection.IIngredientMapMutable;
 import org.cyclops.cyclopscore.ingredient.collection.IngredientCollectionMutableWrapper;
 import org.cyclops.cyclopscore.ingredient.collection.IngredientCollectionPrototypeMap;
@@ -11,12 +14,20 @@ import org.cyclops.integrateddynamics.api.ingredient.IIngredientPositionsIndex;
 import org.cyclops.integrateddynamics.api.part.PartPos;
 import org.cyclops.integrateddynamics.api.part.PrioritizedPartPos;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.TreeSet;
 
 /**
  * An index that maps ingredients to positions that contain that instance.
+ *
+ * Positions are interned to dense integer ids,
+ * so that the positions of each prototype can be stored as a bitset over these ids.
+ * The positions of multiple matching prototypes are merged by OR-ing their bitsets,
+ * after which they are returned in priority order.
+ *
  * @param <T> An instance type.
  * @param <M> The matching condition parameter.
  * @author rubensworks
@@ -24,11 +35,26 @@ import java.util.TreeSet;
 public class IngredientPositionsIndex<T, M> extends IngredientCollectionMutableWrapper<T, M, IngredientCollectionPrototypeMap<T, M>>
         implements IIngredientPositionsIndex<T, M> {
 
-    private final IIngredientMapMutable<T, M, TreeSet<PrioritizedPartPos>> positionsMap;
+    private static final PartPos[] NO_POSITIONS = new PartPos[0];
+
+    private final IIngredientMapMutable<T, M, BitSet> positionsMap;
+
+    private final TreeSet<PrioritizedPartPos> sortedPositions = Sets.newTreeSet();
+    private final Object2IntMap<PrioritizedPartPos> positionIds = new Object2IntOpenHashMap<>();
+    private final IntArrayList freeIds = new IntArrayList();
+    private int idCounter = 0;
+    // The number of prototypes that contain each position, indexed by position id
+    private int[] referenceCounts = new int[16];
+    // The priority rank of each position, indexed by position id
+    private int[] ranks = new int[16];
+    // All positions, indexed by rank
+    private PartPos[] rankedPositions = NO_POSITIONS;
+    private boolean ranksDirty = false;
 
     public IngredientPositionsIndex(IngredientComponent<T, M> component) {
         super(new IngredientCollectionPrototypeMap<>(component, false));
         this.positionsMap = new IngredientHashMap<>(component);
+        this.positionIds.defaultReturnValue(-1);
     }
 
     protected T getPrototype(T instance) {
@@ -37,41 +63,112 @@ public class IngredientPositionsIndex<T, M> extends IngredientCollectionMutableW
 
     @Override
     public Iterator<PartPos> getNonEmptyPositions() {
-        return getPositions(getComponent().getMatcher().getEmptyInstance(), getComponent().getMatcher().getAnyMatchCondition());
+        // All interned positions contain at least one instance
+        updateRanks();
+        return Iterators.forArray(rankedPositions);
     }
 
     @Override
     public Iterator<PartPos> getPositions(T instance, M matchFlags) {
-        return new DistinctIterator<>(this.positionsMap.getAll(getPrototype(instance), matchFlags)
-                .stream()
-                .flatMap(Collection::stream)
-                .map(PrioritizedPartPos::getPartPos)
-                .iterator());
+        Collection<BitSet> matches = this.positionsMap.getAll(getPrototype(instance), matchFlags);
+        if (matches.isEmpty()) {
+            return Iterators.forArray(NO_POSITIONS);
+        }
+
+        // Merge the positions of all matching prototypes
+        BitSet ids = null;
+        for (BitSet match : matches) {
+            if (ids == null) {
+                ids = (BitSet) match.clone();
+            } else {
+                ids.or(match);
+            }
+        }
+
+        // Order the positions by priority
+        updateRanks();
+        int[] positionRanks = new int[ids.cardinality()];
+        int i = 0;
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            positionRanks[i++] = ranks[id];
+        }
+        Arrays.sort(positionRanks);
+        PartPos[] positions = new PartPos[positionRanks.length];
+        for (i = 0; i < positionRanks.length; i++) {
+            positions[i] = rankedPositions[positionRanks[i]];
+        }
+        return Iterators.forArray(positions);
     }
 
     @Override
     public void addPosition(T instance, PrioritizedPartPos pos) {
         T prototype = getPrototype(instance);
-        TreeSet<PrioritizedPartPos> set = this.positionsMap.get(prototype);
+        BitSet set = this.positionsMap.get(prototype);
         if (set == null) {
-            set = Sets.newTreeSet();
+            set = new BitSet();
             this.positionsMap.put(prototype, set);
         }
-        set.add(pos);
+        int id = getOrCreatePositionId(pos);
+        if (!set.get(id)) {
+            set.set(id);
+            referenceCounts[id]++;
+        }
     }
 
     @Override
     public void removePosition(T instance, PrioritizedPartPos pos) {
         T prototype = getPrototype(instance);
-        TreeSet<PrioritizedPartPos> set = this.positionsMap.get(prototype);
+        BitSet set = this.positionsMap.get(prototype);
         if (set != null) {
-            set.remove(pos);
+            int id = this.positionIds.getInt(pos);
+            if (id >= 0 && set.get(id)) {
+                set.clear(id);
+                if (--referenceCounts[id] == 0) {
+                    releasePositionId(pos, id);
+                }
+            }
             if (set.isEmpty()) {
                 this.positionsMap.remove(prototype);
             }
         }
     }
 
+    protected int getOrCreatePositionId(PrioritizedPartPos pos) {
+        int id = this.positionIds.getInt(pos);
+        if (id < 0) {
+            id = freeIds.isEmpty() ? idCounter++ : freeIds.popInt();
+            if (id >= referenceCounts.length) {
+                int capacity = Math.max(referenceCounts.length * 2, id + 1);
+                referenceCounts = Arrays.copyOf(referenceCounts, capacity);
+                ranks = Arrays.copyOf(ranks, capacity);
+            }
+            this.positionIds.put(pos, id);
+            this.sortedPositions.add(pos);
+            this.ranksDirty = true;
+        }
+        return id;
+    }
+
+    protected void releasePositionId(PrioritizedPartPos pos, int id) {
+        this.positionIds.removeInt(pos);
+        this.sortedPositions.remove(pos);
+        this.freeIds.add(id);
+        this.ranksDirty = true;
+    }
+
+    protected void updateRanks() {
+        if (ranksDirty) {
+            PartPos[] rankedPositions = new PartPos[sortedPositions.size()];
+            int rank = 0;
+            for (PrioritizedPartPos pos : sortedPositions) {
+                ranks[positionIds.getInt(pos)] = rank;
+                rankedPositions[rank++] = pos.getPartPos();
+            }
+            this.rankedPositions = rankedPositions;
+            ranksDirty = false;
+        }
+    }
+
     @Override
     public long getQuantity(T instance) {
         return getInnerCollection().getQuantity(instance);
@@ -0,0 +1,258 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import org.cyclops.commoncapabilities.api.ingredient.IIngredientMatcher;
+import org.cyclops.commoncapabilities.api.ingredient.IngredientComponent;
+import org.cyclops.cyclopscore.ingredient.collection.IIngredientCollection;
+import org.cyclops.cyclopscore.ingredient.collection.IngredientCollectionPrototypeMap;
+import org.cyclops.cyclopscore.ingredient.collection.diff.IngredientCollectionDiff;
+import org.cyclops.cyclopscore.ingredient.collection.diff.IngredientCollectionDiffManager;
+import org.cyclops.integrateddynamics.api.ingredient.capability.IIngredientComponentStorageNotifier;
+import org.cyclops.integrateddynamics.api.network.IPositionedAddonsNetworkIngredients;
+import org.cyclops.integrateddynamics.api.network.PositionedAddonsNetworkIngredientsFilter;
+import org.cyclops.integrateddynamics.api.part.PartPos;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+
+/**
+ * A subscription to the change notifications of a single storage position.
+ *
+ * Notified changes are accumulated until the next observation,
+ * where additions and removals of the same instance cancel each other out.
+ * The last observed contents of the position are kept as baseline,
+ * so that the observer can fall back to full diffs at any time.
+ * A summary of the baseline is kept as well, so that the network can skip this position
+ * when it can not contain the requested instances.
+ *
+ * @param <T> The instance type.
+ * @param <M> The matching condition parameter.
+ * @author rubensworks
+ */
+public class IngredientStorageSubscription<T, M> implements IIngredientComponentStorageNotifier.IListener<T, M> {
+
+    private final IngredientComponent<T, M> component;
+    private final IIngredientComponentStorageNotifier notifier;
+    private final IngredientCollectionPrototypeMap<T, M> baseline;
+    private final IngredientPositionSummary<T, M> summary;
+
+    private IngredientCollectionPrototypeMap<T, M> pendingAdditions;
+    private IngredientCollectionPrototypeMap<T, M> pendingDeletions;
+    private boolean invalidated = true;
+    private boolean resyncing = false;
+
+    public IngredientStorageSubscription(IngredientComponent<T, M> component, IIngredientComponentStorageNotifier notifier) {
+        this.component = component;
+        this.notifier = notifier;
+        this.baseline = new IngredientCollectionPrototypeMap<>(component, false);
+        this.summary = new IngredientPositionSummary<>(component);
+        this.pendingAdditions = new IngredientCollectionPrototypeMap<>(component, false);
+        this.pendingDeletions = new IngredientCollectionPrototypeMap<>(component, false);
+    }
+
+    /**
+     * Create a new subscription and register it to the given notifier.
+     * @param component The ingredient component.
+     * @param notifier A storage notifier.
+     * @param previousDiffManager The diff manager that was used for the position until now, or null.
+     * @param <T> The instance type.
+     * @param <M> The matching condition parameter.
+     * @return The subscription, or null if the notifier does not support the given component.
+     */
+    @Nullable
+    public static <T, M> IngredientStorageSubscription<T, M> subscribe(IngredientComponent<T, M> component,
+                                                                       IIngredientComponentStorageNotifier notifier,
+                                                                       @Nullable IngredientCollectionDiffManager<T, M> previousDiffManager) {
+        IngredientStorageSubscription<T, M> subscription = new IngredientStorageSubscription<>(component, notifier);
+        if (!notifier.addListener(component, subscription)) {
+            return null;
+        }
+        // Take over the last observed contents, so that only actual changes will be emitted.
+        // Diffing against an empty collection is the only way to obtain them from a diff manager.
+        if (previousDiffManager != null) {
+            IngredientCollectionDiff<T, M> diff = previousDiffManager.onChange(new IngredientCollectionPrototypeMap<>(component, false).iterator());
+            if (diff.hasDeletions()) {
+                subscription.addToBaseline(diff.getDeletions());
+            }
+        }
+        return subscription;
+    }
+
+    public IIngredientComponentStorageNotifier getNotifier() {
+        return notifier;
+    }
+
+    /**
+     * Stop listening to changes.
+     */
+    public void unsubscribe() {
+        notifier.removeListener(component, this);
+    }
+
+    /**
+     * @return A new diff manager that has the last observed contents of this subscription as its state.
+     */
+    public IngredientCollectionDiffManager<T, M> toDiffManager() {
+        IngredientCollectionDiffManager<T, M> diffManager = new IngredientCollectionDiffManager<>(component);
+        synchronized (this) {
+            diffManager.onChange(baseline.iterator());
+        }
+        return diffManager;
+    }
+
+    /**
+     * @return The last observed contents. This must not be modified.
+     */
+    public IngredientCollectionPrototypeMap<T, M> getBaseline() {
+        return baseline;
+    }
+
+    @Override
+    public synchronized void onAdded(T instance) {
+        if (resyncing) {
+            invalidated = true;
+        } else if (!invalidated) {
+            accumulate(instance, pendingAdditions, pendingDeletions);
+        }
+    }
+
+    @Override
+    public synchronized void onRemoved(T instance) {
+        if (resyncing) {
+            invalidated = true;
+        } else if (!invalidated) {
+            accumulate(instance, pendingDeletions, pendingAdditions);
+        }
+    }
+
+    @Override
+    public synchronized void onInvalidated() {
+        invalidated = true;
+    }
+
+    protected void accumulate(T instance, IngredientCollectionPrototypeMap<T, M> target,
+                              IngredientCollectionPrototypeMap<T, M> opposite) {
+        IIngredientMatcher<T, M> matcher = component.getMatcher();
+        long quantity = matcher.getQuantity(instance);
+        if (quantity <= 0) {
+            return;
+        }
+        // Changes in opposite directions cancel each other out
+        long oppositeQuantity = opposite.getQuantity(instance);
+        if (oppositeQuantity > 0) {
+            long cancelled = Math.min(quantity, oppositeQuantity);
+            opposite.remove(matcher.withQuantity(instance, cancelled));
+            quantity -= cancelled;
+        }
+        if (quantity > 0) {
+            target.add(matcher.withQuantity(instance, quantity));
+        }
+    }
+
+    /**
+     * Take all changes since the last observation.
+     * If the subscription was invalidated, the full position contents are diffed against the baseline instead.
+     * @param network The ingredient network.
+     * @param pos The storage position.
+     * @return The diff since the last observation.
+     */
+    public IngredientCollectionDiff<T, M> observe(IPositionedAddonsNetworkIngredients<T, M> network, PartPos pos) {
+        IngredientCollectionPrototypeMap<T, M> additions;
+        IngredientCollectionPrototypeMap<T, M> deletions;
+        boolean resync;
+        synchronized (this) {
+            if (!invalidated && pendingAdditions.isEmpty() && pendingDeletions.isEmpty()) {
+                return new IngredientCollectionDiff<>(null, null, false);
+            }
+            resync = invalidated;
+            additions = pendingAdditions;
+            deletions = pendingDeletions;
+            pendingAdditions = new IngredientCollectionPrototypeMap<>(component, false);
+            pendingDeletions = new IngredientCollectionPrototypeMap<>(component, false);
+            invalidated = false;
+            resyncing = resync;
+        }
+
+        if (resync) {
+            // Changes that are notified while reading the contents may or may not be included,
+            // so we resync again in the next observation if that happens.
+            IngredientCollectionDiffManager<T, M> diffManager = new IngredientCollectionDiffManager<>(component);
+            diffManager.onChange(baseline.iterator());
+            IngredientCollectionDiff<T, M> diff = diffManager.onChange(network.getRawInstances(pos));
+            synchronized (this) {
+                resyncing = false;
+                if (diff.hasAdditions()) {
+                    addToBaseline(diff.getAdditions());
+                }
+                if (diff.hasDeletions()) {
+                    removeFromBaseline(diff.getDeletions());
+                }
+            }
+            return diff;
+        }
+
+        // Notifications bypass our position filters, so we filter them here
+        PositionedAddonsNetworkIngredientsFilter<T> filter = network.getPositionedStorageFilter(pos);
+        if (filter != null) {
+            additions = filtered(additions, filter);
+            deletions = filtered(deletions, filter);
+        }
+        synchronized (this) {
+            addToBaseline(additions);
+            removeFromBaseline(deletions);
+            return new IngredientCollectionDiff<>(
+                    additions.isEmpty() ? null : additions,
+                    deletions.isEmpty() ? null : deletions,
+                    !deletions.isEmpty() && baseline.isEmpty());
+        }
+    }
+
+    protected IngredientCollectionPrototypeMap<T, M> filtered(IngredientCollectionPrototypeMap<T, M> instances,
+                                                            PositionedAddonsNetworkIngredientsFilter<T> filter) {
+        IngredientCollectionPrototypeMap<T, M> filtered = new IngredientCollectionPrototypeMap<>(component, false);
+        Iterator<T> it = instances.iterator();
+        while (it.hasNext()) {
+            T instance = it.next();
+            if (filter.testView(instance)) {
+                filtered.add(instance);
+            }
+        }
+        return filtered;
+    }
+
+    protected void addToBaseline(IIngredientCollection<T, M> instances) {
+        baseline.addAll(instances);
+        summary.add(instances);
+    }
+
+    protected void removeFromBaseline(IIngredientCollection<T, M> instances) {
+        baseline.removeAll(instances);
+        summary.remove(instances);
+    }
+
+    /**
+     * Check if the last observed contents may contain instances that match the given prototype.
+     * @param prototype An instance prototype.
+     * @param matchFlags Match flags.
+     * @return If the last observed contents may contain a match, false if they definitely do not contain a match.
+     */
+    public synchronized boolean mayContain(T prototype, M matchFlags) {
+        return summary.mayContain(prototype, matchFlags);
+    }
+
+    /**
+     * @return If all additions to the storage have been taken by an observation,
+     *         so that the last observed contents are not missing any instances.
+     */
+    public synchronized boolean hasObservedAllAdditions() {
+        return !invalidated && !resyncing && pendingAdditions.isEmpty();
+    }
+
+    /**
+     * Indicate that the full contents must be observed again in the next observation,
+     * for example because the position filter has changed.
+     */
+    public synchronized void invalidate() {
+        invalidated = true;
+    }
+
+}
@@ -3,9 +3,12 @@ package org.cyclops.integrateddynamics.core.network;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.capabilities.Capability;
@@ -20,6 +23,7 @@ import org.cyclops.integrateddynamics.api.network.AttachCapabilitiesEventNetwork
 import org.cyclops.integrateddynamics.api.network.IEventListenableNetworkElement;
 import org.cyclops.integrateddynamics.api.network.IFullNetworkListener;
 import org.cyclops.integrateddynamics.api.network.INetwork;
+import org.cyclops.integrateddynamics.api.network.INetworkCarrier;
 import org.cyclops.integrateddynamics.api.network.INetworkElement;
 import org.cyclops.integrateddynamics.api.network.INetworkElementProvider;
 import org.cyclops.integrateddynamics.api.network.event.INetworkEvent;
@@ -37,12 +41,13 @@ import org.cyclops.integrateddynamics.core.path.Cluster;
 import org.cyclops.integrateddynamics.core.path.PathFinder;
 import org.cyclops.integrateddynamics.core.persist.world.NetworkWorldStorage;
 
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.TreeSet;
 
 /**
  * A network instance that can hold a set of {@link INetworkElement}s.
@@ -54,15 +59,23 @@ public class Network implements INetwork {
     private Cluster baseCluster;
 
     private final INetworkEventBus eventBus = new NetworkEventBus();
-    private final TreeSet<INetworkElement> elements = Sets.newTreeSet();
-    private TreeSet<INetworkElement> updateableElements = null;
-    private TreeMap<INetworkElement, Integer> updateableElementsTicks = null;
-    private TreeSet<INetworkElement> invalidatedElements = Sets.newTreeSet();
-    private Map<INetworkElement, Long> lastSecondDurations = Maps.newHashMap();
+    private final NetworkElementIndex elements = new NetworkElementIndex();
+    private final BitSet updateableElements = new BitSet();
+    private NetworkElementUpdateQueue updateQueue = null;
+    private final BitSet invalidatedElements = new BitSet();
+    private int invalidatedUpdateableElements = 0;
+    private volatile boolean dormant = false;
+    private long[] lastSecondDurations = new long[16];
+    private boolean hasLastSecondDurations = false;
+    private int threadUnsafeUpdateableElements = 0;
+    private int threadUnsafeEventListeners = 0;
+    private long deferredUpdates = 0;
+    private long deferredUpdateDelay = 0;
 
     private final CapabilityDispatcher capabilityDispatcher;
     private IFullNetworkListener[] fullNetworkListeners;
 
+    private Set<String> dimensions = null;
     private CompoundNBT toRead = null;
     private volatile boolean changed = false;
     private volatile boolean killed = false;
@@ -80,6 +93,113 @@ public class Network implements INetwork {
         return network;
     }
 
+    /**
+     * Initiate a full network for the given cluster.
+     * @param cluster The cluster of path elements.
+     * @return The newly formed network.
+     */
+    public static Network initiateNetworkSetup(Cluster cluster) {
+        Network network = new Network(cluster);
+        NetworkWorldStorage.getInstance(IntegratedDynamics._instance).addNewNetwork(network);
+        return network;
+    }
+
+    /**
+     * Let the given newly added path element join the networks of its neighbours.
+     * If it connects multiple networks, the largest network absorbs all others,
+     * so that only the path elements of the smaller networks need to be moved.
+     * The elements in the absorbing network keep their existing state.
+     *
+     * If no neighbouring network exists, or if they can not be joined incrementally,
+     * a new network will be initiated from the given path element.
+     *
+     * @param sidedPathElement The sided path element that was added.
+     * @return The initialized network the path element is now part of.
+     */
+    public static Network joinNetworkSetup(ISidedPathElement sidedPathElement) {
+        Set<Network> neighbourNetworks = Sets.newIdentityHashSet();
+        boolean joinable = true;
+        // The path element may already be part of a network, for example when joining is called multiple times.
+        INetwork currentNetwork = getCarriedNetwork(sidedPathElement);
+        if (currentNetwork != null) {
+            if (currentNetwork instanceof Network && ((Network) currentNetwork).canJoin()
+                    && currentNetwork.containsSidedPathElement(sidedPathElement)) {
+                neighbourNetworks.add((Network) currentNetwork);
+            } else {
+                joinable = false;
+            }
+        }
+        for (ISidedPathElement neighbour : sidedPathElement.getPathElement().getReachableElements()) {
+            INetwork neighbourNetwork = getCarriedNetwork(neighbour);
+            if (neighbourNetwork instanceof Network && ((Network) neighbourNetwork).canJoin()) {
+                neighbourNetworks.add((Network) neighbourNetwork);
+            } else {
+                joinable = false;
+            }
+        }
+
+        if (!joinable || neighbourNetworks.isEmpty()) {
+            Network network = initiateNetworkSetup(sidedPathElement);
+            network.initialize();
+            return network;
+        }
+
+        Network network = null;
+        for (Network neighbourNetwork : neighbourNetworks) {
+            if (network == null || neighbourNetwork.getCablesCount() > network.getCablesCount()) {
+                network = neighbourNetwork;
+            }
+        }
+        for (Network neighbourNetwork : neighbourNetworks) {
+            if (neighbourNetwork != network) {
+                network.absorb(neighbourNetwork);
+            }
+        }
+        if (!network.containsSidedPathElement(sidedPathElement)) {
+            network.join(sidedPathElement);
+        }
+        return network;
+    }
+
+    /**
+     * Split the network(s) around a removed path element where needed.
+     * Only the parts that have become disconnected from their network are traversed and moved into a new network,
+     * the remaining part keeps its network instance and elements.
+     *
+     * Neighbours without a network, or with a network that can not be split incrementally,
+     * will have a new network initiated from them.
+     *
+     * @param neighbours The sided path elements that neighboured the removed path element.
+     */
+    public static void splitNetworkSetup(Collection<ISidedPathElement> neighbours) {
+        Map<Network, List<ISidedPathElement>> networkNeighbours = Maps.newIdentityHashMap();
+        for (ISidedPathElement neighbour : neighbours) {
+            INetwork network = getCarriedNetwork(neighbour);
+            if (network instanceof Network && ((Network) network).canJoin()) {
+                networkNeighbours.computeIfAbsent((Network) network, n -> Lists.newArrayList()).add(neighbour);
+            } else {
+                initiateNetworkSetup(neighbour).initialize();
+            }
+        }
+
+        // A network can only have become disconnected if the removed path element had multiple neighbours in it.
+        for (List<ISidedPathElement> heads : networkNeighbours.values()) {
+            if (heads.size() > 1) {
+                for (Cluster cluster : PathFinder.getDisconnectedClusters(heads)) {
+                    initiateNetworkSetup(cluster).initialize();
+                }
+            }
+        }
+    }
+
+    @Nullable
+    protected static INetwork getCarriedNetwork(ISidedPathElement sidedPathElement) {
+        DimPos position = sidedPathElement.getPathElement().getPosition();
+        return TileHelpers.getCapability(position, sidedPathElement.getSide(), NetworkCarrierConfig.CAPABILITY)
+                .map(INetworkCarrier::getNetwork)
+                .orElse(null);
+    }
+
     /**
      * Check if two networks are equal.
      * @param networkA A network.
@@ -87,7 +207,8 @@ public class Network implements INetwork {
      * @return If they are equal.
      */
     public static boolean areNetworksEqual(Network networkA, Network networkB) {
-        return networkA.elements.containsAll(networkB.elements) && networkA.elements.size() == networkB.elements.size();
+        return networkA.elements.getSortedElements().containsAll(networkB.elements.getSortedElements())
+                && networkA.elements.size() == networkB.elements.size();
     }
 
     /**
@@ -136,32 +257,85 @@ public class Network implements INetwork {
     private void deriveNetworkElements(Cluster pathElements) {
         if(!killIfEmpty()) {
             for (ISidedPathElement sidedPathElement : pathElements) {
-                World world = sidedPathElement.getPathElement().getPosition().getWorld(true);
-                BlockPos pos = sidedPathElement.getPathElement().getPosition().getBlockPos();
-                Direction side = sidedPathElement.getSide();
-                TileHelpers.getCapability(world, pos, side, NetworkCarrierConfig.CAPABILITY).ifPresent(networkCarrier -> {
-                    // Correctly remove any previously saved network in this carrier
-                    // and set the new network to this.
-                    INetwork network = networkCarrier.getNetwork();
-                    if (network != null) {
-                        network.removePathElement(sidedPathElement.getPathElement(), side);
-                    }
-                    networkCarrier.setNetwork(null);
-                    networkCarrier.setNetwork(this);
-                });
-                TileHelpers.getCapability(world, pos, side, NetworkElementProviderConfig.CAPABILITY).ifPresent(networkElementProvider -> {
-                    for(INetworkElement element : networkElementProvider.createNetworkElements(world, pos)) {
-                        addNetworkElement(element, true);
-                    }
-                });
+                deriveNetworkElements(sidedPathElement, true);
             }
             onNetworkChanged();
         }
     }
 
+    /**
+     * Move the given path element from its current network into this network,
+     * and add all network elements it provides.
+     * @param sidedPathElement The sided path element.
+     * @param networkPreinit If the network is still in the process of being initialized.
+     * @return The network elements that were added.
+     */
+    private List<INetworkElement> deriveNetworkElements(ISidedPathElement sidedPathElement, boolean networkPreinit) {
+        List<INetworkElement> addedElements = Lists.newArrayList();
+        World world = sidedPathElement.getPathElement().getPosition().getWorld(true);
+        BlockPos pos = sidedPathElement.getPathElement().getPosition().getBlockPos();
+        Direction side = sidedPathElement.getSide();
+        TileHelpers.getCapability(world, pos, side, NetworkCarrierConfig.CAPABILITY).ifPresent(networkCarrier -> {
+            // Correctly remove any previously saved network in this carrier
+            // and set the new network to this.
+            INetwork network = networkCarrier.getNetwork();
+            if (network != null) {
+                network.removePathElement(sidedPathElement.getPathElement(), side);
+            }
+            networkCarrier.setNetwork(null);
+            networkCarrier.setNetwork(this);
+        });
+        TileHelpers.getCapability(world, pos, side, NetworkElementProviderConfig.CAPABILITY).ifPresent(networkElementProvider -> {
+            for(INetworkElement element : networkElementProvider.createNetworkElements(world, pos)) {
+                if (addNetworkElement(element, networkPreinit)) {
+                    addedElements.add(element);
+                }
+            }
+        });
+        return addedElements;
+    }
+
+    /**
+     * @return If other path elements or networks can be incrementally joined into this network.
+     */
+    protected boolean canJoin() {
+        return isInitialized() && this.toRead == null && !isKilled() && !isCrashed();
+    }
+
+    /**
+     * Add the given path element into this initialized network,
+     * and notify all its network elements that they are alive.
+     * @param sidedPathElement The sided path element.
+     */
+    protected synchronized void join(ISidedPathElement sidedPathElement) {
+        baseCluster.add(sidedPathElement);
+        if (this.dimensions != null && this.dimensions.add(sidedPathElement.getPathElement().getPosition().getWorld())) {
+            NetworkWorldStorage.getInstance(IntegratedDynamics._instance).onNetworkDimensionsChanged(this);
+        }
+        for (INetworkElement element : deriveNetworkElements(sidedPathElement, false)) {
+            element.afterNetworkAlive(this);
+            element.afterNetworkReAlive(this);
+        }
+        onNetworkChanged();
+    }
+
+    /**
+     * Move all path elements of the given network into this network.
+     * The given network will be empty afterwards, and is removed.
+     * @param network The network to absorb.
+     */
+    protected void absorb(Network network) {
+        for (ISidedPathElement sidedPathElement : Lists.newArrayList(network.baseCluster)) {
+            join(sidedPathElement);
+        }
+        if (network.killIfEmpty()) {
+            NetworkWorldStorage.getInstance(IntegratedDynamics._instance).removeInvalidatedNetwork(network);
+        }
+    }
+
     @Override
     public boolean isInitialized() {
-        return updateableElements != null;
+        return updateQueue != null;
     }
 
     @Override
@@ -189,6 +363,19 @@ public class Network implements INetwork {
         if (this.capabilityDispatcher != null) {
             tag.put("ForgeCaps", this.capabilityDispatcher.serializeNBT());
         }
+        CompoundNBT persistedData = new CompoundNBT();
+        for (IFullNetworkListener fullNetworkListener : this.fullNetworkListeners) {
+            String key = fullNetworkListener.getPersistedDataKey();
+            if (key != null) {
+                CompoundNBT listenerData = fullNetworkListener.writePersistedData();
+                if (listenerData != null) {
+                    persistedData.put(key, listenerData);
+                }
+            }
+        }
+        if (!persistedData.isEmpty()) {
+            tag.put("persistedData", persistedData);
+        }
         return tag;
     }
 
@@ -208,6 +395,15 @@ public class Network implements INetwork {
         }
         deriveNetworkElements(baseCluster);
         initialize(true);
+        if (tag.contains("persistedData")) {
+            CompoundNBT persistedData = tag.getCompound("persistedData");
+            for (IFullNetworkListener fullNetworkListener : this.fullNetworkListeners) {
+                String key = fullNetworkListener.getPersistedDataKey();
+                if (key != null && persistedData.contains(key)) {
+                    fullNetworkListener.readPersistedData(persistedData.getCompound(key));
+                }
+            }
+        }
     }
 
     @Override
@@ -221,7 +417,7 @@ public class Network implements INetwork {
         if(getEventBus().postCancelable(new NetworkElementAddEvent.Pre(this, element))) {
             elements.add(element);
             if (!element.onNetworkAddition(this)) {
-                elements.remove(element);
+                removeElementId(element);
                 return false;
             }
             if (!networkPreinit) {
@@ -234,6 +430,9 @@ public class Network implements INetwork {
                         for (Class<? extends INetworkEvent> eventType : listener.getSubscribedEvents()) {
                             getEventBus().register(listenableElement, eventType);
                         }
+                        if (!element.isThreadSafe()) {
+                            threadUnsafeEventListeners++;
+                        }
                     }
                 });
             }
@@ -246,9 +445,21 @@ public class Network implements INetwork {
 
     @Override
     public void addNetworkElementUpdateable(INetworkElement element) {
-        if(element.isUpdate()) {
-            updateableElements.add(element);
-            updateableElementsTicks.put(element, 0);
+        int id = elements.getId(element);
+        if(id >= 0 && element.isUpdate()) {
+            if (!updateableElements.get(id)) {
+                updateableElements.set(id);
+                if (!element.isThreadSafe()) {
+                    threadUnsafeUpdateableElements++;
+                }
+                if (invalidatedElements.get(id)) {
+                    invalidatedUpdateableElements++;
+                }
+            }
+            updateQueue.schedule(id, updateQueue.getTick() + 1);
+            if (!invalidatedElements.get(id)) {
+                wake();
+            }
         }
     }
 
@@ -264,23 +475,12 @@ public class Network implements INetwork {
 
     @Override
     public synchronized void setPriorityAndChannel(INetworkElement element, int priority, int channel) {
-        elements.remove(element);
-        Integer oldTickValue = null;
-        if (element.isUpdate()) {
-            updateableElements.remove(element);
-            oldTickValue = updateableElementsTicks.remove(element);
-        }
-
-        //noinspection deprecation
-        element.setPriorityAndChannel(this, priority, channel);
-
-        elements.add(element);
-        if (element.isUpdate()) {
-            updateableElements.add(element);
-            if (oldTickValue != null) {
-                updateableElementsTicks.put(element, oldTickValue);
-            }
-        }
+        // Only the sorted index depends on the priority and channel,
+        // all id-based element data remains untouched.
+        elements.reorder(element, () -> {
+            //noinspection deprecation
+            element.setPriorityAndChannel(this, priority, channel);
+        });
     }
 
     @Override
@@ -293,23 +493,55 @@ public class Network implements INetwork {
             listenableElement.getNetworkEventListener().ifPresent(listener -> {
                 if (listener.hasEventSubscriptions()) {
                     getEventBus().unregister(listenableElement);
+                    if (!element.isThreadSafe()) {
+                        threadUnsafeEventListeners--;
+                    }
                 }
             });
         }
         element.beforeNetworkKill(this);
         element.onNetworkRemoval(this);
-        elements.remove(element);
-        removeNetworkElementUpdateable(element);
-        invalidatedElements.remove(element); // The element may be invalidated (like in an unloaded chunk) when it is being removed.
+        removeElementId(element);
         getEventBus().post(new NetworkElementRemoveEvent.Post(this, element));
         onNetworkChanged();
     }
 
     @Override
     public synchronized void removeNetworkElementUpdateable(INetworkElement element) {
+        int id = elements.getId(element);
+        if (id >= 0) {
+            removeNetworkElementUpdateable(id);
+        }
+    }
+
+    protected void removeNetworkElementUpdateable(int id) {
         if (isInitialized()) {
-            updateableElements.remove(element);
-            updateableElementsTicks.remove(element);
+            if (updateableElements.get(id)) {
+                updateableElements.clear(id);
+                if (!elements.get(id).isThreadSafe()) {
+                    threadUnsafeUpdateableElements--;
+                }
+                if (invalidatedElements.get(id)) {
+                    invalidatedUpdateableElements--;
+                }
+            }
+            updateQueue.unschedule(id);
+        }
+    }
+
+    /**
+     * Remove the given element from the index, and clear all data of its id.
+     * @param element The network element.
+     */
+    protected void removeElementId(INetworkElement element) {
+        int id = elements.getId(element);
+        if (id >= 0) {
+            removeNetworkElementUpdateable(id);
+            invalidatedElements.clear(id); // The element may be invalidated (like in an unloaded chunk) when it is being removed.
+            if (id < lastSecondDurations.length) {
+                lastSecondDurations[id] = 0;
+            }
+            elements.remove(element);
         }
     }
 
@@ -318,9 +550,11 @@ public class Network implements INetwork {
      * @param silent If the element should not be notified for the network becoming alive.
      */
     protected void initialize(boolean silent) {
-        updateableElements = Sets.newTreeSet();
-        updateableElementsTicks = Maps.newTreeMap();
-        for(INetworkElement element : elements) {
+        updateableElements.clear();
+        updateQueue = new NetworkElementUpdateQueue();
+        threadUnsafeUpdateableElements = 0;
+        invalidatedUpdateableElements = 0;
+        for(INetworkElement element : elements.getSortedElements()) {
             addNetworkElementUpdateable(element);
             if(!silent) {
                 element.afterNetworkAlive(this);
@@ -334,10 +568,27 @@ public class Network implements INetwork {
         for (IFullNetworkListener fullNetworkListener : this.fullNetworkListeners) {
             fullNetworkListener.kill();
         }
-        for(INetworkElement element : elements) {
+        for(INetworkElement element : elements.getSortedElements()) {
             element.beforeNetworkKill(this);
         }
         killed = true;
+        // Killed networks must be ticked once more, so that they can be removed
+        wake();
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        // Killed and empty networks must be removed from the world storage on the main thread
+        if (!isInitialized() || killed || baseCluster.isEmpty() || updateableElements.isEmpty()
+                || threadUnsafeUpdateableElements > 0 || threadUnsafeEventListeners > 0) {
+            return false;
+        }
+        for (IFullNetworkListener fullNetworkListener : this.fullNetworkListeners) {
+            if (!fullNetworkListener.isThreadSafe()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -379,7 +630,12 @@ public class Network implements INetwork {
         if (this.toRead != null) {
             this.fromNBTEffective(this.toRead);
             this.toRead = null;
+            // Our dimensions are only known after reading
+            NetworkWorldStorage.getInstance(IntegratedDynamics._instance).onNetworkDimensionsChanged(this);
         }
+        // Coalesced events must also be dispatched when this network is not being updated,
+        // such as when it is dormant, crashed, or in safe-mode.
+        getEventBus().flushCoalesced();
     }
 
     @Override
@@ -388,41 +644,66 @@ public class Network implements INetwork {
         if(killIfEmpty() || killed) {
             NetworkWorldStorage.getInstance(IntegratedDynamics._instance).removeInvalidatedNetwork(this);
         } else {
+            boolean budgeted = NetworkUpdateBudget.isEnabled();
+            long updateStartTime = budgeted ? System.nanoTime() : 0;
+
             onUpdate();
 
             // Update updateable network elements
             boolean isBeingDiagnozed = NetworkDiagnostics.getInstance().isBeingDiagnozed();
-            if (!isBeingDiagnozed && !lastSecondDurations.isEmpty()) {
-                // Make sure we aren't using any unnecessary memory.
-                lastSecondDurations.clear();
+            if (!isBeingDiagnozed && hasLastSecondDurations) {
+                resetLastSecondDurations();
             }
-            for (INetworkElement element : updateableElements) {
+            // Only the elements that are due in this tick are visited
+            long tick = updateQueue.nextTick();
+            int[] dueIds = updateQueue.pollDue(elements.getRanks());
+            boolean updatedAny = false;
+            for (int i = 0; i < dueIds.length; i++) {
+                int id = dueIds[i];
+                if (!updateQueue.isDue(id)) {
+                    // The element was removed or rescheduled while updating another element
+                    continue;
+                }
+
+                // If our budget is exhausted, defer all remaining elements to the next tick.
+                // At least one element is always updated, so that networks can never be starved completely.
+                if (budgeted && updatedAny && NetworkUpdateBudget.isExhausted(System.nanoTime() - updateStartTime)) {
+                    for (int j = i; j < dueIds.length; j++) {
+                        if (updateQueue.isDue(dueIds[j])) {
+                            updateQueue.defer(dueIds[j]);
+                            deferredUpdates++;
+                        }
+                    }
+                    break;
+                }
+                updatedAny = true;
+                long deferredSince = updateQueue.clearDeferred(id);
+                if (deferredSince > 0) {
+                    deferredUpdateDelay += tick - deferredSince;
+                }
+
+                INetworkElement element = elements.get(id);
+                // Invalid and skipped elements are retried in the next tick
+                long nextTick = tick + 1;
                 try {
-                    if (isValid(element)) {
+                    if (isValid(id, element)) {
                         long startTime = 0;
                         if (isBeingDiagnozed) {
                             startTime = System.nanoTime();
                         }
-                        int lastElementTick = updateableElementsTicks.getOrDefault(element, 0);
                         if (canUpdate(element)) {
-                            if (lastElementTick <= 0) {
-                                updateableElementsTicks.put(element, element.getUpdateInterval() - 1);
-                                element.update(this);
-                                postUpdate(element);
-                            } else {
-                                updateableElementsTicks.put(element, lastElementTick - 1);
-                            }
+                            nextTick = tick + Math.max(1, element.getUpdateInterval());
+                            element.update(this);
+                            postUpdate(element);
                         } else {
                             onSkipUpdate(element);
-                            updateableElementsTicks.put(element, lastElementTick - 1);
                         }
                         if (isBeingDiagnozed) {
-                            long duration = System.nanoTime() - startTime;
-                            Long lastDuration = lastSecondDurations.get(element);
-                            if (lastDuration != null) {
-                                duration = duration + lastDuration;
+                            if (id >= lastSecondDurations.length) {
+                                lastSecondDurations = Arrays.copyOf(lastSecondDurations, elements.getCapacity());
                             }
-                            lastSecondDurations.put(element, duration);
+                            lastSecondDurations[id] += System.nanoTime() - startTime;
+                            hasLastSecondDurations = true;
                         }
                     }
                 } catch (PartStateException e) {
@@ -432,8 +713,69 @@ public class Network implements INetwork {
                     e.printStackTrace();
                     element.invalidate(this);
                 }
+                if (updateQueue.isDue(id)) {
+                    updateQueue.schedule(id, nextTick);
+                }
+            }
+
+            onAfterUpdate();
+
+            // Dispatch all events that were coalesced during this tick
+            getEventBus().flushCoalesced();
+
+            // If all our updateable elements are unloaded, there is no need to keep polling them.
+            if (invalidatedUpdateableElements > 0 && invalidatedUpdateableElements == updateableElements.cardinality()
+                    && !canRevalidateAnyUpdateable()) {
+                sleep();
+            }
+
+            if (budgeted) {
+                NetworkUpdateBudget.consumeGlobal(System.nanoTime() - updateStartTime);
+            }
+        }
+    }
+
+    /**
+     * Let this network become dormant, so that it is not ticked anymore until it is woken up again.
+     * This happens when an element is revalidated or added,
+     * or when a chunk this network is present in is loaded.
+     */
+    protected synchronized void sleep() {
+        Map<String, LongSet> chunks = Maps.newHashMap();
+        for (ISidedPathElement sidedPathElement : baseCluster) {
+            DimPos position = sidedPathElement.getPathElement().getPosition();
+            chunks.computeIfAbsent(position.getWorld(), d -> new LongOpenHashSet())
+                    .add(ChunkPos.asLong(position.getBlockPos().getX() >> 4, position.getBlockPos().getZ() >> 4));
+        }
+        if (NetworkWorldStorage.getInstance(IntegratedDynamics._instance).addDormantNetwork(this, chunks)) {
+            this.dormant = true;
+        }
+    }
+
+    protected boolean canRevalidateAnyUpdateable() {
+        for (int id = updateableElements.nextSetBit(0); id >= 0; id = updateableElements.nextSetBit(id + 1)) {
+            if (elements.get(id).canRevalidate(this)) {
+                return true;
             }
         }
+        return false;
+    }
+
+    /**
+     * Wake up this network if it was dormant, so that it is ticked again.
+     */
+    public synchronized void wake() {
+        if (this.dormant) {
+            this.dormant = false;
+            NetworkWorldStorage.getInstance(IntegratedDynamics._instance).removeDormantNetwork(this);
+        }
+    }
+
+    /**
+     * @return If this network is dormant, and is not being ticked.
+     */
+    public boolean isDormant() {
+        return this.dormant;
     }
 
     protected void onUpdate() {
@@ -442,6 +784,12 @@ public class Network implements INetwork {
         }
     }
 
+    protected void onAfterUpdate() {
+        for (IFullNetworkListener fullNetworkListener : this.fullNetworkListeners) {
+            fullNetworkListener.afterUpdate();
+        }
+    }
+
     @Override
     public synchronized boolean removePathElement(IPathElement pathElement, Direction side) {
         for (IFullNetworkListener fullNetworkListener : this.fullNetworkListeners) {
@@ -497,7 +845,7 @@ public class Network implements INetwork {
 
     @Override
     public Set<INetworkElement> getElements() {
-        return this.elements;
+        return this.elements.getSortedElements();
     }
 
     @Override
@@ -514,6 +862,26 @@ public class Network implements INetwork {
         return this.changed;
     }
 
+    /**
+     * Dimensions are only added to this set, never removed,
+     * so it may contain dimensions this network is not present in anymore.
+     * @return The keys of the dimensions this network is present in, or null if not known yet.
+     */
+    @Nullable
+    public Set<String> getDimensions() {
+        if (this.toRead != null) {
+            return null;
+        }
+        if (this.dimensions == null) {
+            Set<String> dimensions = Sets.newHashSet();
+            for (ISidedPathElement sidedPathElement : baseCluster) {
+                dimensions.add(sidedPathElement.getPathElement().getPosition().getWorld());
+            }
+            this.dimensions = dimensions;
+        }
+        return this.dimensions;
+    }
+
     @Override
     public int getCablesCount() {
         return baseCluster.size();
@@ -521,13 +889,24 @@ public class Network implements INetwork {
 
     @Override
     public long getLastSecondDuration(INetworkElement networkElement) {
-        Long duration = lastSecondDurations.get(networkElement);
-        return duration == null ? 0 : duration;
+        int id = elements.getId(networkElement);
+        return id >= 0 && id < lastSecondDurations.length ? lastSecondDurations[id] : 0;
     }
 
     @Override
     public void resetLastSecondDurations() {
-        lastSecondDurations.clear();
+        Arrays.fill(lastSecondDurations, 0);
+        hasLastSecondDurations = false;
+    }
+
+    @Override
+    public long getDeferredUpdates() {
+        return deferredUpdates;
+    }
+
+    @Override
+    public long getDeferredUpdateDelay() {
+        return deferredUpdateDelay;
     }
 
     @Override
@@ -550,7 +929,13 @@ public class Network implements INetwork {
         for (IFullNetworkListener fullNetworkListener : this.fullNetworkListeners) {
             fullNetworkListener.invalidateElement(element);
         }
-        invalidatedElements.add(element);
+        int id = elements.getId(element);
+        if (id >= 0 && !invalidatedElements.get(id)) {
+            invalidatedElements.set(id);
+            if (updateableElements.get(id)) {
+                invalidatedUpdateableElements++;
+            }
+        }
     }
 
     @Override
@@ -558,7 +943,14 @@ public class Network implements INetwork {
         for (IFullNetworkListener fullNetworkListener : this.fullNetworkListeners) {
             fullNetworkListener.revalidateElement(element);
         }
-        invalidatedElements.remove(element);
+        int id = elements.getId(element);
+        if (id >= 0 && invalidatedElements.get(id)) {
+            invalidatedElements.clear(id);
+            if (updateableElements.get(id)) {
+                invalidatedUpdateableElements--;
+            }
+        }
+        wake();
     }
 
     @Override
@@ -571,8 +963,8 @@ public class Network implements INetwork {
         return this.fullNetworkListeners;
     }
 
-    protected boolean isValid(INetworkElement element) {
-        if (invalidatedElements.contains(element)) {
+    protected boolean isValid(int id, INetworkElement element) {
+        if (invalidatedElements.get(id)) {
             if (element.canRevalidate(this)) {
                 element.revalidate(this);
                 return true;
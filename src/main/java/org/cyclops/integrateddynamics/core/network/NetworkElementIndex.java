@@ -0,0 +1,173 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import org.cyclops.integrateddynamics.api.network.INetworkElement;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * Assigns dense and stable integer ids to the elements of a network.
+ *
+ * An id remains assigned to an element for as long as it is present in the network,
+ * and ids of removed elements are reused for new elements.
+ * This allows element-related data to be stored in arrays or bitsets indexed by element id.
+ *
+ * Next to that, a sorted index of all elements is maintained,
+ * which represents the priority and channel-based ordering of elements.
+ * Element lookups by id do not depend on this ordering.
+ *
+ * Ids are looked up by identity of the added element instances.
+ * Since elements are often invalidated or removed through a newly created instance,
+ * and not all elements implement equals and hashCode,
+ * other instances fall back to a lookup in the sorted index by {@link INetworkElement#compareTo(Object)}.
+ *
+ * @author rubensworks
+ */
+public class NetworkElementIndex {
+
+    private final TreeSet<INetworkElement> sortedElements = Sets.newTreeSet();
+    private final Reference2IntMap<INetworkElement> ids = new Reference2IntOpenHashMap<>();
+    private final IntArrayList freeIds = new IntArrayList();
+    private INetworkElement[] elements = new INetworkElement[16];
+    private int idCounter = 0;
+    private int[] ranks = new int[16];
+
+    public NetworkElementIndex() {
+        this.ids.defaultReturnValue(-1);
+    }
+
+    /**
+     * @param element A network element that is not added itself.
+     * @return The added instance that is equal to the given element, or null if no such instance exists.
+     */
+    protected INetworkElement getAddedInstance(INetworkElement element) {
+        INetworkElement added = sortedElements.ceiling(element);
+        return added != null && added.compareTo(element) == 0 ? added : null;
+    }
+
+    protected void addSorted(int id, INetworkElement element) {
+        sortedElements.add(element);
+        INetworkElement lower = sortedElements.lower(element);
+        ranks[id] = lower == null ? 0 : ranks[ids.getInt(lower)] + 1;
+        for (INetworkElement higher : sortedElements.tailSet(element, false)) {
+            ranks[ids.getInt(higher)]++;
+        }
+    }
+
+    protected void removeSorted(INetworkElement element) {
+        for (INetworkElement higher : sortedElements.tailSet(element, false)) {
+            ranks[ids.getInt(higher)]--;
+        }
+        sortedElements.remove(element);
+    }
+
+    /**
+     * Add the given element, and assign it an id if it did not have one yet.
+     * @param element The network element.
+     * @return The id of the element.
+     */
+    public int add(INetworkElement element) {
+        int id = getId(element);
+        if (id < 0) {
+            id = freeIds.isEmpty() ? idCounter++ : freeIds.popInt();
+            if (id >= elements.length) {
+                int capacity = Math.max(elements.length * 2, id + 1);
+                elements = Arrays.copyOf(elements, capacity);
+                ranks = Arrays.copyOf(ranks, capacity);
+            }
+            elements[id] = element;
+            ids.put(element, id);
+            addSorted(id, element);
+        }
+        return id;
+    }
+
+    /**
+     * Remove the given element, and release its id.
+     * @param element The network element.
+     * @return The id the element had, or -1 if it was not present.
+     */
+    public int remove(INetworkElement element) {
+        int id = getId(element);
+        if (id >= 0) {
+            INetworkElement added = elements[id];
+            removeSorted(added);
+            ids.removeInt(added);
+            elements[id] = null;
+            freeIds.add(id);
+        }
+        return id;
+    }
+
+    /**
+     * Reorder the given element in the sorted index after a change that influences its ordering,
+     * such as a priority or channel change.
+     * @param element The network element.
+     * @param change The change that will be applied to the element.
+     */
+    public void reorder(INetworkElement element, Runnable change) {
+        int id = getId(element);
+        if (id >= 0) {
+            removeSorted(elements[id]);
+        }
+        change.run();
+        if (id >= 0) {
+            addSorted(id, elements[id]);
+        }
+    }
+
+    /**
+     * @param element The network element.
+     * @return The id of the element, or -1 if it is not present.
+     */
+    public int getId(INetworkElement element) {
+        int id = ids.getInt(element);
+        if (id < 0) {
+            INetworkElement added = getAddedInstance(element);
+            if (added != null) {
+                id = ids.getInt(added);
+            }
+        }
+        return id;
+    }
+    /**
+     * @param id An element id.
+     * @return The element with the given id, or null if no such element exists.
+     */
+    public INetworkElement get(int id) {
+        return id < elements.length ? elements[id] : null;
+    }
+
+    /**
+     * @return The exclusive upper bound of all assigned ids.
+     */
+    public int getCapacity() {
+        return idCounter;
+    }
+
+    /**
+     * @return The number of elements.
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * @return All elements, in their sorted order.
+     */
+    public TreeSet<INetworkElement> getSortedElements() {
+        return sortedElements;
+    }
+
+    /**
+     * @return The position of each element in the sorted index, indexed by element id.
+     */
+    public int[] getRanks() {
+        return ranks;
+    }
+
+}
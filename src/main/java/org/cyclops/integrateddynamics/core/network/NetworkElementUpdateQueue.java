@@ -0,0 +1,219 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A bucketed queue of network element ids by the tick at which they are due to be updated.
+ * Polling the due elements of a tick only touches the elements that are due in that tick,
+ * independent of the total number of scheduled elements.
+ *
+ * Removal of elements is lazy: buckets may contain stale entries,
+ * which are filtered out when the bucket is being polled.
+ *
+ * Due elements that could not be handled in a tick can be deferred to the next tick,
+ * in which case they will be polled before all other due elements of that tick.
+ *
+ * @see NetworkElementIndex
+ * @author rubensworks
+ */
+public class NetworkElementUpdateQueue {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Long2ObjectMap<IntList> buckets = new Long2ObjectOpenHashMap<>();
+    // A due tick of 0 means that the element is not scheduled
+    private long[] dueTicks = new long[16];
+    // The tick at which deferred elements were originally due, or 0 if they are not deferred
+    private long[] deferredSince = new long[16];
+    private IntList deferred = new IntArrayList();
+    private final BitSet polled = new BitSet();
+    private int size = 0;
+    private long tick = 0;
+
+    /**
+     * @return The current tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Move to the next tick.
+     * @return The new current tick.
+     */
+    public long nextTick() {
+        return ++tick;
+    }
+
+    /**
+     * Schedule the given element to be updated at the given tick.
+     * This overrides any previously scheduled tick for this element.
+     * If the given tick is not in the future, the element will be scheduled for the next tick.
+     * @param id The network element id.
+     * @param dueTick The tick at which the element must be updated.
+     */
+    public void schedule(int id, long dueTick) {
+        if (dueTick <= tick) {
+            dueTick = tick + 1;
+        }
+        ensureCapacity(id);
+        if (dueTicks[id] == 0) {
+            size++;
+        }
+        dueTicks[id] = dueTick;
+        IntList bucket = buckets.get(dueTick);
+        if (bucket == null) {
+            bucket = new IntArrayList();
+            buckets.put(dueTick, bucket);
+        }
+        bucket.add(id);
+    }
+
+    /**
+     * Defer the given due element to the next tick.
+     * Deferred elements are polled before all other elements that are due in the next tick,
+     * so that elements that are deferred repeatedly can not be starved by other elements.
+     * @param id The network element id.
+     */
+    public void defer(int id) {
+        ensureCapacity(id);
+        if (dueTicks[id] == 0) {
+            size++;
+        }
+        if (deferredSince[id] == 0) {
+            deferredSince[id] = tick;
+        }
+        dueTicks[id] = tick + 1;
+        deferred.add(id);
+    }
+
+    /**
+     * Mark the given element as not being deferred anymore.
+     * @param id The network element id.
+     * @return The tick at which the element was originally due if it was deferred, or 0 otherwise.
+     */
+    public long clearDeferred(int id) {
+        if (id >= deferredSince.length) {
+            return 0;
+        }
+        long since = deferredSince[id];
+        deferredSince[id] = 0;
+        return since;
+    }
+
+    protected void ensureCapacity(int id) {
+        if (id >= dueTicks.length) {
+            int capacity = Math.max(dueTicks.length * 2, id + 1);
+            dueTicks = Arrays.copyOf(dueTicks, capacity);
+            deferredSince = Arrays.copyOf(deferredSince, capacity);
+        }
+    }
+
+    /**
+     * Remove the given element from the queue.
+     * @param id The network element id.
+     * @return The tick at which the element was scheduled, or 0 if it was not scheduled.
+     */
+    public long unschedule(int id) {
+        if (id >= dueTicks.length) {
+            return 0;
+        }
+        long dueTick = dueTicks[id];
+        if (dueTick != 0) {
+            size--;
+            dueTicks[id] = 0;
+        }
+        deferredSince[id] = 0;
+        return dueTick;
+    }
+
+    /**
+     * @param id The network element id.
+     * @return If the given element is scheduled for the current tick.
+     */
+    public boolean isDue(int id) {
+        return id < dueTicks.length && dueTicks[id] == tick;
+    }
+
+    /**
+     * Take all elements that are due in the current tick.
+     * Elements that were deferred from the previous tick come first, in the order in which they were deferred.
+     * All other elements are ordered by the given ranks.
+     * The returned elements remain scheduled for the current tick,
+     * so they must be rescheduled or deferred by the caller after they have been handled.
+     * @param ranks The sort rank of each element, indexed by element id.
+     * @return The due element ids.
+     */
+    public int[] pollDue(int[] ranks) {
+        IntList bucket = buckets.remove(tick);
+        IntList previouslyDeferred = deferred;
+        if (bucket == null && previouslyDeferred.isEmpty()) {
+            return EMPTY;
+        }
+        if (!previouslyDeferred.isEmpty()) {
+            deferred = new IntArrayList();
+        }
+
+        int[] due = new int[previouslyDeferred.size() + (bucket == null ? 0 : bucket.size())];
+        int size = 0;
+        for (int i = 0; i < previouslyDeferred.size(); i++) {
+            int id = previouslyDeferred.getInt(i);
+            if (isDue(id) && !polled.get(id)) {
+                polled.set(id);
+                due[size++] = id;
+            }
+        }
+
+        if (bucket != null) {
+            // Pack rank and id into a single long, so that we can sort without boxing or comparators.
+            long[] keys = new long[bucket.size()];
+            int count = 0;
+            for (int i = 0; i < bucket.size(); i++) {
+                int id = bucket.getInt(i);
+                if (isDue(id)) {
+                    keys[count++] = ((long) ranks[id] << 32) | id;
+                }
+            }
+            Arrays.sort(keys, 0, count);
+
+            // Unpack ids, and remove duplicate entries
+            for (int i = 0; i < count; i++) {
+                int id = (int) keys[i];
+                if (!polled.get(id)) {
+                    polled.set(id);
+                    due[size++] = id;
+                }
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            polled.clear(due[i]);
+        }
+        return size == due.length ? due : Arrays.copyOf(due, size);
+    }
+
+    /**
+     * @return The number of scheduled elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all elements from the queue.
+     */
+    public void clear() {
+        Arrays.fill(dueTicks, 0);
+        Arrays.fill(deferredSince, 0);
+        deferred.clear();
+        buckets.clear();
+        size = 0;
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import org.cyclops.integrateddynamics.GeneralConfig;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the time all networks have spent updating in the current server tick,
+ * so that network updates can be limited to a global budget.
+ * @author rubensworks
+ */
+public final class NetworkUpdateBudget {
+
+    private static final AtomicLong CONSUMED_GLOBAL = new AtomicLong();
+
+    private NetworkUpdateBudget() {
+
+    }
+
+    /**
+     * Reset the consumed global budget.
+     * This should be called at the start of each server tick.
+     */
+    public static void resetGlobal() {
+        CONSUMED_GLOBAL.set(0);
+    }
+
+    /**
+     * Register the given duration as consumed from the global budget.
+     * @param duration A duration in nanoseconds.
+     */
+    public static void consumeGlobal(long duration) {
+        CONSUMED_GLOBAL.addAndGet(duration);
+    }
+
+    /**
+     * @return The global budget per tick in nanoseconds, or 0 if unlimited.
+     */
+    public static long getGlobalBudget() {
+        return GeneralConfig.networkUpdateBudgetGlobal * 1000L;
+    }
+
+    /**
+     * @return The budget per network per tick in nanoseconds, or 0 if unlimited.
+     */
+    public static long getNetworkBudget() {
+        return GeneralConfig.networkUpdateBudgetPerNetwork * 1000L;
+    }
+
+    /**
+     * @return If any update budget is enabled.
+     */
+    public static boolean isEnabled() {
+        return getGlobalBudget() > 0 || getNetworkBudget() > 0;
+    }
+
+    /**
+     * Check if a network has exhausted its budget.
+     * @param duration The duration the network has been updating in this tick in nanoseconds,
+     *                 which has not been consumed from the global budget yet.
+     * @return If the network or the global budget is exhausted.
+     */
+    public static boolean isExhausted(long duration) {
+        long networkBudget = getNetworkBudget();
+        if (networkBudget > 0 && duration >= networkBudget) {
+            return true;
+        }
+        long globalBudget = getGlobalBudget();
+        return globalBudget > 0 && CONSUMED_GLOBAL.get() + duration >= globalBudget;
+    }
+
+}
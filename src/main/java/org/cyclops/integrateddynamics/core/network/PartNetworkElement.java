@@ -217,6 +217,11 @@ public class PartNetworkElement<P extends IPartType<P, S>, S extends IPartState<
         return Optional.of(getPart());
     }
 
+    @Override
+    public boolean isNetworkEventListenerStatic() {
+        return true;
+    }
+
     public boolean equals(Object o) {
         return o instanceof IPartNetworkElement && compareTo((INetworkElement) o) == 0;
     }
@@ -2,12 +2,13 @@ package org.cyclops.integrateddynamics.core.network;
 
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.commons.lang3.tuple.Pair;
-import org.cyclops.cyclopscore.datastructure.Wrapper;
 import org.cyclops.integrateddynamics.api.network.INetwork;
 import org.cyclops.integrateddynamics.api.network.IPartPosIteratorHandler;
 import org.cyclops.integrateddynamics.api.network.IPositionedAddonsNetwork;
@@ -15,12 +16,12 @@ import org.cyclops.integrateddynamics.api.part.PartPos;
 import org.cyclops.integrateddynamics.api.part.PrioritizedPartPos;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * A network that can hold prioritized positions.
@@ -34,11 +35,30 @@ public abstract class PositionedAddonsNetwork implements IPositionedAddonsNetwor
     private final Set<PrioritizedPartPos> allPositions = Sets.newTreeSet();
     private final Int2ObjectMap<Set<PrioritizedPartPos>> positions = new Int2ObjectOpenHashMap<>();
     private final Map<PartPos, Integer> positionChannels = Maps.newHashMap();
-    // We store the thread id together with the disabled position.
+    private final Map<PartPos, PrioritizedPartPos> prioritizedPositions = Maps.newHashMap();
+    // Materialized priority-sorted views of the positions per channel, including the wildcard positions.
+    // Views are only built on the first read after their positions have changed,
+    // so that adding many positions at once, such as when loading a network, does not rebuild them each time.
+    private volatile Int2ObjectMap<List<PrioritizedPartPos>> channelViews = new Int2ObjectOpenHashMap<>();
+    @Nullable
+    private volatile List<PrioritizedPartPos> allPositionsView = Collections.emptyList();
+    // Disabled positions are stored per thread.
     // This is to make sure that different threads can safely iterate over positions in parallel
     // without clashing with each other, as this could lead to problems such as in #194.
     // This for example applies to the ingredient observer and in-world ingredient movement.
-    private final Set<Pair<Long, PartPos>> disabledPositions = Sets.newHashSet();
+    // Positions are interned to ids, so that these threads never have to allocate for disabling and checking positions.
+    // Ids are released when positions are removed, and are reused for new positions.
+    // As disabled positions of other threads can not be cleared, each interning has a unique generation,
+    // so that a position that is removed while it is disabled in a thread never disables a new position with the same id.
+    private final Map<PartPos, PositionId> positionIds = Maps.newConcurrentMap();
+    private final IntArrayList freePositionIds = new IntArrayList();
+    private int positionIdCounter = 0;
+    private int positionIdGeneration = 0;
+    private final ThreadLocal<Int2IntMap> disabledPositionIds = ThreadLocal.withInitial(() -> {
+        Int2IntMap disabledPositionIds = new Int2IntOpenHashMap();
+        disabledPositionIds.defaultReturnValue(-1);
+        return disabledPositionIds;
+    });
 
     private IPartPosIteratorHandler partPosIteratorHandler = null;
 
@@ -57,26 +77,75 @@ public abstract class PositionedAddonsNetwork implements IPositionedAddonsNetwor
         if (channel == WILDCARD_CHANNEL) {
             return getPrioritizedPositions();
         }
-        Set<PrioritizedPartPos> positions = this.positions.get(channel);
-        Set<PrioritizedPartPos> wildcardPositions = this.positions.get(WILDCARD_CHANNEL);
-        if (positions == null) {
-            if (wildcardPositions != null) {
-                return wildcardPositions;
+        List<PrioritizedPartPos> view = this.channelViews.get(channel);
+        return view == null ? buildPositionView(channel) : view;
+    }
+
+    @Override
+    public Collection<PrioritizedPartPos> getPrioritizedPositions() {
+        List<PrioritizedPartPos> view = this.allPositionsView;
+        if (view == null) {
+            synchronized (this.allPositions) {
+                view = this.allPositionsView;
+                if (view == null) {
+                    view = Collections.unmodifiableList(Arrays.asList(this.allPositions.toArray(new PrioritizedPartPos[0])));
+                    this.allPositionsView = view;
+                }
             }
-            positions = Collections.emptySet();
         }
-        if (wildcardPositions == null) {
-            return positions;
+        return view;
+    }
+
+    /**
+     * Invalidate the materialized position views after the positions of the given channel have changed.
+     * Views are immutable, and are replaced as a whole when they are built again,
+     * so that they can safely be iterated by other threads while positions change.
+     * This must be called while holding the lock on {@link #allPositions}.
+     * @param changedChannel The channel of which the positions have changed.
+     */
+    protected void invalidatePositionViews(int changedChannel) {
+        if (changedChannel == WILDCARD_CHANNEL) {
+            // Wildcard positions are part of all channels
+            this.channelViews = new Int2ObjectOpenHashMap<>();
+        } else if (this.channelViews.containsKey(changedChannel)) {
+            Int2ObjectMap<List<PrioritizedPartPos>> channelViews = new Int2ObjectOpenHashMap<>(this.channelViews);
+            channelViews.remove(changedChannel);
+            this.channelViews = channelViews;
         }
-        TreeSet<PrioritizedPartPos> merged = Sets.newTreeSet();
-        merged.addAll(positions);
-        merged.addAll(wildcardPositions);
-        return merged;
+        this.allPositionsView = null;
     }
 
-    @Override
-    public Collection<PrioritizedPartPos> getPrioritizedPositions() {
-        return this.allPositions;
+    /**
+     * Build the materialized view of the given channel.
+     * @param channel A channel.
+     * @return The priority-sorted positions of the channel, including the wildcard positions.
+     */
+    protected List<PrioritizedPartPos> buildPositionView(int channel) {
+        synchronized (this.allPositions) {
+            List<PrioritizedPartPos> view = this.channelViews.get(channel);
+            if (view != null) {
+                return view;
+            }
+            // Channels without positions of their own only contain the wildcard positions
+            Set<PrioritizedPartPos> positions = this.positions.getOrDefault(channel, Collections.emptySet());
+            Set<PrioritizedPartPos> wildcardPositions = this.positions.getOrDefault(WILDCARD_CHANNEL, Collections.emptySet());
+            PrioritizedPartPos[] viewArray = new PrioritizedPartPos[positions.size() + wildcardPositions.size()];
+            int i = 0;
+            for (PrioritizedPartPos pos : positions) {
+                viewArray[i++] = pos;
+            }
+            for (PrioritizedPartPos pos : wildcardPositions) {
+                viewArray[i++] = pos;
+            }
+            if (!positions.isEmpty() && !wildcardPositions.isEmpty()) {
+                Arrays.sort(viewArray);
+            }
+            view = Collections.unmodifiableList(Arrays.asList(viewArray));
+            Int2ObjectMap<List<PrioritizedPartPos>> channelViews = new Int2ObjectOpenHashMap<>(this.channelViews);
+            channelViews.put(channel, view);
+            this.channelViews = channelViews;
+            return view;
+        }
     }
 
     @Override
@@ -107,7 +176,10 @@ public abstract class PositionedAddonsNetwork implements IPositionedAddonsNetwor
         invalidateIterators();
 
         PrioritizedPartPos prioritizedPosition = PrioritizedPartPos.of(pos, priority);
-        if (allPositions.add(prioritizedPosition)) {
+        synchronized (this.allPositions) {
+            if (!allPositions.add(prioritizedPosition)) {
+                return false;
+            }
             Set<PrioritizedPartPos> positions = this.positions.get(channel);
             if (positions == null) {
                 positions = Sets.newTreeSet();
@@ -115,10 +187,11 @@ public abstract class PositionedAddonsNetwork implements IPositionedAddonsNetwor
             }
             positions.add(prioritizedPosition);
             this.positionChannels.put(pos, channel);
-            this.onPositionAdded(channel, prioritizedPosition);
-            return true;
+            this.prioritizedPositions.put(pos, prioritizedPosition);
+            this.invalidatePositionViews(channel);
         }
-        return false;
+        this.onPositionAdded(channel, prioritizedPosition);
+        return true;
     }
 
     protected void onPositionAdded(int channel, PrioritizedPartPos pos) {
@@ -129,50 +202,94 @@ public abstract class PositionedAddonsNetwork implements IPositionedAddonsNetwor
     public void removePosition(PartPos pos) {
         invalidateIterators();
 
-        Wrapper<Integer> removedChannel = new Wrapper<>(-2);
-        Wrapper<PrioritizedPartPos> removedPos = new Wrapper<>(null);
-        for (Int2ObjectMap.Entry<Set<PrioritizedPartPos>> entry : this.positions.int2ObjectEntrySet()) {
-            int channel = entry.getIntKey();
-            Set<PrioritizedPartPos> positions = entry.getValue();
-            Iterator<PrioritizedPartPos> it = positions.iterator();
-            while (it.hasNext()) {
-                PrioritizedPartPos prioritizedPartPos = it.next();
-                if (prioritizedPartPos.getPartPos().equals(pos)) {
-                    it.remove();
-                    allPositions.remove(prioritizedPartPos);
-                    removedPos.set(prioritizedPartPos);
-                    removedChannel.set(channel);
-                    break;
+        Integer channel;
+        PrioritizedPartPos prioritizedPartPos;
+        synchronized (this.allPositions) {
+            channel = positionChannels.remove(pos);
+            prioritizedPartPos = prioritizedPositions.remove(pos);
+            if (channel != null && prioritizedPartPos != null) {
+                Set<PrioritizedPartPos> positions = this.positions.get(channel);
+                positions.remove(prioritizedPartPos);
+                allPositions.remove(prioritizedPartPos);
+                if (positions.isEmpty()) {
+                    this.positions.remove((int) channel);
                 }
+                this.invalidatePositionViews(channel);
             }
         }
-        int channel = removedChannel.get();
-        if (channel != -2) {
-            this.onPositionRemoved(channel, removedPos.get());
-            if (positions.get(channel).isEmpty()) {
-                this.positions.remove(channel);
-            }
+        if (channel != null && prioritizedPartPos != null) {
+            this.onPositionRemoved(channel, prioritizedPartPos);
         }
-        positionChannels.remove(pos);
+        releasePositionId(pos);
     }
 
     protected void onPositionRemoved(int channel, PrioritizedPartPos pos) {
 
     }
 
+    protected PositionId getPositionId(PartPos pos) {
+        PositionId id = positionIds.get(pos);
+        if (id == null) {
+            id = positionIds.computeIfAbsent(pos, p -> {
+                synchronized (this.freePositionIds) {
+                    return new PositionId(freePositionIds.isEmpty() ? positionIdCounter++ : freePositionIds.popInt(),
+                            positionIdGeneration = (positionIdGeneration + 1) & Integer.MAX_VALUE);
+                }
+            });
+        }
+        return id;
+    }
+
+    protected void releasePositionId(PartPos pos) {
+        PositionId id = positionIds.remove(pos);
+        if (id != null) {
+            disabledPositionIds.get().remove(id.getId());
+            synchronized (this.freePositionIds) {
+                freePositionIds.add(id.getId());
+            }
+        }
+    }
+
     @Override
     public boolean isPositionDisabled(PartPos pos) {
-        return disabledPositions.contains(Pair.of(Thread.currentThread().getId(), pos));
+        PositionId id = positionIds.get(pos);
+        return id != null && disabledPositionIds.get().get(id.getId()) == id.getGeneration();
     }
 
     @Override
     public void disablePosition(PartPos pos) {
-        disabledPositions.add(Pair.of(Thread.currentThread().getId(), pos));
+        PositionId id = getPositionId(pos);
+        disabledPositionIds.get().put(id.getId(), id.getGeneration());
     }
 
     @Override
     public void enablePosition(PartPos pos) {
-        disabledPositions.remove(Pair.of(Thread.currentThread().getId(), pos));
+        PositionId id = positionIds.get(pos);
+        if (id != null) {
+            disabledPositionIds.get().remove(id.getId());
+        }
+    }
+
+    /**
+     * The interned id of a position.
+     */
+    protected static class PositionId {
+
+        private final int id;
+        private final int generation;
+
+        public PositionId(int id, int generation) {
+            this.id = id;
+            this.generation = generation;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getGeneration() {
+            return generation;
+        }
     }
 
 }
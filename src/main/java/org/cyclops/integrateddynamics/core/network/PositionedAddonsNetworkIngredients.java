@@ -3,6 +3,7 @@ package org.cyclops.integrateddynamics.core.network;
 import com.google.common.collect.Maps;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.util.Direction;
 import net.minecraftforge.common.capabilities.Capability;
 import org.cyclops.commoncapabilities.api.ingredient.IngredientComponent;
@@ -76,6 +77,7 @@ public abstract class PositionedAddonsNetworkIngredients<T, M> extends Positione
         } else {
             positionFilters.put(pos, filter);
         }
+        ingredientObserver.onPositionFilterChanged(pos);
     }
 
     @Nullable
@@ -118,6 +120,13 @@ public abstract class PositionedAddonsNetworkIngredients<T, M> extends Positione
         }
     }
 
+    @Override
+    public boolean mayContain(int channel, PartPos pos, T prototype, M matchFlags) {
+        // Fallback to the position's own channel, such as for wildcard channel lookups
+        int observedChannel = ingredientObserver.isSubscribed(channel, pos) ? channel : getPositionChannel(pos);
+        return ingredientObserver.mayContain(observedChannel, pos, prototype, matchFlags);
+    }
+
     protected IngredientPositionsIndex<T, M> getIndexSafe(int channel) {
         IngredientPositionsIndex<T, M> index = this.indexes.get(channel);
         if (index == null) {
@@ -295,6 +304,25 @@ public abstract class PositionedAddonsNetworkIngredients<T, M> extends Positione
         lastSecondDurations.clear();
     }
 
+    @Nullable
+    @Override
+    public String getPersistedDataKey() {
+        return "ingredients:" + getComponent().getName();
+    }
+
+    @Nullable
+    @Override
+    public CompoundNBT writePersistedData() {
+        // The snapshot is created off-thread by the observer, and is never modified afterwards,
+        // so saving does not have to serialize any contents.
+        return this.ingredientObserver.getSnapshot();
+    }
+
+    @Override
+    public void readPersistedData(CompoundNBT tag) {
+        this.ingredientObserver.restoreSnapshot(tag);
+    }
+
     @Override
     public void invalidateElement(INetworkElement element) {
 
@@ -71,6 +71,9 @@ public class GuiNetworkDiagnostics extends JFrame {
     private static final Vector<Vector<Object>> dataObservers = new Vector<>();
     private static final Multimap<Integer, ObservableObserverData> networkDataObservers = ArrayListMultimap.create();
 
+    private static JLabel labelCaches = null;
+    private static final List<RawCacheData> dataCaches = Lists.newArrayList();
+
     public static void setNetworkData(int id, RawNetworkData rawNetworkData) {
         synchronized (networkDataParts) {
             Collection<ObservablePartData> previous = networkDataParts.removeAll(id);
@@ -145,6 +148,10 @@ public class GuiNetworkDiagnostics extends JFrame {
                 }
 
                 networkDataObservers.putAll(id, observers);
+
+                // The caches are shared by all networks, so only the latest data is kept
+                dataCaches.clear();
+                dataCaches.addAll(rawNetworkData.getCaches());
             }
         }
         if (gui != null) {
@@ -155,6 +162,7 @@ public class GuiNetworkDiagnostics extends JFrame {
     public static void clearNetworkData() {
         networkDataParts.clear();
         networkDataObservers.clear();
+        dataCaches.clear();
     }
 
     public static void start() {
@@ -378,7 +386,11 @@ public class GuiNetworkDiagnostics extends JFrame {
                             panelObservers.add(BorderLayout.CENTER, new JScrollPane(tableObservers));
                             panelMain.add(panelParts);
                             panelMain.add(panelObservers);
-                            add(panelMain);
+                            labelCaches = new JLabel();
+                            JPanel panelRoot = new JPanel(new BorderLayout());
+                            panelRoot.add(BorderLayout.CENTER, panelMain);
+                            panelRoot.add(BorderLayout.SOUTH, labelCaches);
+                            add(panelRoot);
                             pack();
                         } else {
                             tableParts.getRowSorter().allRowsChanged();
@@ -386,6 +398,12 @@ public class GuiNetworkDiagnostics extends JFrame {
                             tableObservers.getRowSorter().allRowsChanged();
                             ((DefaultTableModel) tableObservers.getModel()).fireTableDataChanged();
                         }
+                        StringBuilder caches = new StringBuilder(L10NHelpers.localize("gui.integrateddynamics.diagnostics.caches"));
+                        for (RawCacheData cacheData : dataCaches) {
+                            caches.append(" ").append(L10NHelpers.localize("gui.integrateddynamics.diagnostics.cache",
+                                    L10NHelpers.localize(cacheData.getName()), cacheData.getSize(), cacheData.getHits(), cacheData.getMisses()));
+                        }
+                        labelCaches.setText(caches.toString());
                         repaint();
                     }
                 }
@@ -11,6 +11,7 @@ import org.cyclops.integrateddynamics.api.network.INetworkElement;
 import org.cyclops.integrateddynamics.api.network.IPartNetworkElement;
 import org.cyclops.integrateddynamics.api.network.IPositionedAddonsNetworkIngredients;
 import org.cyclops.integrateddynamics.api.part.PartPos;
+import org.cyclops.integrateddynamics.core.evaluate.operator.BoundedCompileCache;
 import org.cyclops.integrateddynamics.core.persist.world.NetworkWorldStorage;
 import org.cyclops.integrateddynamics.network.packet.NetworkDiagnosticsNetworkPacket;
 
@@ -43,7 +44,7 @@ public class NetworkDiagnostics {
     public synchronized void registerPlayer(ServerPlayerEntity player) {
         if (!players.contains(player.getUniqueID())) {
             players.add(player.getUniqueID());
-            for (INetwork network : NetworkWorldStorage.getInstance(IntegratedDynamics._instance).getNetworks()) {
+            for (INetwork network : NetworkWorldStorage.getInstance(IntegratedDynamics._instance).getNetworkArray()) {
                 sendNetworkUpdateToPlayer(player, network);
             }
 
@@ -84,7 +85,13 @@ public class NetworkDiagnostics {
             }
         }
 
-        RawNetworkData rawNetworkData = new RawNetworkData(network.isKilled(), network.hashCode(), network.getCablesCount(), rawParts, rawObservers);
+        // The operator caches are shared by all networks
+        List<RawCacheData> rawCaches = Lists.newArrayList();
+        for (BoundedCompileCache<?> cache : BoundedCompileCache.getCaches()) {
+            rawCaches.add(new RawCacheData(cache.getTranslationKey(), cache.size(), cache.getHits(), cache.getMisses()));
+        }
+
+        RawNetworkData rawNetworkData = new RawNetworkData(network.isKilled(), network.hashCode(), network.getCablesCount(), rawParts, rawObservers, rawCaches);
         IntegratedDynamics._instance.getPacketHandler().sendToPlayer(new NetworkDiagnosticsNetworkPacket(rawNetworkData.toNbt()), player);
     }
 
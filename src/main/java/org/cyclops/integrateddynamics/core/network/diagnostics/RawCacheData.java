@@ -0,0 +1,35 @@
+package org.cyclops.integrateddynamics.core.network.diagnostics;
+
+import lombok.Data;
+import net.minecraft.nbt.CompoundNBT;
+
+/**
+ * @author rubensworks
+ */
+@Data
+public class RawCacheData implements IRawData {
+
+    private final String name;
+    private final long size;
+    private final long hits;
+    private final long misses;
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s entries, %s hits, %s misses", name, size, hits, misses);
+    }
+
+    public CompoundNBT toNbt() {
+        CompoundNBT tag = new CompoundNBT();
+        tag.putString("name", name);
+        tag.putLong("size", size);
+        tag.putLong("hits", hits);
+        tag.putLong("misses", misses);
+        return tag;
+    }
+
+    public static RawCacheData fromNbt(CompoundNBT tag) {
+        return new RawCacheData(tag.getString("name"), tag.getLong("size"), tag.getLong("hits"), tag.getLong("misses"));
+    }
+
+}
@@ -20,6 +20,7 @@ public class RawNetworkData implements IRawData {
     private final int cables;
     private final List<RawPartData> parts;
     private final List<RawObserverData> observers;
+    private final List<RawCacheData> caches;
 
     @Override
     public String toString() {
@@ -44,6 +45,12 @@ public class RawNetworkData implements IRawData {
         }
         tag.put("observers", listObservers);
 
+        ListNBT listCaches = new ListNBT();
+        for (RawCacheData cache : caches) {
+            listCaches.add(cache.toNbt());
+        }
+        tag.put("caches", listCaches);
+
         return tag;
     }
 
@@ -62,8 +69,14 @@ public class RawNetworkData implements IRawData {
             observers.add(RawObserverData.fromNbt(observerTag));
         }
 
+        List<RawCacheData> caches = Lists.newArrayList();
+        ListNBT listCaches = tag.getList("caches", Constants.NBT.TAG_COMPOUND);
+        for (int i = 0; i < listCaches.size(); i++) {
+            caches.add(RawCacheData.fromNbt(listCaches.getCompound(i)));
+        }
+
         return new RawNetworkData(tag.getBoolean("killed"), tag.getInt("id"),
-                tag.getInt("cables"), parts, observers);
+                tag.getInt("cables"), parts, observers, caches);
     }
 
 }
@@ -2,18 +2,20 @@ package org.cyclops.integrateddynamics.core.network.event;
 
 import com.google.common.collect.Maps;
 import net.minecraftforge.eventbus.EventBus;
-import org.cyclops.cyclopscore.helper.CollectionHelpers;
 import org.cyclops.integrateddynamics.api.network.IEventListenableNetworkElement;
 import org.cyclops.integrateddynamics.api.network.INetwork;
 import org.cyclops.integrateddynamics.api.network.INetworkElement;
 import org.cyclops.integrateddynamics.api.network.INetworkEventListener;
 import org.cyclops.integrateddynamics.api.network.event.ICancelableNetworkEvent;
+import org.cyclops.integrateddynamics.api.network.event.ICoalescableNetworkEvent;
 import org.cyclops.integrateddynamics.api.network.event.INetworkEvent;
 import org.cyclops.integrateddynamics.api.network.event.INetworkEventBus;
 
-import java.util.Collections;
+import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.Map;
-import java.util.Set;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An event bus for {@link INetwork} events where
@@ -21,41 +23,112 @@ import java.util.Set;
  *
  * Partially based on Minecraft Forge's {@link EventBus} implementation.
  *
+ * Each event type is assigned a small integer id,
+ * which indexes an immutable array of listeners for that event type.
+ * These arrays are only replaced when listeners are (un)registered,
+ * so that posting events does not require any locking or allocation.
+ *
+ * Coalescable events are collected per event type until the network flushes them,
+ * so that at most one such event is dispatched per event type per network tick.
+ *
  * @author rubensworks
  */
 public class NetworkEventBus implements INetworkEventBus {
 
-    private final Map<Class<? extends INetworkEvent>, Set<IEventListenableNetworkElement<?>>> listeners = Collections.synchronizedMap(Maps.<Class<? extends INetworkEvent>, Set<IEventListenableNetworkElement<?>>>newHashMap());
+    private static final AtomicInteger EVENT_ID_COUNTER = new AtomicInteger();
+    private static final ClassValue<Integer> EVENT_IDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return EVENT_ID_COUNTER.getAndIncrement();
+        }
+    };
+    private static final Listener[] NO_LISTENERS = new Listener[0];
+
+    private volatile Listener[][] listeners = new Listener[0][];
+    private Map<Class<?>, ICoalescableNetworkEvent> coalescedEvents = Maps.newLinkedHashMap();
+
+    /**
+     * @param eventType An event type.
+     * @return The unique id of the given event type.
+     */
+    public static int getEventId(Class<? extends INetworkEvent> eventType) {
+        return EVENT_IDS.get(eventType);
+    }
+
+    protected Listener[] getListeners(Listener[][] listeners, int eventId) {
+        Listener[] eventListeners = eventId < listeners.length ? listeners[eventId] : null;
+        return eventListeners == null ? NO_LISTENERS : eventListeners;
+    }
 
     @Override
-    public void register(IEventListenableNetworkElement<?> target, Class<? extends INetworkEvent> eventType) {
-        CollectionHelpers.addToMapSet(this.listeners, eventType, target);
+    public synchronized void register(IEventListenableNetworkElement<?> target, Class<? extends INetworkEvent> eventType) {
+        int eventId = getEventId(eventType);
+        Listener[] eventListeners = getListeners(this.listeners, eventId);
+        for (Listener listener : eventListeners) {
+            if (listener.element.equals(target)) {
+                return;
+            }
+        }
+
+        Listener[][] newListeners = this.listeners;
+        if (eventId >= newListeners.length) {
+            newListeners = Arrays.copyOf(newListeners, eventId + 1);
+        } else {
+            newListeners = newListeners.clone();
+        }
+        Listener[] newEventListeners = Arrays.copyOf(eventListeners, eventListeners.length + 1);
+        newEventListeners[eventListeners.length] = new Listener(target);
+        newListeners[eventId] = newEventListeners;
+        this.listeners = newListeners;
     }
 
     @Override
-    public void unregister(IEventListenableNetworkElement<?> target, Class<? extends INetworkEvent> eventType) {
-        Set<IEventListenableNetworkElement<?>> listeners = this.listeners.get(eventType);
-        if(listeners != null) {
-            listeners.remove(target);
+    public synchronized void unregister(IEventListenableNetworkElement<?> target, Class<? extends INetworkEvent> eventType) {
+        int eventId = getEventId(eventType);
+        Listener[] eventListeners = getListeners(this.listeners, eventId);
+        Listener[] newEventListeners = without(eventListeners, target);
+        if (newEventListeners != eventListeners) {
+            Listener[][] newListeners = this.listeners.clone();
+            newListeners[eventId] = newEventListeners;
+            this.listeners = newListeners;
         }
     }
 
     @Override
-    public void unregister(IEventListenableNetworkElement<?> target) {
-        target.getNetworkEventListener().ifPresent(listener -> {
-            for(Class<? extends INetworkEvent> eventType : listener.getSubscribedEvents()) {
-                unregister(target, eventType);
+    public synchronized void unregister(IEventListenableNetworkElement<?> target) {
+        // We remove the target from all event types,
+        // as its listener may not be resolvable anymore at this point.
+        Listener[][] newListeners = this.listeners.clone();
+        boolean changed = false;
+        for (int eventId = 0; eventId < newListeners.length; eventId++) {
+            Listener[] eventListeners = getListeners(newListeners, eventId);
+            Listener[] newEventListeners = without(eventListeners, target);
+            if (newEventListeners != eventListeners) {
+                newListeners[eventId] = newEventListeners;
+                changed = true;
             }
-        });
+        }
+        if (changed) {
+            this.listeners = newListeners;
+        }
+    }
+
+    protected static Listener[] without(Listener[] eventListeners, IEventListenableNetworkElement<?> target) {
+        for (int i = 0; i < eventListeners.length; i++) {
+            if (eventListeners[i].element.equals(target)) {
+                Listener[] newEventListeners = new Listener[eventListeners.length - 1];
+                System.arraycopy(eventListeners, 0, newEventListeners, 0, i);
+                System.arraycopy(eventListeners, i + 1, newEventListeners, i, eventListeners.length - i - 1);
+                return newEventListeners;
+            }
+        }
+        return eventListeners;
     }
 
     @Override
     public void post(INetworkEvent event) {
-        Set<IEventListenableNetworkElement<?>> listeners = this.listeners.get(event.getClass());
-        if(listeners != null) {
-            for (IEventListenableNetworkElement<?> listener : listeners) {
-                listener.getNetworkEventListener().ifPresent(l -> ((INetworkEventListener) l).onEvent(event, listener));
-            }
+        for (Listener listener : getListeners(this.listeners, getEventId(event.getClass()))) {
+            listener.onEvent(event);
         }
     }
 
@@ -65,4 +138,57 @@ public class NetworkEventBus implements INetworkEventBus {
         return !event.isCanceled();
     }
 
+    @Override
+    public void postCoalesced(ICoalescableNetworkEvent<?> event) {
+        // Events without listeners can be dropped immediately
+        if (getListeners(this.listeners, getEventId(event.getClass())).length == 0) {
+            return;
+        }
+        synchronized (this) {
+            ICoalescableNetworkEvent previous = coalescedEvents.get(event.getClass());
+            coalescedEvents.put(event.getClass(), previous == null ? event : previous.coalesce(event));
+        }
+    }
+
+    @Override
+    public void flushCoalesced() {
+        Map<Class<?>, ICoalescableNetworkEvent> events;
+        synchronized (this) {
+            if (coalescedEvents.isEmpty()) {
+                return;
+            }
+            events = coalescedEvents;
+            coalescedEvents = Maps.newLinkedHashMap();
+        }
+        for (ICoalescableNetworkEvent event : events.values()) {
+            post(event);
+        }
+    }
+
+    /**
+     * A registered network element, together with its resolved listener if it is static.
+     */
+    protected static class Listener {
+
+        private final IEventListenableNetworkElement<?> element;
+        @Nullable
+        private final INetworkEventListener listener;
+
+        public Listener(IEventListenableNetworkElement<?> element) {
+            this.element = element;
+            this.listener = element.isNetworkEventListenerStatic() ? element.getNetworkEventListener().orElse(null) : null;
+        }
+
+        public void onEvent(INetworkEvent event) {
+            if (listener != null) {
+                listener.onEvent(event, element);
+            } else {
+                Optional<? extends INetworkEventListener<?>> dynamicListener = element.getNetworkEventListener();
+                if (dynamicListener.isPresent()) {
+                    ((INetworkEventListener) dynamicListener.get()).onEvent(event, element);
+                }
+            }
+        }
+    }
+
 }
@@ -1,15 +1,95 @@
 package org.cyclops.integrateddynamics.core.network.event;
 
+import it.unimi.dsi.fastutil.ints.IntCollection;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.ints.IntSets;
 import org.cyclops.integrateddynamics.api.network.INetwork;
+import org.cyclops.integrateddynamics.api.network.event.ICoalescableNetworkEvent;
+
+import javax.annotation.Nullable;
 
 /**
  * An event used to signal network elements of updated variables inside the network.
+ *
+ * If this event is targeted, it only concerns the variables with the given ids,
+ * otherwise all variables in the network must be considered as being updated.
+ *
+ * This event should be posted via {@link org.cyclops.integrateddynamics.api.network.event.INetworkEventBus#postCoalesced(ICoalescableNetworkEvent)},
+ * so that multiple updates within the same tick only cause a single dispatch.
+ *
  * @author rubensworks
  */
-public class VariableContentsUpdatedEvent extends NetworkEvent {
+public class VariableContentsUpdatedEvent extends NetworkEvent implements ICoalescableNetworkEvent<VariableContentsUpdatedEvent> {
+
+    @Nullable
+    private final IntSet variableIds;
 
+    /**
+     * Create an untargeted event.
+     * @param network The network.
+     */
     public VariableContentsUpdatedEvent(INetwork network) {
+        this(network, null);
+    }
+
+    /**
+     * Create an event that targets the given variable ids.
+     * @param network The network.
+     * @param variableIds The ids of the updated variables, or null if all variables may have been updated.
+     */
+    public VariableContentsUpdatedEvent(INetwork network, @Nullable IntSet variableIds) {
         super(network);
+        this.variableIds = variableIds;
+    }
+
+    /**
+     * @return If this event only concerns specific variable ids.
+     */
+    public boolean isTargeted() {
+        return this.variableIds != null;
+    }
+
+    /**
+     * @return The ids of the updated variables, or null if this event is not targeted.
+     */
+    @Nullable
+    public IntSet getVariableIds() {
+        return this.variableIds == null ? null : IntSets.unmodifiable(this.variableIds);
+    }
+
+    /**
+     * Check if this event concerns any of the given variable dependencies.
+     * @param dependencies Variable ids, or null if the dependencies are unknown.
+     * @return If the given dependencies are affected by this event.
+     */
+    public boolean affects(@Nullable IntCollection dependencies) {
+        if (this.variableIds == null || dependencies == null) {
+            return true;
+        }
+        IntCollection smallest = dependencies.size() < this.variableIds.size() ? dependencies : this.variableIds;
+        IntCollection largest = smallest == dependencies ? this.variableIds : dependencies;
+        IntIterator it = smallest.iterator();
+        while (it.hasNext()) {
+            if (largest.contains(it.nextInt())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public VariableContentsUpdatedEvent coalesce(VariableContentsUpdatedEvent other) {
+        if (this.variableIds == null) {
+            return this;
+        }
+        if (other.variableIds == null) {
+            return other;
+        }
+        IntSet variableIds = new IntOpenHashSet(this.variableIds);
+        variableIds.addAll(other.variableIds);
+        return new VariableContentsUpdatedEvent(getNetwork(), variableIds);
     }
 
 }
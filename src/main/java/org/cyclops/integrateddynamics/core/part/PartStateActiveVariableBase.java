@@ -1,6 +1,7 @@
 package org.cyclops.integrateddynamics.core.part;
 
 import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import lombok.Getter;
 import lombok.Setter;
 import net.minecraft.item.ItemStack;
@@ -29,6 +30,7 @@ import org.cyclops.integrateddynamics.capability.variablecontainer.VariableConta
 import org.cyclops.integrateddynamics.capability.variablecontainer.VariableContainerDefault;
 import org.cyclops.integrateddynamics.core.helper.NetworkHelpers;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 /**
@@ -39,6 +41,7 @@ public abstract class PartStateActiveVariableBase<P extends IPartType> extends P
 
     private boolean checkedForWriteVariable = false;
     protected IVariableFacade currentVariableFacade = null;
+    private IntSet variableDependencies = null;
     private final IVariableContainer variableContainer;
     @Getter
     @Setter
@@ -61,6 +64,7 @@ public abstract class PartStateActiveVariableBase<P extends IPartType> extends P
     }
 
     protected void validate(IPartNetwork network) {
+        this.variableDependencies = NetworkHelpers.getVariableDependencies(network, this.currentVariableFacade);
         // Note that this is only called server-side, so these errors are sent via NBT to the client(s).
         this.currentVariableFacade.validate(network,
                 new PartStateActiveVariableBase.Validator(this), currentVariableFacade.getOutputType());
@@ -117,6 +121,7 @@ public abstract class PartStateActiveVariableBase<P extends IPartType> extends P
         this.checkedForWriteVariable = false;
         addGlobalError(null);
         this.currentVariableFacade = null;
+        this.variableDependencies = null;
         //this.deactivated = false; // This *should* not be required anymore, re-activation is handled in AspectWriteBase#update.
 
         // Refresh any contained variables
@@ -125,6 +130,15 @@ public abstract class PartStateActiveVariableBase<P extends IPartType> extends P
                 .ifPresent(network -> variableContainer.refreshVariables(network, inventory, false));
     }
 
+    /**
+     * @return The ids of all variables in the network the active variable depends on,
+     *         or null if they are not known yet.
+     */
+    @Nullable
+    public IntSet getVariableDependencies() {
+        return this.variableDependencies;
+    }
+
     /**
      * @return All global error messages.
      */
@@ -81,8 +81,12 @@ public abstract class PartTypePanelVariableDriven<P extends PartTypePanelVariabl
     @Override
     protected Map<Class<? extends INetworkEvent>, IEventAction> constructNetworkEventActions() {
         Map<Class<? extends INetworkEvent>, IEventAction> actions = super.constructNetworkEventActions();
-        IEventAction<P, S, INetworkEvent> updateEventListener = (network, target, state, event) -> NetworkHelpers
-                .getPartNetwork(network).ifPresent(partNetwork -> onVariableContentsUpdated(partNetwork, target, state));
+        IEventAction<P, S, INetworkEvent> updateEventListener = (network, target, state, event) -> {
+            // Only refresh if the updated variables can influence our variable
+            if (!(event instanceof VariableContentsUpdatedEvent) || ((VariableContentsUpdatedEvent) event).affects(state.getVariableDependencies())) {
+                NetworkHelpers.getPartNetwork(network).ifPresent(partNetwork -> onVariableContentsUpdated(partNetwork, target, state));
+            }
+        };
         actions.put(VariableContentsUpdatedEvent.class, updateEventListener);
         actions.put(NetworkElementAddEvent.Post.class, updateEventListener);
         return actions;
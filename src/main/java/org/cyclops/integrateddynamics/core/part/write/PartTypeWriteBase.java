@@ -69,8 +69,12 @@ public abstract class PartTypeWriteBase<P extends IPartTypeWriter<P, S>, S exten
     @Override
     protected Map<Class<? extends INetworkEvent>, IEventAction> constructNetworkEventActions() {
         Map<Class<? extends INetworkEvent>, IEventAction> actions = super.constructNetworkEventActions();
-        IEventAction<P, S, INetworkEvent> updateEventListener = (network, target, state, event) -> NetworkHelpers
-                .getPartNetwork(network).ifPresent(partNetwork -> onVariableContentsUpdated(partNetwork, target, state));
+        IEventAction<P, S, INetworkEvent> updateEventListener = (network, target, state, event) -> {
+            // Only refresh if the updated variables can influence our variable
+            if (!(event instanceof VariableContentsUpdatedEvent) || ((VariableContentsUpdatedEvent) event).affects(state.getVariableDependencies())) {
+                NetworkHelpers.getPartNetwork(network).ifPresent(partNetwork -> onVariableContentsUpdated(partNetwork, target, state));
+            }
+        };
         actions.put(VariableContentsUpdatedEvent.class, updateEventListener);
         actions.put(NetworkElementAddEvent.Post.class, updateEventListener);
         return actions;
@@ -160,7 +164,7 @@ public abstract class PartTypeWriteBase<P extends IPartTypeWriter<P, S>, S exten
             }
         }
         if (network != null) {
-            network.getEventBus().post(new VariableContentsUpdatedEvent(network));
+            network.getEventBus().postCoalesced(new VariableContentsUpdatedEvent(network));
         }
     }
 
@@ -1,10 +1,18 @@
 package org.cyclops.integrateddynamics.core.path;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
-import org.cyclops.cyclopscore.datastructure.DimPos;
+import org.apache.logging.log4j.Level;
+import org.cyclops.integrateddynamics.GeneralConfig;
+import org.cyclops.integrateddynamics.IntegratedDynamics;
 import org.cyclops.integrateddynamics.api.path.IPathElement;
 import org.cyclops.integrateddynamics.api.path.ISidedPathElement;
 
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -14,35 +22,155 @@ import java.util.TreeSet;
  */
 public final class PathFinder {
 
-    protected static TreeSet<ISidedPathElement> getConnectedElements(ISidedPathElement head, Set<DimPos> visitedPositions) {
+    /**
+     * Find all path elements that are connected to the given head.
+     * The traversal is done breadth-first and iteratively,
+     * so that long paths can not overflow the stack.
+     * @param head The head to start from.
+     * @return The cluster of connected path elements, including the head.
+     */
+    public static Cluster getConnectedCluster(ISidedPathElement head) {
         TreeSet<ISidedPathElement> elements = Sets.newTreeSet();
+        PositionIndex visitedPositions = new PositionIndex();
+        Queue<ISidedPathElement> queue = new ArrayDeque<>();
+        visitedPositions.putIfAbsent(head.getPathElement().getPosition(), 0);
+        elements.add(head);
+        queue.add(head);
 
-        // Make sure to add our head
-        if(!visitedPositions.contains(head.getPathElement().getPosition())) {
-            elements.add(head);
-            visitedPositions.add(head.getPathElement().getPosition());
-        }
-
-        // Add neighbours that haven't been checked yet.
-        for(ISidedPathElement neighbour : head.getPathElement().getReachableElements()) {
-            if(!visitedPositions.contains(neighbour.getPathElement().getPosition())) {
-                elements.add(neighbour);
-                visitedPositions.add(neighbour.getPathElement().getPosition());
+        boolean warned = false;
+        ISidedPathElement element;
+        while ((element = queue.poll()) != null) {
+            // Add neighbours that haven't been checked yet.
+            for (ISidedPathElement neighbour : element.getPathElement().getReachableElements()) {
+                if (visitedPositions.putIfAbsent(neighbour.getPathElement().getPosition(), 0) < 0) {
+                    elements.add(neighbour);
+                    queue.add(neighbour);
+                }
+            }
+            if (!warned) {
+                warned = checkClusterSize(head, elements.size());
             }
         }
 
-        // Loop over the added neighbours to recursively check their neighbours.
-        Set<ISidedPathElement> neighbourElements = Sets.newHashSet();
-        for(ISidedPathElement addedElement : elements) {
-            neighbourElements.addAll(getConnectedElements(addedElement, visitedPositions));
+        return new Cluster(elements);
+    }
+
+    /**
+     * Log a warning if the given cluster size exceeds the configured size.
+     * @param head The head of the cluster.
+     * @param size The current cluster size.
+     * @return If a warning was logged.
+     */
+    protected static boolean checkClusterSize(ISidedPathElement head, int size) {
+        int maxSize = GeneralConfig.pathFinderMaxClusterSize;
+        if (maxSize > 0 && size > maxSize) {
+            IntegratedDynamics.clog(Level.WARN, String.format("Found a network with more than %s path elements " +
+                    "starting from %s. Consider splitting up this network.", maxSize, head.getPathElement().getPosition()));
+            return true;
         }
-        elements.addAll(neighbourElements);
+        return false;
+    }
 
-        return elements;
+    protected static int findRoot(int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
     }
 
-    public static Cluster getConnectedCluster(ISidedPathElement head) {
-        return new Cluster(getConnectedElements(head, Sets.<DimPos>newTreeSet()));
+    /**
+     * Find the clusters that have become disconnected from each other,
+     * starting from the given heads that were all part of the same cluster before.
+     *
+     * All heads are traversed simultaneously, one element at a time,
+     * and traversals that meet each other are merged.
+     * As soon as at most one traversal is still running, all other traversals have found a disconnected cluster.
+     * This means that only the disconnected clusters are fully traversed,
+     * and that nothing is fully traversed if no disconnection happened.
+     *
+     * @param heads The heads to start from.
+     * @return The clusters that became disconnected from the remaining (largest) cluster.
+     */
+    public static List<Cluster> getDisconnectedClusters(List<ISidedPathElement> heads) {
+        int count = heads.size();
+        int[] parents = new int[count];
+        List<Queue<ISidedPathElement>> queues = Lists.newArrayListWithExpectedSize(count);
+        List<TreeSet<ISidedPathElement>> visited = Lists.newArrayListWithExpectedSize(count);
+        PositionIndex owners = new PositionIndex();
+        for (int i = 0; i < count; i++) {
+            parents[i] = i;
+            queues.add(new ArrayDeque<>());
+            visited.add(Sets.newTreeSet());
+            ISidedPathElement head = heads.get(i);
+            int owner = owners.putIfAbsent(head.getPathElement().getPosition(), i);
+            if (owner < 0) {
+                queues.get(i).add(head);
+                visited.get(i).add(head);
+            } else {
+                parents[i] = findRoot(parents, owner);
+            }
+        }
+
+        // Traverse until at most one group of traversals is still running
+        Set<Integer> activeGroups = Sets.newHashSet();
+        do {
+            activeGroups.clear();
+            for (int i = 0; i < count; i++) {
+                ISidedPathElement element = queues.get(i).poll();
+                if (element != null) {
+                    for (ISidedPathElement neighbour : element.getPathElement().getReachableElements()) {
+                        int owner = owners.putIfAbsent(neighbour.getPathElement().getPosition(), i);
+                        if (owner < 0) {
+                            queues.get(i).add(neighbour);
+                            visited.get(i).add(neighbour);
+                        } else {
+                            int rootA = findRoot(parents, i);
+                            int rootB = findRoot(parents, owner);
+                            if (rootA != rootB) {
+                                parents[rootB] = rootA;
+                            }
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                if (!queues.get(i).isEmpty()) {
+                    activeGroups.add(findRoot(parents, i));
+                }
+            }
+        } while (activeGroups.size() > 1);
+
+        // Combine the visited elements per group
+        Map<Integer, TreeSet<ISidedPathElement>> groups = Maps.newHashMap();
+        for (int i = 0; i < count; i++) {
+            int root = findRoot(parents, i);
+            TreeSet<ISidedPathElement> group = groups.get(root);
+            if (group == null) {
+                groups.put(root, visited.get(i));
+            } else {
+                group.addAll(visited.get(i));
+            }
+        }
+
+        // The running group, or the largest group if all are finished, remains in the original cluster.
+        Integer remainingGroup = activeGroups.isEmpty() ? null : activeGroups.iterator().next();
+        if (remainingGroup == null) {
+            int maxSize = -1;
+            for (Map.Entry<Integer, TreeSet<ISidedPathElement>> entry : groups.entrySet()) {
+                if (entry.getValue().size() > maxSize) {
+                    maxSize = entry.getValue().size();
+                    remainingGroup = entry.getKey();
+                }
+            }
+        }
+        List<Cluster> clusters = Lists.newArrayList();
+        for (Map.Entry<Integer, TreeSet<ISidedPathElement>> entry : groups.entrySet()) {
+            if (!entry.getKey().equals(remainingGroup)) {
+                clusters.add(new Cluster(entry.getValue()));
+            }
+        }
+        return clusters;
     }
 
 }
@@ -0,0 +1,60 @@
+package org.cyclops.integrateddynamics.core.path;
+
+import com.google.common.collect.Maps;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import org.cyclops.cyclopscore.datastructure.DimPos;
+
+import java.util.Map;
+
+/**
+ * A map from positions to non-negative integer values.
+ * Positions are grouped by dimension, and are stored as packed longs within each dimension.
+ * @author rubensworks
+ */
+public class PositionIndex {
+
+    private final Map<String, Long2IntMap> dimensions = Maps.newHashMap();
+    private String lastDimension = null;
+    private Long2IntMap lastPositions = null;
+
+    protected Long2IntMap getPositions(String dimension) {
+        // Most lookups happen within the same dimension, so we cache the last one.
+        if (!dimension.equals(lastDimension)) {
+            Long2IntMap positions = dimensions.get(dimension);
+            if (positions == null) {
+                positions = new Long2IntOpenHashMap();
+                positions.defaultReturnValue(-1);
+                dimensions.put(dimension, positions);
+            }
+            lastDimension = dimension;
+            lastPositions = positions;
+        }
+        return lastPositions;
+    }
+
+    /**
+     * @param pos A position.
+     * @return The value of the given position, or -1 if it is not present.
+     */
+    public int get(DimPos pos) {
+        return getPositions(pos.getWorld()).get(pos.getBlockPos().toLong());
+    }
+
+    /**
+     * Set the value of the given position if it was not present yet.
+     * @param pos A position.
+     * @param value A non-negative value.
+     * @return The existing value of the position, or -1 if it was not present yet.
+     */
+    public int putIfAbsent(DimPos pos, int value) {
+        Long2IntMap positions = getPositions(pos.getWorld());
+        long key = pos.getBlockPos().toLong();
+        int existing = positions.get(key);
+        if (existing < 0) {
+            positions.put(key, value);
+        }
+        return existing;
+    }
+
+}
@@ -1,16 +1,39 @@
 package org.cyclops.integrateddynamics.core.persist.world;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
 import org.cyclops.cyclopscore.init.ModBase;
 import org.cyclops.cyclopscore.persist.nbt.NBTPersist;
 import org.cyclops.cyclopscore.persist.world.WorldStorage;
 import org.cyclops.integrateddynamics.api.network.INetwork;
+import org.cyclops.integrateddynamics.core.network.Network;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * World NBT storage for all active networks.
+ *
+ * Readers never copy the network set.
+ * Instead, an immutable snapshot of all networks is published whenever networks are added or removed,
+ * which can be iterated for free for as long as the set of networks does not change.
+ * Snapshots are additionally sharded by dimension on demand.
+ *
+ * Dormant networks are excluded from the active networks that are ticked,
+ * and are woken up again when one of the chunks they are present in is loaded.
+ *
  * @author rubensworks
  */
 public class NetworkWorldStorage extends WorldStorage {
@@ -20,8 +43,15 @@ public class NetworkWorldStorage extends WorldStorage {
     @NBTPersist
     private Set<INetwork> networks = Sets.newHashSet();
 
+    private final Map<INetwork, Map<String, LongSet>> dormantNetworks = Maps.newIdentityHashMap();
+    private final Map<String, Long2ObjectMap<List<INetwork>>> dormantNetworkChunks = Maps.newHashMap();
+
+    private long version = 0;
+    private volatile Snapshot snapshot = null;
+
     private NetworkWorldStorage(ModBase mod) {
         super(mod);
+        MinecraftForge.EVENT_BUS.register(this);
     }
 
     public static NetworkWorldStorage getInstance(ModBase mod) {
@@ -32,8 +62,11 @@ public class NetworkWorldStorage extends WorldStorage {
     }
 
     @Override
-    public void reset() {
+    public synchronized void reset() {
         networks.clear();
+        dormantNetworks.clear();
+        dormantNetworkChunks.clear();
+        invalidateSnapshot();
     }
 
     @Override
@@ -46,7 +79,9 @@ public class NetworkWorldStorage extends WorldStorage {
      * @param network The network.
      */
     public synchronized void addNewNetwork(INetwork network) {
-        networks.add(network);
+        if (networks.add(network)) {
+            invalidateSnapshot();
+        }
     }
 
     /**
@@ -55,18 +90,181 @@ public class NetworkWorldStorage extends WorldStorage {
      * @param network The network.
      */
     public synchronized void removeInvalidatedNetwork(INetwork network) {
-        networks.remove(network);
+        removeDormantNetwork(network);
+        if (networks.remove(network)) {
+            invalidateSnapshot();
+        }
     }
 
     /**
-     * @return A thread-safe copy of the current network set.
+     * Mark the given network as dormant, so that it is not ticked anymore
+     * until {@link #removeDormantNetwork(INetwork)} is called,
+     * or until one of the given chunks is loaded.
+     * @param network The network.
+     * @param chunks The chunks the network is present in, as packed chunk positions per dimension key.
+     * @return If the network was marked as dormant.
      */
-    public synchronized Set<INetwork> getNetworks() {
-        return Collections.unmodifiableSet(Sets.newHashSet(networks));
+    public synchronized boolean addDormantNetwork(INetwork network, Map<String, LongSet> chunks) {
+        if (!networks.contains(network) || dormantNetworks.containsKey(network)) {
+            return false;
+        }
+        dormantNetworks.put(network, chunks);
+        for (Map.Entry<String, LongSet> entry : chunks.entrySet()) {
+            Long2ObjectMap<List<INetwork>> dimensionChunks = dormantNetworkChunks
+                    .computeIfAbsent(entry.getKey(), d -> new Long2ObjectOpenHashMap<>());
+            LongIterator it = entry.getValue().iterator();
+            while (it.hasNext()) {
+                dimensionChunks.computeIfAbsent(it.nextLong(), c -> Lists.newArrayListWithCapacity(1)).add(network);
+            }
+        }
+        invalidateSnapshot();
+        return true;
+    }
+
+    /**
+     * Mark the given network as not dormant anymore, so that it will be ticked again.
+     * This is allowed to be called if the network was not dormant.
+     * @param network The network.
+     */
+    public synchronized void removeDormantNetwork(INetwork network) {
+        Map<String, LongSet> chunks = dormantNetworks.remove(network);
+        if (chunks != null) {
+            for (Map.Entry<String, LongSet> entry : chunks.entrySet()) {
+                Long2ObjectMap<List<INetwork>> dimensionChunks = dormantNetworkChunks.get(entry.getKey());
+                LongIterator it = entry.getValue().iterator();
+                while (it.hasNext()) {
+                    long chunk = it.nextLong();
+                    List<INetwork> chunkNetworks = dimensionChunks.get(chunk);
+                    chunkNetworks.remove(network);
+                    if (chunkNetworks.isEmpty()) {
+                        dimensionChunks.remove(chunk);
+                    }
+                }
+                if (dimensionChunks.isEmpty()) {
+                    dormantNetworkChunks.remove(entry.getKey());
+                }
+            }
+            invalidateSnapshot();
+        }
+    }
+
+    /**
+     * @return The number of dormant networks.
+     */
+    public synchronized int getDormantNetworkCount() {
+        return dormantNetworks.size();
+    }
+
+    /**
+     * @return The number of networks that are not dormant.
+     */
+    public synchronized int getActiveNetworkCount() {
+        return networks.size() - dormantNetworks.size();
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getWorld() instanceof World && !event.getWorld().isRemote()) {
+            String dimension = ((World) event.getWorld()).getDimensionKey().getLocation().toString();
+            List<INetwork> wakingNetworks;
+            synchronized (this) {
+                Long2ObjectMap<List<INetwork>> dimensionChunks = dormantNetworkChunks.get(dimension);
+                List<INetwork> chunkNetworks = dimensionChunks == null ? null : dimensionChunks.get(event.getChunk().getPos().asLong());
+                if (chunkNetworks == null) {
+                    return;
+                }
+                wakingNetworks = Lists.newArrayList(chunkNetworks);
+            }
+            for (INetwork network : wakingNetworks) {
+                if (network instanceof Network) {
+                    ((Network) network).wake();
+                } else {
+                    removeDormantNetwork(network);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indicate that the dimensions a network is present in have changed,
+     * so that the dimension shards can be updated.
+     * @param network The network.
+     */
+    public synchronized void onNetworkDimensionsChanged(INetwork network) {
+        if (networks.contains(network)) {
+            invalidateSnapshot();
+        }
+    }
+
+    protected synchronized void invalidateSnapshot() {
+        this.version++;
+        this.snapshot = null;
+    }
+
+    protected Snapshot getSnapshot() {
+        Snapshot snapshot = this.snapshot;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = this.snapshot;
+                if (snapshot == null) {
+                    INetwork[] activeNetworks = networks.stream()
+                            .filter(network -> !dormantNetworks.containsKey(network))
+                            .toArray(INetwork[]::new);
+                    snapshot = new Snapshot(this.version, networks.toArray(new INetwork[0]), activeNetworks);
+                    this.snapshot = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return An immutable view of the current network set.
+     *         The returned set will not reflect networks that are added or removed afterwards.
+     */
+    public Set<INetwork> getNetworks() {
+        return getSnapshot().getNetworkSet();
+    }
+
+    /**
+     * @return An immutable snapshot of the current networks.
+     *         The returned array must not be modified.
+     */
+    public INetwork[] getNetworkArray() {
+        return getSnapshot().getNetworks();
+    }
+
+    /**
+     * @return An immutable snapshot of the current networks that are not dormant.
+     *         The returned array must not be modified.
+     */
+    public INetwork[] getActiveNetworkArray() {
+        return getSnapshot().getActiveNetworks();
+    }
+
+    /**
+     * Get all networks that are present in the given dimension.
+     * Networks of which the dimensions are not known yet are included in all dimensions.
+     * @param dimension The dimension key.
+     * @return An immutable snapshot of networks in the given dimension.
+     *         The returned array must not be modified.
+     */
+    public INetwork[] getNetworks(String dimension) {
+        return getSnapshot().getNetworks(dimension);
+    }
+
+    /**
+     * @return The version of the current network set,
+     *         which is incremented each time the set of (dormant) networks changes.
+     */
+    public long getVersion() {
+        return getSnapshot().getVersion();
     }
 
     @Override
     public void afterLoad() {
+        // The network set has been replaced by the loaded one
+        invalidateSnapshot();
         for(INetwork network : networks) {
             network.afterServerLoad();
         }
@@ -79,4 +277,59 @@ public class NetworkWorldStorage extends WorldStorage {
         }
     }
 
+    /**
+     * An immutable snapshot of the network set at a certain version.
+     */
+    protected static class Snapshot {
+
+        private final long version;
+        private final INetwork[] networks;
+        private final INetwork[] activeNetworks;
+        private final Set<INetwork> networkSet;
+        private volatile Map<String, INetwork[]> dimensionNetworks = Collections.emptyMap();
+
+        public Snapshot(long version, INetwork[] networks, INetwork[] activeNetworks) {
+            this.version = version;
+            this.networks = networks;
+            this.activeNetworks = activeNetworks;
+            this.networkSet = Collections.unmodifiableSet(Sets.newHashSet(Arrays.asList(networks)));
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public INetwork[] getNetworks() {
+            return networks;
+        }
+
+        public INetwork[] getActiveNetworks() {
+            return activeNetworks;
+        }
+
+        public Set<INetwork> getNetworkSet() {
+            return networkSet;
+        }
+
+        public INetwork[] getNetworks(String dimension) {
+            INetwork[] shard = dimensionNetworks.get(dimension);
+            if (shard == null) {
+                shard = Arrays.stream(networks)
+                        .filter(network -> {
+                            Set<String> dimensions = network instanceof Network ? ((Network) network).getDimensions() : null;
+                            return dimensions == null || dimensions.contains(dimension);
+                        })
+                        .toArray(INetwork[]::new);
+                // Shards are published copy-on-write, as they are only created once per dimension
+                synchronized (this) {
+                    Map<String, INetwork[]> newDimensionNetworks = Maps.newHashMap(dimensionNetworks);
+                    newDimensionNetworks.put(dimension, shard);
+                    dimensionNetworks = newDimensionNetworks;
+                }
+            }
+            return shard;
+        }
+
+    }
+
 }
@@ -108,7 +108,8 @@ public abstract class TileActiveVariableBase<E> extends TileCableConnectableInve
 
     @Override
     public void onEvent(INetworkEvent event, E networkElement) {
-        if(event instanceof VariableContentsUpdatedEvent) {
+        if(event instanceof VariableContentsUpdatedEvent
+                && ((VariableContentsUpdatedEvent) event).affects(evaluator.getVariableDependencies())) {
             updateReadVariable(false);
         }
     }
@@ -116,7 +116,7 @@ public class ContainerPartPanelVariableDriven<P extends PartTypePanelVariableDri
 
             }
             optionalNetwork
-                    .ifPresent(network -> network.getEventBus().post(new VariableContentsUpdatedEvent(network)));
+                    .ifPresent(network -> network.getEventBus().postCoalesced(new VariableContentsUpdatedEvent(network)));
         }
     }
 
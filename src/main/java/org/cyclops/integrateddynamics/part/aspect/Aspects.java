@@ -36,13 +36,12 @@ import org.cyclops.cyclopscore.helper.FluidHelpers;
 import org.cyclops.cyclopscore.helper.LocationHelpers;
 import org.cyclops.cyclopscore.helper.MinecraftHelpers;
 import org.cyclops.cyclopscore.helper.TileHelpers;
-import org.cyclops.integrateddynamics.GeneralConfig;
 import org.cyclops.integrateddynamics.IntegratedDynamics;
 import org.cyclops.integrateddynamics.Reference;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.IValueInterface;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
-import org.cyclops.integrateddynamics.api.network.IEnergyConsumingNetworkElement;
+import org.cyclops.integrateddynamics.api.network.IEnergyNetwork;
 import org.cyclops.integrateddynamics.api.part.PartPos;
 import org.cyclops.integrateddynamics.api.part.PartTarget;
 import org.cyclops.integrateddynamics.api.part.aspect.AspectUpdateType;
@@ -658,11 +657,9 @@ public class Aspects {
                     ).handle(AspectReadBuilders.PROP_GET_INTEGER, "energy").appendKind("max").buildRead();
             public static final IAspectRead<ValueTypeInteger.ValueInteger, ValueTypeInteger> INTEGER_ENERGY_CONSUMPTION_RATE =
                     AspectReadBuilders.Network.BUILDER_INTEGER.handle(
-                            network -> network != null && GeneralConfig.energyConsumptionMultiplier > 0
-                                    ? network.getElements().stream()
-                                    .mapToInt((e) -> e instanceof IEnergyConsumingNetworkElement
-                                            ? ((IEnergyConsumingNetworkElement) e).getConsumptionRate() : 0).sum()
-                                    * GeneralConfig.energyConsumptionMultiplier : 0
+                            network -> network != null ? network.getCapability(EnergyNetworkConfig.CAPABILITY)
+                                    .map(IEnergyNetwork::getConsumptionRate)
+                                    .orElse(0) : 0
                     ).handle(AspectReadBuilders.PROP_GET_INTEGER, "energy").appendKind("consumptionrate").buildRead();
             public static final IAspectRead<IValue, ValueTypeCategoryAny> ANY_VALUE =
                     AspectReadBuilders.BUILDER_ANY.appendKind("network").handle(
@@ -24,7 +24,9 @@ import org.cyclops.integrateddynamics.RegistryEntries;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.item.IProxyVariableFacade;
 import org.cyclops.integrateddynamics.api.item.IVariableFacadeHandlerRegistry;
+import org.cyclops.integrateddynamics.api.network.INetwork;
 import org.cyclops.integrateddynamics.api.network.INetworkElement;
+import org.cyclops.integrateddynamics.api.network.event.INetworkEvent;
 import org.cyclops.integrateddynamics.capability.networkelementprovider.NetworkElementProviderConfig;
 import org.cyclops.integrateddynamics.capability.networkelementprovider.NetworkElementProviderSingleton;
 import org.cyclops.integrateddynamics.core.evaluate.InventoryVariableEvaluator;
@@ -32,6 +34,7 @@ import org.cyclops.integrateddynamics.core.evaluate.ProxyVariableFacadeHandler;
 import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypes;
 import org.cyclops.integrateddynamics.core.helper.L10NValues;
 import org.cyclops.integrateddynamics.core.item.ProxyVariableFacade;
+import org.cyclops.integrateddynamics.core.network.event.VariableContentsUpdatedEvent;
 import org.cyclops.integrateddynamics.core.tileentity.TileActiveVariableBase;
 import org.cyclops.integrateddynamics.inventory.container.ContainerProxy;
 import org.cyclops.integrateddynamics.network.ProxyNetworkElement;
@@ -137,6 +140,20 @@ public class TileProxy extends TileActiveVariableBase<ProxyNetworkElement> imple
         return SLOT_WRITE_OUT;
     }
 
+    @Override
+    public void onEvent(INetworkEvent event, ProxyNetworkElement networkElement) {
+        super.onEvent(event, networkElement);
+        // Variables referring to this proxy are not known by variable id,
+        // so targeted updates that affect this proxy are forwarded to the whole network.
+        if (event instanceof VariableContentsUpdatedEvent && ((VariableContentsUpdatedEvent) event).isTargeted()
+                && ((VariableContentsUpdatedEvent) event).affects(getEvaluator().getVariableDependencies())) {
+            INetwork network = getNetwork();
+            if (network != null) {
+                network.getEventBus().postCoalesced(new VariableContentsUpdatedEvent(network));
+            }
+        }
+    }
+
     @Override
     public void onDirty() {
         super.onDirty();
@@ -0,0 +1,51 @@
+package org.cyclops.integrateddynamics.core.evaluate.operator;
+
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.core.evaluate.variable.DummyVariableBoolean;
+import org.cyclops.integrateddynamics.core.evaluate.variable.DummyVariableInteger;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeBoolean;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeInteger;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test the input validation of operators.
+ * @author rubensworks
+ */
+public class TestOperatorBase {
+
+    @Test
+    public void testBuiltOperatorDefaultTypeValidation() {
+        // Operators from builders without a type validator check their input variables directly
+        assertThat(((OperatorBase) Operators.ARITHMETIC_ADDITION).hasCustomTypeValidation(), is(false));
+        assertThat(((OperatorBase) Operators.LOGICAL_AND).hasCustomTypeValidation(), is(false));
+    }
+
+    @Test
+    public void testBuiltOperatorCustomTypeValidation() {
+        assertThat(((OperatorBase) Operators.OPERATOR_APPLY).hasCustomTypeValidation(), is(true));
+    }
+
+    @Test
+    public void testGeneralOperatorCustomTypeValidation() {
+        assertThat(Operators.GENERAL_CHOICE.hasCustomTypeValidation(), is(true));
+        assertThat(Operators.GENERAL_IDENTITY.hasCustomTypeValidation(), is(true));
+        assertThat(Operators.GENERAL_CONSTANT.hasCustomTypeValidation(), is(true));
+    }
+
+    @Test
+    public void testBuiltOperatorValidateInput() {
+        OperatorBase operator = (OperatorBase) Operators.ARITHMETIC_ADDITION;
+        IVariable i1 = new DummyVariableInteger(ValueTypeInteger.ValueInteger.of(1));
+        IVariable i2 = new DummyVariableInteger(ValueTypeInteger.ValueInteger.of(2));
+        IVariable b = new DummyVariableBoolean(ValueTypeBoolean.ValueBoolean.of(true));
+
+        assertThat(operator.validateInput(new IVariable[]{i1, i2}), nullValue());
+        assertThat(operator.validateInput(new IVariable[]{i1, b}), notNullValue());
+        assertThat(operator.validateInput(new IVariable[]{i1}), notNullValue());
+        assertThat(operator.validateInput(new IVariable[]{i1, null}), notNullValue());
+    }
+
+}
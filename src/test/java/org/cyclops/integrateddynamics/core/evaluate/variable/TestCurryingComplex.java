@@ -104,4 +104,33 @@ public class TestCurryingComplex {
         Operators.OPERATOR_APPLY.evaluate(new IVariable[]{new DummyVariable(ValueTypes.OPERATOR, oX), new DummyVariable(ValueTypes.OPERATOR, oX)});
     }
 
+    /**
+     * ----------------------------------- EVALUATE VALUES -----------------------------------
+     */
+
+    @Test
+    public void testCurriedEvaluateValues() throws EvaluationException {
+        CurriedOperator add4 = new CurriedOperator(Operators.ARITHMETIC_ADDITION, i4);
+        IValue res1 = ValueHelpers.evaluateOperator(add4, ValueTypeInteger.ValueInteger.of(8));
+        IValue res2 = ValueHelpers.evaluateOperator(add4, ValueTypeInteger.ValueInteger.of(1));
+        assertThat("(4 +) 8 = 12", ((ValueTypeInteger.ValueInteger) res1).getRawValue(), is(12));
+        assertThat("(4 +) 1 = 5", ((ValueTypeInteger.ValueInteger) res2).getRawValue(), is(5));
+    }
+
+    @Test
+    public void testCurriedEvaluateValuesOperatorResult() throws EvaluationException {
+        DummyVariableOperator oAdd = new DummyVariableOperator(ValueTypeOperator.ValueOperator.of(Operators.ARITHMETIC_ADDITION));
+        CurriedOperator applyAdd = new CurriedOperator(Operators.OPERATOR_APPLY, oAdd);
+
+        // Both results hold on to the value that was applied to them
+        IValue add4 = ValueHelpers.evaluateOperator(applyAdd, ValueTypeInteger.ValueInteger.of(4));
+        IValue add8 = ValueHelpers.evaluateOperator(applyAdd, ValueTypeInteger.ValueInteger.of(8));
+        assertThat("result is a curried operator", ((ValueTypeOperator.ValueOperator) add4).getRawValue(), instanceOf(CurriedOperator.class));
+
+        IValue res4 = ValueHelpers.evaluateOperator(((ValueTypeOperator.ValueOperator) add4).getRawValue(), ValueTypeInteger.ValueInteger.of(1));
+        IValue res8 = ValueHelpers.evaluateOperator(((ValueTypeOperator.ValueOperator) add8).getRawValue(), ValueTypeInteger.ValueInteger.of(1));
+        assertThat("(4 +) 1 = 5", ((ValueTypeInteger.ValueInteger) res4).getRawValue(), is(5));
+        assertThat("(8 +) 1 = 9", ((ValueTypeInteger.ValueInteger) res8).getRawValue(), is(9));
+    }
+
 }
@@ -1,9 +1,13 @@
 package org.cyclops.integrateddynamics.core.evaluate.variable;
 
 import net.minecraft.nbt.*;
+import org.cyclops.cyclopscore.nbt.path.INbtPathExpression;
+import org.cyclops.integrateddynamics.GeneralConfig;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.core.evaluate.operator.CurriedOperator;
+import org.cyclops.integrateddynamics.core.evaluate.operator.NbtPathExpressionCache;
 import org.cyclops.integrateddynamics.core.evaluate.operator.Operators;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -13,7 +17,10 @@ import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * Test the different NBT operators.
@@ -2137,4 +2144,65 @@ public class TestNbtOperators {
         Operators.NBT_PATH_TEST.evaluate(new IVariable[]{DUMMY_VARIABLE, DUMMY_VARIABLE});
     }
 
+    /**
+     * ----------------------------------- PATH CACHE -----------------------------------
+     */
+
+    @Test
+    public void testNbtPathCacheHit() throws EvaluationException {
+        long hits = NbtPathExpressionCache.getCache().getHits();
+        long misses = NbtPathExpressionCache.getCache().getMisses();
+        INbtPathExpression expression1 = NbtPathExpressionCache.parse("$.cache_hit.a");
+        INbtPathExpression expression2 = NbtPathExpressionCache.parse("$.cache_hit.a");
+        assertThat("a cached expression is reused", expression2, sameInstance(expression1));
+        assertThat("the first lookup is a miss", NbtPathExpressionCache.getCache().getMisses() - misses, is(1L));
+        assertThat("the second lookup is a hit", NbtPathExpressionCache.getCache().getHits() - hits, is(1L));
+    }
+
+    @Test
+    public void testNbtPathCacheInvalidPathRepeated() {
+        DummyVariable<ValueTypeString.ValueString> path = new DummyVariable<>(ValueTypes.STRING, ValueTypeString.ValueString.of("$.cache_invalid^"));
+        long misses = NbtPathExpressionCache.getCache().getMisses();
+        for (int i = 0; i < 2; i++) {
+            try {
+                Operators.NBT_PATH_TEST.evaluate(new IVariable[]{path, nempty});
+                fail("An invalid path must fail on each evaluation");
+            } catch (EvaluationException e) {
+                assertThat("each evaluation fails with its own error", e.getErrorMessage(), notNullValue());
+            }
+        }
+        assertThat("an invalid path is only parsed once", NbtPathExpressionCache.getCache().getMisses() - misses, is(1L));
+    }
+
+    @Test
+    public void testNbtPathCacheSizeLimit() throws EvaluationException {
+        for (int i = 0; i < GeneralConfig.nbtPathCacheSize + 10; i++) {
+            NbtPathExpressionCache.parse("$.cache_size_" + i);
+        }
+        assertThat("the cache is bounded", NbtPathExpressionCache.getCache().size() <= GeneralConfig.nbtPathCacheSize, is(true));
+    }
+
+    @Test
+    public void testNbtPathCurried() throws EvaluationException {
+        CompoundNBT tag2 = new CompoundNBT();
+        CompoundNBT tag3 = new CompoundNBT();
+        tag2.put("a", tag3);
+        tag3.put("b", StringNBT.valueOf("x"));
+        DummyVariableNbt nbt = new DummyVariableNbt(ValueTypeNbt.ValueNbt.of(tag2));
+
+        CurriedOperator curried = new CurriedOperator(Operators.NBT_PATH_TEST,
+                new DummyVariable<>(ValueTypes.STRING, ValueTypeString.ValueString.of("$.cache_curried.b")));
+        IValue res1 = curried.evaluate(new IVariable[]{nbt});
+        assertThat("path_test(...) = false", ((ValueTypeBoolean.ValueBoolean) res1).getRawValue(), is(false));
+
+        CurriedOperator curriedMatching = new CurriedOperator(Operators.NBT_PATH_TEST,
+                new DummyVariable<>(ValueTypes.STRING, ValueTypeString.ValueString.of("$.a.b")));
+        curriedMatching.evaluate(new IVariable[]{nbt});
+        long lookups = NbtPathExpressionCache.getCache().getHits() + NbtPathExpressionCache.getCache().getMisses();
+        IValue res2 = curriedMatching.evaluate(new IVariable[]{nbt});
+        assertThat("path_test(...) = true", ((ValueTypeBoolean.ValueBoolean) res2).getRawValue(), is(true));
+        assertThat("a curried path is not looked up again",
+                NbtPathExpressionCache.getCache().getHits() + NbtPathExpressionCache.getCache().getMisses(), is(lookups));
+    }
+
 }
@@ -6,6 +6,7 @@ import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
 import org.cyclops.integrateddynamics.core.evaluate.operator.CurriedOperator;
+import org.cyclops.integrateddynamics.core.evaluate.operator.OperatorBase;
 import org.cyclops.integrateddynamics.core.evaluate.operator.Operators;
 import org.hamcrest.CoreMatchers;
 import org.junit.Before;
@@ -1078,4 +1079,72 @@ public class TestOperatorOperators {
         Operators.OPERATOR_BY_NAME.evaluate(new IVariable[]{oIntegerIncrement});
     }
 
+    /**
+     * ----------------------------------- COMPILE -----------------------------------
+     */
+
+    @Test
+    public void testCompile() throws EvaluationException {
+        OperatorBase.Compiled compiled = ((OperatorBase) Operators.ARITHMETIC_ADDITION).compile(new IVariable[]{i1, i2});
+        assertThat("a valid input can be compiled", compiled, notNullValue());
+        assertThat("1 + 2 = 3", ((ValueTypeInteger.ValueInteger) compiled.evaluate()).getRawValue(), is(3));
+
+        i1.setValue(ValueTypeInteger.ValueInteger.of(10));
+        assertThat("a compiled operator reads the current input values",
+                ((ValueTypeInteger.ValueInteger) compiled.evaluate()).getRawValue(), is(12));
+    }
+
+    @Test
+    public void testCompileInvalidInput() {
+        assertThat("invalid input types can not be compiled",
+                ((OperatorBase) Operators.ARITHMETIC_ADDITION).compile(new IVariable[]{i1, bTrue}), nullValue());
+        assertThat("invalid input lengths can not be compiled",
+                ((OperatorBase) Operators.ARITHMETIC_ADDITION).compile(new IVariable[]{i1}), nullValue());
+    }
+
+    /**
+     * ----------------------------------- EVALUATE VALUES -----------------------------------
+     */
+
+    @Test
+    public void testEvaluateOperatorValues() throws EvaluationException {
+        IValue res1 = ValueHelpers.evaluateOperator(Operators.ARITHMETIC_ADDITION,
+                ValueTypeInteger.ValueInteger.of(1), ValueTypeInteger.ValueInteger.of(2));
+        IValue res2 = ValueHelpers.evaluateOperator(Operators.ARITHMETIC_ADDITION,
+                ValueTypeInteger.ValueInteger.of(10), ValueTypeInteger.ValueInteger.of(20));
+        assertThat("1 + 2 = 3", ((ValueTypeInteger.ValueInteger) res1).getRawValue(), is(3));
+        assertThat("10 + 20 = 30", ((ValueTypeInteger.ValueInteger) res2).getRawValue(), is(30));
+    }
+
+    @Test
+    public void testEvaluateOperatorValuesOperatorResult() throws EvaluationException {
+        // Applying too few values results in curried operators that hold on to the applied values
+        IValue add1 = ValueHelpers.evaluateOperator(Operators.OPERATOR_APPLY,
+                ValueTypeOperator.ValueOperator.of(Operators.ARITHMETIC_ADDITION), ValueTypeInteger.ValueInteger.of(1));
+        IValue add10 = ValueHelpers.evaluateOperator(Operators.OPERATOR_APPLY,
+                ValueTypeOperator.ValueOperator.of(Operators.ARITHMETIC_ADDITION), ValueTypeInteger.ValueInteger.of(10));
+
+        IValue res1 = ValueHelpers.evaluateOperator(((ValueTypeOperator.ValueOperator) add1).getRawValue(),
+                ValueTypeInteger.ValueInteger.of(2));
+        IValue res10 = ValueHelpers.evaluateOperator(((ValueTypeOperator.ValueOperator) add10).getRawValue(),
+                ValueTypeInteger.ValueInteger.of(2));
+        assertThat("(1 +) 2 = 3", ((ValueTypeInteger.ValueInteger) res1).getRawValue(), is(3));
+        assertThat("(10 +) 2 = 12", ((ValueTypeInteger.ValueInteger) res10).getRawValue(), is(12));
+    }
+
+    @Test
+    public void testEvaluateOperatorValuesListResult() throws EvaluationException {
+        IValue list1 = ValueHelpers.evaluateOperator(Operators.OPERATOR_MAP,
+                ValueTypeOperator.ValueOperator.of(Operators.INTEGER_INCREMENT),
+                ValueTypeList.ValueList.ofAll(ValueTypes.INTEGER, ValueTypeInteger.ValueInteger.of(1)));
+        IValue list10 = ValueHelpers.evaluateOperator(Operators.OPERATOR_MAP,
+                ValueTypeOperator.ValueOperator.of(Operators.INTEGER_INCREMENT),
+                ValueTypeList.ValueList.ofAll(ValueTypes.INTEGER, ValueTypeInteger.ValueInteger.of(10)));
+
+        IValueTypeListProxy proxy1 = ((ValueTypeList.ValueList) list1).getRawValue();
+        IValueTypeListProxy proxy10 = ((ValueTypeList.ValueList) list10).getRawValue();
+        assertThat("map([1], ++)[0] == 2", ((ValueTypeInteger.ValueInteger) proxy1.get(0)).getRawValue(), is(2));
+        assertThat("map([10], ++)[0] == 11", ((ValueTypeInteger.ValueInteger) proxy10.get(0)).getRawValue(), is(11));
+    }
+
 }
@@ -1,13 +1,16 @@
 package org.cyclops.integrateddynamics.core.evaluate.variable;
 
+import com.google.re2j.Pattern;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.text.IFormattableTextComponent;
+import org.cyclops.integrateddynamics.GeneralConfig;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
 import org.cyclops.integrateddynamics.core.evaluate.operator.Operators;
+import org.cyclops.integrateddynamics.core.evaluate.operator.RegexPatternCache;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -16,7 +19,10 @@ import java.util.Iterator;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * Test the different integer operators.
@@ -780,4 +786,42 @@ public class TestStringOperators {
         Operators.NAMED_NAME.evaluate(new IVariable[]{DUMMY_VARIABLE});
     }
 
+    /**
+     * ----------------------------------- REGEX CACHE -----------------------------------
+     */
+
+    @Test
+    public void testRegexCacheHit() throws EvaluationException {
+        long hits = RegexPatternCache.getCache().getHits();
+        long misses = RegexPatternCache.getCache().getMisses();
+        Pattern pattern1 = RegexPatternCache.compile("cache_hit_[a-z]+");
+        Pattern pattern2 = RegexPatternCache.compile("cache_hit_[a-z]+");
+        assertThat("a cached pattern is reused", pattern2, sameInstance(pattern1));
+        assertThat("the first lookup is a miss", RegexPatternCache.getCache().getMisses() - misses, is(1L));
+        assertThat("the second lookup is a hit", RegexPatternCache.getCache().getHits() - hits, is(1L));
+    }
+
+    @Test
+    public void testRegexCacheInvalidPatternRepeated() {
+        DummyVariableString brokenRegex = new DummyVariableString(ValueTypeString.ValueString.of("[cache_invalid"));
+        long misses = RegexPatternCache.getCache().getMisses();
+        for (int i = 0; i < 2; i++) {
+            try {
+                Operators.STRING_CONTAINS_REGEX.evaluate(new IVariable[]{brokenRegex, sabc});
+                fail("An invalid pattern must fail on each evaluation");
+            } catch (EvaluationException e) {
+                assertThat("each evaluation fails with its own error", e.getErrorMessage(), notNullValue());
+            }
+        }
+        assertThat("an invalid pattern is only compiled once", RegexPatternCache.getCache().getMisses() - misses, is(1L));
+    }
+
+    @Test
+    public void testRegexCacheSizeLimit() throws EvaluationException {
+        for (int i = 0; i < GeneralConfig.regexCacheSize + 10; i++) {
+            RegexPatternCache.compile("cache_size_" + i);
+        }
+        assertThat("the cache is bounded", RegexPatternCache.getCache().size() <= GeneralConfig.regexCacheSize, is(true));
+    }
+
 }
@@ -0,0 +1,205 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import com.google.common.collect.Lists;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.INBT;
+import net.minecraft.nbt.IntNBT;
+import net.minecraft.util.text.IFormattableTextComponent;
+import net.minecraft.util.text.StringTextComponent;
+import org.cyclops.commoncapabilities.api.ingredient.IIngredientMatcher;
+import org.cyclops.commoncapabilities.api.ingredient.IIngredientSerializer;
+import org.cyclops.commoncapabilities.api.ingredient.IngredientComponent;
+
+import java.util.Objects;
+
+/**
+ * A dummy ingredient, which is identified by a name, and has a quantity.
+ * @author rubensworks
+ */
+public class DummyIngredient {
+
+    public static final int MATCH_ANY = 0;
+    public static final int MATCH_NAME = 1;
+    public static final int MATCH_QUANTITY = 2;
+    public static final int MATCH_EXACT = MATCH_NAME | MATCH_QUANTITY;
+
+    public static final DummyIngredient EMPTY = new DummyIngredient("", 0);
+    public static final IngredientComponent<DummyIngredient, Integer> COMPONENT = new IngredientComponent<>(
+            "integrateddynamics:dummy", new Matcher(), new Serializer(), Lists.newArrayList());
+
+    private final String name;
+    private final long quantity;
+
+    public DummyIngredient(String name, long quantity) {
+        this.name = name;
+        this.quantity = quantity;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DummyIngredient
+                && this.name.equals(((DummyIngredient) o).name)
+                && this.quantity == ((DummyIngredient) o).quantity;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, quantity);
+    }
+
+    @Override
+    public String toString() {
+        return name + "x" + quantity;
+    }
+
+    public static class Matcher implements IIngredientMatcher<DummyIngredient, Integer> {
+
+        @Override
+        public boolean isInstance(Object object) {
+            return object instanceof DummyIngredient;
+        }
+
+        @Override
+        public Integer getAnyMatchCondition() {
+            return MATCH_ANY;
+        }
+
+        @Override
+        public Integer getExactMatchCondition() {
+            return MATCH_EXACT;
+        }
+
+        @Override
+        public Integer getExactMatchNoQuantityCondition() {
+            return MATCH_NAME;
+        }
+
+        @Override
+        public Integer withCondition(Integer matchCondition, Integer with) {
+            return matchCondition | with;
+        }
+
+        @Override
+        public Integer withoutCondition(Integer matchCondition, Integer without) {
+            return matchCondition & ~without;
+        }
+
+        @Override
+        public boolean hasCondition(Integer matchCondition, Integer searchCondition) {
+            return (matchCondition & searchCondition) > 0;
+        }
+
+        @Override
+        public boolean matches(DummyIngredient a, DummyIngredient b, Integer matchCondition) {
+            return ((matchCondition & MATCH_NAME) == 0 || a.getName().equals(b.getName()))
+                    && ((matchCondition & MATCH_QUANTITY) == 0 || a.getQuantity() == b.getQuantity());
+        }
+
+        @Override
+        public boolean matchesExactly(DummyIngredient a, DummyIngredient b) {
+            return matches(a, b, MATCH_EXACT);
+        }
+
+        @Override
+        public DummyIngredient getEmptyInstance() {
+            return EMPTY;
+        }
+
+        @Override
+        public boolean isEmpty(DummyIngredient instance) {
+            return instance.getQuantity() == 0;
+        }
+
+        @Override
+        public int hash(DummyIngredient instance) {
+            return instance.hashCode();
+        }
+
+        @Override
+        public DummyIngredient copy(DummyIngredient instance) {
+            return instance;
+        }
+
+        @Override
+        public long getQuantity(DummyIngredient instance) {
+            return instance.getQuantity();
+        }
+
+        @Override
+        public DummyIngredient withQuantity(DummyIngredient instance, long quantity) throws ArithmeticException {
+            return new DummyIngredient(instance.getName(), quantity);
+        }
+
+        @Override
+        public long getMaximumQuantity() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int conditionCompare(Integer a, Integer b) {
+            return Integer.compare(a, b);
+        }
+
+        @Override
+        public String localize(DummyIngredient instance) {
+            return instance.getName();
+        }
+
+        @Override
+        public IFormattableTextComponent getDisplayName(DummyIngredient instance) {
+            return new StringTextComponent(instance.getName());
+        }
+
+        @Override
+        public String toString(DummyIngredient instance) {
+            return instance.toString();
+        }
+
+        @Override
+        public int compare(DummyIngredient a, DummyIngredient b) {
+            int compName = a.getName().compareTo(b.getName());
+            return compName != 0 ? compName : Long.compare(a.getQuantity(), b.getQuantity());
+        }
+    }
+
+    public static class Serializer implements IIngredientSerializer<DummyIngredient, Integer> {
+
+        @Override
+        public INBT serializeInstance(DummyIngredient instance) {
+            CompoundNBT tag = new CompoundNBT();
+            tag.putString("name", instance.getName());
+            tag.putLong("quantity", instance.getQuantity());
+            return tag;
+        }
+
+        @Override
+        public DummyIngredient deserializeInstance(INBT tag) throws IllegalArgumentException {
+            if (!(tag instanceof CompoundNBT)) {
+                throw new IllegalArgumentException("Dummy ingredient tag must be a compound tag");
+            }
+            return new DummyIngredient(((CompoundNBT) tag).getString("name"), ((CompoundNBT) tag).getLong("quantity"));
+        }
+
+        @Override
+        public INBT serializeCondition(Integer matchCondition) {
+            return IntNBT.valueOf(matchCondition);
+        }
+
+        @Override
+        public Integer deserializeCondition(INBT tag) throws IllegalArgumentException {
+            if (!(tag instanceof IntNBT)) {
+                throw new IllegalArgumentException("Dummy ingredient condition tag must be an int tag");
+            }
+            return ((IntNBT) tag).getInt();
+        }
+    }
+
+}
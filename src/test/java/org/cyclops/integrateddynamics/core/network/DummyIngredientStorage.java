@@ -0,0 +1,137 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import org.cyclops.commoncapabilities.api.ingredient.IngredientComponent;
+import org.cyclops.commoncapabilities.api.ingredient.storage.IIngredientComponentStorageSlotted;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * An in-memory slotted storage of dummy ingredients, in which each slot can hold a single kind of ingredient.
+ * @author rubensworks
+ */
+public class DummyIngredientStorage implements IIngredientComponentStorageSlotted<DummyIngredient, Integer> {
+
+    private final DummyIngredient[] slots;
+    private final long maxSlotQuantity;
+
+    public DummyIngredientStorage(int slots, long maxSlotQuantity) {
+        this.slots = new DummyIngredient[slots];
+        Arrays.fill(this.slots, DummyIngredient.EMPTY);
+        this.maxSlotQuantity = maxSlotQuantity;
+    }
+
+    @Override
+    public IngredientComponent<DummyIngredient, Integer> getComponent() {
+        return DummyIngredient.COMPONENT;
+    }
+
+    @Override
+    public Iterator<DummyIngredient> iterator() {
+        return Arrays.stream(slots).filter(instance -> instance.getQuantity() > 0).iterator();
+    }
+
+    @Override
+    public Iterator<DummyIngredient> iterator(DummyIngredient prototype, Integer matchCondition) {
+        return Arrays.stream(slots)
+                .filter(instance -> instance.getQuantity() > 0
+                        && getComponent().getMatcher().matches(instance, prototype, matchCondition))
+                .iterator();
+    }
+
+    @Override
+    public long getMaxQuantity() {
+        return slots.length * maxSlotQuantity;
+    }
+
+    @Override
+    public int getSlots() {
+        return slots.length;
+    }
+
+    @Override
+    public DummyIngredient getSlotContents(int slot) {
+        return slots[slot];
+    }
+
+    @Override
+    public long getMaxQuantity(int slot) {
+        return maxSlotQuantity;
+    }
+
+    @Override
+    public DummyIngredient insert(int slot, DummyIngredient ingredient, boolean simulate) {
+        DummyIngredient current = slots[slot];
+        if (current.getQuantity() > 0 && !current.getName().equals(ingredient.getName())) {
+            return ingredient;
+        }
+        long inserted = Math.min(ingredient.getQuantity(), maxSlotQuantity - current.getQuantity());
+        if (!simulate && inserted > 0) {
+            slots[slot] = new DummyIngredient(ingredient.getName(), current.getQuantity() + inserted);
+        }
+        return inserted == ingredient.getQuantity() ? DummyIngredient.EMPTY
+                : new DummyIngredient(ingredient.getName(), ingredient.getQuantity() - inserted);
+    }
+
+    @Override
+    public DummyIngredient insert(DummyIngredient ingredient, boolean simulate) {
+        for (int slot = 0; slot < slots.length && ingredient.getQuantity() > 0; slot++) {
+            ingredient = insert(slot, ingredient, simulate);
+        }
+        return ingredient;
+    }
+
+    @Override
+    public DummyIngredient extract(int slot, long maxQuantity, boolean simulate) {
+        DummyIngredient current = slots[slot];
+        long extracted = Math.min(maxQuantity, current.getQuantity());
+        if (extracted <= 0) {
+            return DummyIngredient.EMPTY;
+        }
+        if (!simulate) {
+            slots[slot] = extracted == current.getQuantity() ? DummyIngredient.EMPTY
+                    : new DummyIngredient(current.getName(), current.getQuantity() - extracted);
+        }
+        return new DummyIngredient(current.getName(), extracted);
+    }
+
+    @Override
+    public DummyIngredient extract(DummyIngredient prototype, Integer matchCondition, boolean simulate) {
+        boolean exactQuantity = (matchCondition & DummyIngredient.MATCH_QUANTITY) > 0;
+        int matchConditionNoQuantity = matchCondition & ~DummyIngredient.MATCH_QUANTITY;
+        String name = null;
+        long extracted = 0;
+        for (int slot = 0; slot < slots.length && extracted < prototype.getQuantity(); slot++) {
+            DummyIngredient current = slots[slot];
+            if (current.getQuantity() > 0
+                    && getComponent().getMatcher().matches(current, prototype, matchConditionNoQuantity)
+                    && (name == null || name.equals(current.getName()))) {
+                name = current.getName();
+                extracted += Math.min(prototype.getQuantity() - extracted, current.getQuantity());
+            }
+        }
+        if (name == null || (exactQuantity && extracted != prototype.getQuantity())) {
+            return DummyIngredient.EMPTY;
+        }
+        if (!simulate) {
+            long remaining = extracted;
+            for (int slot = 0; slot < slots.length && remaining > 0; slot++) {
+                if (slots[slot].getName().equals(name)) {
+                    remaining -= extract(slot, remaining, false).getQuantity();
+                }
+            }
+        }
+        return new DummyIngredient(name, extracted);
+    }
+
+    @Override
+    public DummyIngredient extract(long maxQuantity, boolean simulate) {
+        for (DummyIngredient current : slots) {
+            if (current.getQuantity() > 0) {
+                return extract(new DummyIngredient(current.getName(), maxQuantity), DummyIngredient.MATCH_NAME, simulate);
+            }
+        }
+        return DummyIngredient.EMPTY;
+    }
+
+}
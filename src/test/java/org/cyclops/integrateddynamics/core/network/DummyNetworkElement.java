@@ -0,0 +1,81 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import org.cyclops.integrateddynamics.api.network.INetwork;
+import org.cyclops.integrateddynamics.api.network.INetworkElement;
+
+/**
+ * A dummy network element that, just like most elements, only implements {@link #compareTo(INetworkElement)}.
+ * Multiple instances can refer to the same state, like elements that are newly created for the same position.
+ * @author rubensworks
+ */
+public class DummyNetworkElement extends NetworkElementBase {
+
+    private final State state;
+
+    public DummyNetworkElement(State state) {
+        this.state = state;
+    }
+
+    public DummyNetworkElement(int key) {
+        this(new State(key));
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    @Override
+    public void setPriorityAndChannel(INetwork network, int priority, int channel) {
+        this.state.priority = priority;
+        this.state.channel = channel;
+    }
+
+    @Override
+    public int getPriority() {
+        return state.priority;
+    }
+
+    @Override
+    public int getChannel() {
+        return state.channel;
+    }
+
+    @Override
+    public boolean canRevalidate(INetwork network) {
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public int compareTo(INetworkElement o) {
+        if (o instanceof DummyNetworkElement) {
+            DummyNetworkElement that = (DummyNetworkElement) o;
+            if (this.getPriority() != that.getPriority()) {
+                return -Integer.compare(this.getPriority(), that.getPriority());
+            }
+            return Integer.compare(this.state.key, that.state.key);
+        }
+        return this.getClass().getName().compareTo(o.getClass().getName());
+    }
+
+    public static class State {
+
+        private final int key;
+        private int priority = 0;
+        private int channel = 0;
+
+        public State(int key) {
+            this.key = key;
+        }
+    }
+
+}
@@ -0,0 +1,227 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import com.google.common.collect.Lists;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.cyclops.commoncapabilities.api.ingredient.IngredientComponent;
+import org.cyclops.cyclopscore.datastructure.DimPos;
+import org.cyclops.integrateddynamics.api.part.PartPos;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test the simulation of batches of operations on ingredient channels.
+ * @author rubensworks
+ */
+public class TestIngredientChannelSimulation {
+
+    private static final PartPos POS = PartPos.of(DimPos.of(World.OVERWORLD, BlockPos.ZERO), Direction.NORTH);
+
+    private IngredientChannelSimulation<DummyIngredient, Integer> simulation;
+
+    @Before
+    public void beforeEach() {
+        simulation = new IngredientChannelSimulation<>(DummyIngredient.COMPONENT);
+    }
+
+    protected static DummyIngredient of(String name, long quantity) {
+        return new DummyIngredient(name, quantity);
+    }
+
+    protected DummyIngredient extract(DummyIngredientStorage storage, int index, DummyIngredient prototype) {
+        DummyIngredient extracted = simulation.simulateExtract(storage, POS, prototype, DummyIngredient.MATCH_NAME);
+        if (extracted.getQuantity() > 0) {
+            simulation.addExtraction(POS, index, extracted);
+        }
+        return extracted;
+    }
+
+    protected DummyIngredient insert(DummyIngredientStorage storage, int index, DummyIngredient ingredient) {
+        DummyIngredient remaining = simulation.simulateInsert(storage, POS, ingredient);
+        long inserted = ingredient.getQuantity() - remaining.getQuantity();
+        if (inserted > 0) {
+            simulation.addInsertion(POS, index, of(ingredient.getName(), inserted));
+        }
+        return remaining;
+    }
+
+    @Test
+    public void testExtractRepeated() {
+        DummyIngredientStorage storage = new DummyIngredientStorage(2, 64);
+        storage.insert(of("a", 10), false);
+
+        assertThat(extract(storage, 0, of("a", 6)), is(of("a", 6)));
+        assertThat(extract(storage, 1, of("a", 6)), is(of("a", 4)));
+        assertThat(extract(storage, 2, of("a", 6)), is(DummyIngredient.EMPTY));
+
+        // The storage is not modified
+        assertThat(storage.getSlotContents(0), is(of("a", 10)));
+    }
+
+    @Test
+    public void testInsertCompeting() {
+        DummyIngredientStorage storage = new DummyIngredientStorage(2, 64);
+        storage.insert(of("b", 64), false);
+
+        // Only a single free slot is available
+        assertThat(insert(storage, 0, of("a", 40)), is(DummyIngredient.EMPTY));
+        assertThat(insert(storage, 1, of("c", 10)), is(of("c", 10)));
+        assertThat(insert(storage, 2, of("a", 30)), is(of("a", 6)));
+    }
+
+    @Test
+    public void testInsertDifferentIntoFreeSlots() {
+        DummyIngredientStorage storage = new DummyIngredientStorage(2, 64);
+
+        // Different instances fill different slots
+        assertThat(insert(storage, 0, of("a", 64)), is(DummyIngredient.EMPTY));
+        assertThat(insert(storage, 1, of("c", 64)), is(DummyIngredient.EMPTY));
+        assertThat(insert(storage, 2, of("d", 1)), is(of("d", 1)));
+    }
+
+    @Test
+    public void testExtractThenInsertFreedSlot() {
+        DummyIngredientStorage storage = new DummyIngredientStorage(1, 64);
+        storage.insert(of("b", 64), false);
+
+        assertThat(insert(storage, 0, of("a", 10)), is(of("a", 10)));
+        assertThat(extract(storage, 0, of("b", 64)), is(of("b", 64)));
+        assertThat(insert(storage, 1, of("a", 10)), is(DummyIngredient.EMPTY));
+        assertThat(insert(storage, 2, of("a", 60)), is(of("a", 6)));
+    }
+
+    @Test
+    public void testExtractThenInsertFreedSpace() {
+        DummyIngredientStorage storage = new DummyIngredientStorage(1, 64);
+        storage.insert(of("b", 64), false);
+
+        assertThat(extract(storage, 0, of("b", 10)), is(of("b", 10)));
+        assertThat(insert(storage, 0, of("a", 10)), is(of("a", 10)));
+        assertThat(insert(storage, 1, of("b", 15)), is(of("b", 5)));
+    }
+
+    @Test
+    public void testApplyShortfall() {
+        DummyIngredientStorage storage = new DummyIngredientStorage(2, 64);
+        storage.insert(of("b", 10), false);
+        IngredientChannelTransaction<DummyIngredient, Integer> transaction = new DummyIngredientChannel(storage)
+                .beginTransaction()
+                .extract(of("b", 10), DummyIngredient.MATCH_NAME)
+                .insert(of("a", 100));
+
+        IngredientChannelSimulation<DummyIngredient, Integer> simulation = new IngredientChannelSimulation<>(DummyIngredient.COMPONENT);
+        IngredientChannelTransaction.Result<DummyIngredient> simulated = transaction.run(simulation);
+        assertThat(simulated.isComplete(), is(true));
+
+        // Change the storage after the simulation, so that not all steps can be applied
+        storage.extract(of("b", 3), DummyIngredient.MATCH_NAME, false);
+        storage.insert(1, of("c", 1), false);
+
+        IngredientChannelTransaction.Result<DummyIngredient> result = transaction.apply(simulation, simulated);
+        assertThat(result.isCommitted(), is(true));
+        assertThat(result.isComplete(), is(false));
+        assertThat(result.getExtracted(), is(Lists.newArrayList(of("b", 7))));
+        assertThat(result.getRemaining(), is(Lists.newArrayList(of("a", 36))));
+        assertThat(storage.getSlotContents(0), is(of("a", 64)));
+        assertThat(storage.getSlotContents(1), is(of("c", 1)));
+    }
+
+    /**
+     * A channel over a single storage position, which is not part of a network.
+     */
+    public static class DummyIngredientChannel extends IngredientChannelAdapter<DummyIngredient, Integer> {
+
+        private final DummyIngredientStorage storage;
+
+        public DummyIngredientChannel(DummyIngredientStorage storage) {
+            super(null, 0);
+            this.storage = storage;
+        }
+
+        @Override
+        public IngredientComponent<DummyIngredient, Integer> getComponent() {
+            return DummyIngredient.COMPONENT;
+        }
+
+        @Override
+        protected Iterator<PartPos> getNonFullPositions() {
+            return Collections.singletonList(POS).iterator();
+        }
+
+        @Override
+        protected Iterator<PartPos> getAllPositions() {
+            return Collections.singletonList(POS).iterator();
+        }
+
+        @Override
+        protected Iterator<PartPos> getNonEmptyPositions() {
+            return Collections.singletonList(POS).iterator();
+        }
+
+        @Override
+        protected Iterator<PartPos> getMatchingPositions(@Nonnull DummyIngredient prototype, Integer matchFlags) {
+            return Collections.singletonList(POS).iterator();
+        }
+
+        @Override
+        public Iterator<DummyIngredient> iterator() {
+            return storage.iterator();
+        }
+
+        @Override
+        public Iterator<DummyIngredient> iterator(@Nonnull DummyIngredient prototype, Integer matchCondition) {
+            return storage.iterator(prototype, matchCondition);
+        }
+
+        @Override
+        public List<DummyIngredient> extractAll(List<DummyIngredient> prototypes, List<Integer> matchFlags,
+                                                @Nullable IngredientChannelSimulation<DummyIngredient, Integer> simulation) {
+            List<DummyIngredient> extracted = Lists.newArrayList();
+            for (int i = 0; i < prototypes.size(); i++) {
+                DummyIngredient instance = simulation.simulateExtract(storage, POS, prototypes.get(i), matchFlags.get(i));
+                if (instance.getQuantity() > 0) {
+                    simulation.addExtraction(POS, i, instance);
+                }
+                extracted.add(instance);
+            }
+            return extracted;
+        }
+
+        @Override
+        public List<DummyIngredient> insertAll(List<DummyIngredient> ingredients,
+                                               @Nullable IngredientChannelSimulation<DummyIngredient, Integer> simulation) {
+            List<DummyIngredient> remaining = Lists.newArrayList();
+            for (int i = 0; i < ingredients.size(); i++) {
+                DummyIngredient ingredient = ingredients.get(i);
+                DummyIngredient instance = simulation.simulateInsert(storage, POS, ingredient);
+                long inserted = ingredient.getQuantity() - instance.getQuantity();
+                if (inserted > 0) {
+                    simulation.addInsertion(POS, i, of(ingredient.getName(), inserted));
+                }
+                remaining.add(instance);
+            }
+            return remaining;
+        }
+
+        @Override
+        public void applySimulation(IngredientChannelSimulation<DummyIngredient, Integer> simulation) {
+            for (IngredientChannelSimulation.Step<DummyIngredient> step : simulation.getExtractionSteps()) {
+                step.setAppliedQuantity(storage.extract(step.getInstance(), DummyIngredient.MATCH_NAME, false).getQuantity());
+            }
+            for (IngredientChannelSimulation.Step<DummyIngredient> step : simulation.getInsertionSteps()) {
+                step.setAppliedQuantity(step.getInstance().getQuantity() - storage.insert(step.getInstance(), false).getQuantity());
+            }
+        }
+    }
+
+}
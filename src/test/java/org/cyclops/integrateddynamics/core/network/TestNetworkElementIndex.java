@@ -0,0 +1,111 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import com.google.common.collect.Lists;
+import org.cyclops.integrateddynamics.api.network.INetworkElement;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test the network element index.
+ * @author rubensworks
+ */
+public class TestNetworkElementIndex {
+
+    private NetworkElementIndex index;
+    private DummyNetworkElement e0;
+    private DummyNetworkElement e1;
+    private DummyNetworkElement e2;
+
+    @Before
+    public void before() {
+        index = new NetworkElementIndex();
+        e0 = new DummyNetworkElement(0);
+        e1 = new DummyNetworkElement(1);
+        e2 = new DummyNetworkElement(2);
+    }
+
+    @Test
+    public void testAdd() {
+        assertThat(index.add(e0), is(0));
+        assertThat(index.add(e1), is(1));
+        assertThat(index.add(e2), is(2));
+        assertThat("adding again keeps the id", index.add(e1), is(1));
+        assertThat(index.size(), is(3));
+        assertThat(index.getCapacity(), is(3));
+        assertThat(index.get(1), sameInstance(e1));
+    }
+
+    @Test
+    public void testGetIdFreshInstance() {
+        index.add(e0);
+        index.add(e1);
+        assertThat(index.getId(new DummyNetworkElement(e1.getState())), is(1));
+        assertThat(index.getId(new DummyNetworkElement(5)), is(-1));
+    }
+
+    @Test
+    public void testRemoveFreshInstance() {
+        index.add(e0);
+        index.add(e1);
+        index.add(e2);
+
+        assertThat(index.remove(new DummyNetworkElement(e1.getState())), is(1));
+        assertThat(index.size(), is(2));
+        assertThat(index.get(1), nullValue());
+        assertThat(index.getId(e1), is(-1));
+        assertThat(Lists.newArrayList(index.getSortedElements()), is(Lists.<INetworkElement>newArrayList(e0, e2)));
+
+        assertThat("removing again does nothing", index.remove(new DummyNetworkElement(e1.getState())), is(-1));
+    }
+
+    @Test
+    public void testReuseIds() {
+        index.add(e0);
+        index.add(e1);
+        index.remove(e0);
+        assertThat(index.add(e2), is(0));
+        assertThat(index.getCapacity(), is(2));
+    }
+
+    @Test
+    public void testReorderFreshInstance() {
+        index.add(e0);
+        index.add(e1);
+        index.add(e2);
+        assertThat(index.getRanks()[2], is(2));
+
+        DummyNetworkElement fresh = new DummyNetworkElement(e2.getState());
+        index.reorder(fresh, () -> fresh.setPriorityAndChannel(null, 10, 0));
+
+        assertThat(Lists.newArrayList(index.getSortedElements()), is(Lists.<INetworkElement>newArrayList(e2, e0, e1)));
+        assertThat(index.getRanks()[2], is(0));
+        assertThat(index.getRanks()[0], is(1));
+        assertThat(index.getId(e2), is(2));
+        assertThat(index.remove(new DummyNetworkElement(e2.getState())), is(2));
+    }
+
+    @Test
+    public void testRanks() {
+        index.add(e2);
+        index.add(e0);
+        index.add(e1);
+        assertThat(index.getRanks()[index.getId(e0)], is(0));
+        assertThat(index.getRanks()[index.getId(e1)], is(1));
+        assertThat(index.getRanks()[index.getId(e2)], is(2));
+
+        index.remove(e0);
+        assertThat(index.getRanks()[index.getId(e1)], is(0));
+        assertThat(index.getRanks()[index.getId(e2)], is(1));
+
+        index.add(e0);
+        assertThat(index.getRanks()[index.getId(e0)], is(0));
+        assertThat(index.getRanks()[index.getId(e1)], is(1));
+        assertThat(index.getRanks()[index.getId(e2)], is(2));
+    }
+
+}
@@ -0,0 +1,102 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import com.google.common.collect.Lists;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.cyclops.cyclopscore.datastructure.DimPos;
+import org.cyclops.integrateddynamics.api.network.IPositionedAddonsNetwork;
+import org.cyclops.integrateddynamics.api.part.PartPos;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test the positions of positioned addon networks.
+ * @author rubensworks
+ */
+public class TestPositionedAddonsNetwork {
+
+    private PositionedAddonsNetwork network;
+    private PartPos p0;
+    private PartPos p1;
+    private PartPos p2;
+
+    @Before
+    public void before() {
+        network = new PositionedAddonsNetwork() {};
+        p0 = PartPos.of(DimPos.of(World.OVERWORLD, new BlockPos(0, 0, 0)), Direction.NORTH);
+        p1 = PartPos.of(DimPos.of(World.OVERWORLD, new BlockPos(1, 0, 0)), Direction.NORTH);
+        p2 = PartPos.of(DimPos.of(World.OVERWORLD, new BlockPos(2, 0, 0)), Direction.NORTH);
+    }
+
+    @Test
+    public void testPrioritizedPositions() {
+        network.addPosition(p0, 0, 0);
+        network.addPosition(p1, 10, IPositionedAddonsNetwork.WILDCARD_CHANNEL);
+        network.addPosition(p2, 5, 1);
+
+        assertThat(Lists.newArrayList(network.getPositions(0)), is(Lists.newArrayList(p1, p0)));
+        assertThat(Lists.newArrayList(network.getPositions(1)), is(Lists.newArrayList(p1, p2)));
+        assertThat("channels without positions only contain the wildcard positions",
+                Lists.newArrayList(network.getPositions(2)), is(Lists.newArrayList(p1)));
+        assertThat(Lists.newArrayList(network.getPositions()), is(Lists.newArrayList(p1, p2, p0)));
+
+        // Views are built again after changes
+        network.removePosition(p1);
+        assertThat(Lists.newArrayList(network.getPositions(0)), is(Lists.newArrayList(p0)));
+        assertThat(Lists.newArrayList(network.getPositions(2)), is(Lists.<PartPos>newArrayList()));
+        network.addPosition(p1, -1, 0);
+        assertThat(Lists.newArrayList(network.getPositions(0)), is(Lists.newArrayList(p0, p1)));
+        assertThat(Lists.newArrayList(network.getPositions(1)), is(Lists.newArrayList(p2)));
+        assertThat(Lists.newArrayList(network.getPositions()), is(Lists.newArrayList(p2, p0, p1)));
+    }
+
+    @Test
+    public void testDisablePosition() {
+        network.addPosition(p0, 0, 0);
+        assertThat(network.isPositionDisabled(p0), is(false));
+        network.disablePosition(p0);
+        assertThat(network.isPositionDisabled(p0), is(true));
+        assertThat(network.isPositionDisabled(p1), is(false));
+        network.enablePosition(p0);
+        assertThat(network.isPositionDisabled(p0), is(false));
+    }
+
+    @Test
+    public void testRemovePositionReusesId() {
+        network.addPosition(p0, 0, 0);
+        network.disablePosition(p0);
+        int id = network.getPositionId(p0).getId();
+        network.removePosition(p0);
+
+        network.addPosition(p1, 0, 0);
+        assertThat(network.getPositionId(p1).getId(), is(id));
+        assertThat(network.isPositionDisabled(p1), is(false));
+    }
+
+    @Test
+    public void testRemovePositionDisabledInOtherThread() throws InterruptedException, ExecutionException {
+        ExecutorService otherThread = Executors.newSingleThreadExecutor();
+        try {
+            network.addPosition(p0, 0, 0);
+            otherThread.submit(() -> network.disablePosition(p0)).get();
+            int id = network.getPositionId(p0).getId();
+            network.removePosition(p0);
+
+            // The reused id must not be disabled in the other thread
+            network.addPosition(p1, 0, 0);
+            assertThat(network.getPositionId(p1).getId(), is(id));
+            assertThat(otherThread.submit(() -> network.isPositionDisabled(p1)).get(), is(false));
+        } finally {
+            otherThread.shutdown();
+        }
+    }
+
+}